@@ -1,14 +1,56 @@
 package reverseDictionary.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import reverseDictionary.demo.util.NamedThreads;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AppConfig {
 
+    /**
+     * Shared outbound HTTP client. Negotiates HTTP/2 where the server supports it (falling back to
+     * HTTP/1.1) and keeps idle connections alive for reuse between searches. How long they are kept
+     * is a JVM-wide setting, the {@code jdk.httpclient.keepalive.timeout} system properties, which the
+     * application does not set; they must be passed to {@code java} at deployment. In virtual-thread
+     * mode the client's own asynchronous work also runs on virtual threads.
+     */
+    @Bean
+    public HttpClient outboundHttpClient(@Value("${whatsdaword.http.connect-timeout:2s}") Duration connectTimeout,
+                                         @Value("${whatsdaword.http.http2:true}") boolean http2,
+                                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (virtualThreads) {
+            builder.executor(Executors.newThreadPerTaskExecutor(NamedThreads.factory("http-client", true)));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public PerHostLimitInterceptor perHostLimitInterceptor(@Value("${whatsdaword.http.max-connections-per-host:32}") int maxPerHost,
+                                                           @Value("${whatsdaword.http.acquire-timeout:1s}") Duration acquireTimeout) {
+        return new PerHostLimitInterceptor(maxPerHost, acquireTimeout);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient outboundHttpClient,
+                                     PerHostLimitInterceptor perHostLimitInterceptor,
+                                     @Value("${whatsdaword.http.read-timeout:5s}") Duration readTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(perHostLimitInterceptor, new GzipDecompressionInterceptor())
+                .build();
     }
 }
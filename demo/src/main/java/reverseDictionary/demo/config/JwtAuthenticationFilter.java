@@ -0,0 +1,69 @@
+package reverseDictionary.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.service.TokenAuthenticator;
+
+import java.io.IOException;
+
+/**
+ * Requires a valid {@code Authorization: Bearer <token>} header on {@code /api/**}, except for
+ * logging in and creating an account. The authenticated user is stored in the request attribute
+ * {@link AuthenticatedUser#ATTRIBUTE}; requests without a valid token get a 401.
+ * <p>
+ * Only active with {@code whatsdaword.auth.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "whatsdaword.auth.enabled", havingValue = "true")
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenAuthenticator tokenAuthenticator;
+
+    public JwtAuthenticationFilter(TokenAuthenticator tokenAuthenticator) {
+        this.tokenAuthenticator = tokenAuthenticator;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return true;
+        }
+        return "POST".equals(request.getMethod())
+                && (path.equals("/api/auth/login") || path.equals("/api/users/create"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            reject(response, "Missing bearer token.");
+            return;
+        }
+        AuthenticatedUser user;
+        try {
+            user = tokenAuthenticator.authenticate(header.substring(BEARER.length()).trim());
+        } catch (ResponseStatusException e) {
+            reject(response, e.getReason());
+            return;
+        }
+        request.setAttribute(AuthenticatedUser.ATTRIBUTE, user);
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+}
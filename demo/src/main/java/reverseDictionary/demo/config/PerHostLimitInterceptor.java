@@ -0,0 +1,174 @@
+package reverseDictionary.demo.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of concurrent outbound requests per host and records how close each host is to the cap.
+ * <p>
+ * The JDK client multiplexes HTTP/2 streams over one connection and opens HTTP/1.1 connections on demand,
+ * so it has no per-host pool limit of its own; this interceptor provides one. A request that cannot get a
+ * permit within {@code acquireTimeout} fails with 503 instead of queueing indefinitely.
+ */
+public class PerHostLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final int maxPerHost;
+    private final long acquireTimeoutNanos;
+    private final ConcurrentHashMap<String, HostPool> pools = new ConcurrentHashMap<>();
+
+    public PerHostLimitInterceptor(int maxPerHost, Duration acquireTimeout) {
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        HostPool pool = pools.computeIfAbsent(host, h -> new HostPool(maxPerHost));
+
+        long waitStart = System.nanoTime();
+        pool.waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = pool.permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a connection to " + host, e);
+        } finally {
+            pool.waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            pool.rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent requests to " + host + "; try again shortly.");
+        }
+        pool.waitNanos.add(System.nanoTime() - waitStart);
+        pool.requests.increment();
+        pool.peak.accumulateAndGet(maxPerHost - pool.permits.availablePermits(), Math::max);
+        // The permit is held until the response is closed, since the body is still streaming when
+        // execute() returns.
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), pool.permits);
+        } catch (IOException | RuntimeException e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a permit for {@code host} without waiting, for callers that must never block (the
+     * asynchronous search path). A granted permit must be given back with {@link #release(String)}.
+     *
+     * @return True if a permit was free.
+     */
+    public boolean tryAcquire(String host) {
+        HostPool pool = pools.computeIfAbsent(host, h -> new HostPool(maxPerHost));
+        if (!pool.permits.tryAcquire()) {
+            pool.rejected.increment();
+            return false;
+        }
+        pool.requests.increment();
+        pool.peak.accumulateAndGet(maxPerHost - pool.permits.availablePermits(), Math::max);
+        return true;
+    }
+
+    public void release(String host) {
+        pools.get(host).permits.release();
+    }
+
+    /**
+     * Per-host usage: requests in flight, peak, callers waiting, totals and mean wait for a permit.
+     *
+     * @return Statistics keyed by host name.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        pools.forEach((host, pool) -> {
+            long requests = pool.requests.sum();
+            Map<String, Object> hostStats = new LinkedHashMap<>();
+            hostStats.put("max", maxPerHost);
+            hostStats.put("inUse", maxPerHost - pool.permits.availablePermits());
+            hostStats.put("peak", pool.peak.get());
+            hostStats.put("waiting", pool.waiting.get());
+            hostStats.put("requests", requests);
+            hostStats.put("rejected", pool.rejected.sum());
+            hostStats.put("meanWaitMicros", requests == 0 ? 0 : pool.waitNanos.sum() / requests / 1_000);
+            result.put(host, hostStats);
+        });
+        return result;
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    private static final class HostPool {
+        final Semaphore permits;
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final LongAdder requests = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+
+        HostPool(int maxPerHost) {
+            this.permits = new Semaphore(maxPerHost, true);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package reverseDictionary.demo.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.service.SearchRateLimiter;
+
+/**
+ * Charges each single-definition search to the caller's rate limit bucket before it runs, so a
+ * refused search never reaches the cache or the upstream. Signed-in users are limited by username,
+ * anonymous requests by IP address. Batch searches are charged by the controller, which knows how
+ * many definitions they hold.
+ */
+public class SearchRateLimitInterceptor implements HandlerInterceptor {
+
+    private final SearchRateLimiter searchRateLimiter;
+
+    public SearchRateLimitInterceptor(SearchRateLimiter searchRateLimiter) {
+        this.searchRateLimiter = searchRateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async search is dispatched again to write its result; it was charged the first time.
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        searchRateLimiter.acquire(username(request), request.getRemoteAddr(), 1);
+        return true;
+    }
+
+    /**
+     * @return The name of the user the request was authenticated as, or null.
+     */
+    public static String username(HttpServletRequest request) {
+        return request.getAttribute(AuthenticatedUser.ATTRIBUTE) instanceof AuthenticatedUser user ? user.username() : null;
+    }
+}
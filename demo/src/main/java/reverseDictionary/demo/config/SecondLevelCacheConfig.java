@@ -0,0 +1,63 @@
+package reverseDictionary.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache regions. Each region is a bounded Caffeine cache whose size and
+ * time-to-live come from {@code whatsdaword.hibernate-cache.<region>.*}. Hibernate is configured to
+ * fail on a region that is not declared here, so no region can grow without bound.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /** The regions named by the {@code @Cache} and {@code @NaturalIdCache} annotations on the entities. */
+    static final List<String> REGIONS = List.of("user", "user-by-username", "study-set", "study-set-words", "word");
+
+    private static final long DEFAULT_MAX_ENTRIES = 10_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * The JCache manager holding the regions. Each application context gets its own manager, so
+     * contexts sharing a JVM (tests, benchmarks) do not share cached entities.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("whatsdaword-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            String prefix = "whatsdaword.hibernate-cache." + region;
+            long maxEntries = environment.getProperty(prefix + ".max-entries", Long.class, DEFAULT_MAX_ENTRIES);
+            Duration ttl = environment.getProperty(prefix + ".ttl", Duration.class, DEFAULT_TTL);
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            // Bounds staleness when another instance writes to the same database.
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttl.toMillis())));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
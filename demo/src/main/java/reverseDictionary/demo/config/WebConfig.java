@@ -0,0 +1,25 @@
+package reverseDictionary.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reverseDictionary.demo.service.SearchRateLimiter;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SearchRateLimiter searchRateLimiter;
+
+    public WebConfig(SearchRateLimiter searchRateLimiter) {
+        this.searchRateLimiter = searchRateLimiter;
+    }
+
+    /**
+     * Rate limits the single-definition search endpoints; see {@link SearchRateLimiter}.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SearchRateLimitInterceptor(searchRateLimiter))
+                .addPathPatterns("/api/words/search", "/api/words/search/async");
+    }
+}
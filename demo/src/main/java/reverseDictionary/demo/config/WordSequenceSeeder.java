@@ -0,0 +1,75 @@
+package reverseDictionary.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reverseDictionary.demo.model.Word;
+
+import javax.sql.DataSource;
+
+/**
+ * Moves the word id sequence past the highest id already in the {@code word} table.
+ * <p>
+ * Word ids used to come from an AUTO_INCREMENT column. On a database from that time, the schema
+ * update creates {@code word_seq} starting at 1, and the first insert would reuse an existing id.
+ * So once the schema is up to date, and before the application takes requests, the sequence is
+ * raised to hand out ids above {@code MAX(word.id)} if it is behind. Hibernate's pooled optimizer
+ * treats a value read from the sequence as the top of a block of {@link Word#ID_ALLOCATION_SIZE}
+ * ids, so the sequence is set that far past the highest id.
+ * <p>
+ * Where the dialect has sequences, the current value is read by taking one, which skips one block
+ * of ids per start; where it emulates them with a table (MySQL), the table row is updated.
+ */
+@Component
+public class WordSequenceSeeder implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(WordSequenceSeeder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public WordSequenceSeeder(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    /**
+     * Raises the sequence if it would hand out an id that is already taken.
+     *
+     * @return Whether the sequence was changed.
+     */
+    public boolean seed() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from word", Long.class);
+        if (maxId == null) {
+            return false;
+        }
+        long target = maxId + Word.ID_ALLOCATION_SIZE;
+        SequenceSupport sequences = dialect.getSequenceSupport();
+        boolean changed;
+        if (sequences.supportsSequences()) {
+            Long next = jdbcTemplate.queryForObject(sequences.getSequenceNextValString(Word.ID_SEQUENCE), Long.class);
+            changed = next != null && next < target;
+            if (changed) {
+                jdbcTemplate.execute("alter sequence " + Word.ID_SEQUENCE + " restart with " + target);
+            }
+        } else {
+            changed = jdbcTemplate.update("update " + Word.ID_SEQUENCE + " set next_val = ? where next_val < ?",
+                    target, target) > 0;
+        }
+        if (changed) {
+            log.info("Moved {} past the highest existing word id {}", Word.ID_SEQUENCE, maxId);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,43 @@
+package reverseDictionary.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.AuthToken;
+import reverseDictionary.demo.model.LoginRequest;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.service.UserService;
+import reverseDictionary.demo.util.JwtUtil;
+
+/**
+ * Controller for exchanging credentials for a bearer token.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final UserService userService;
+    private final JwtUtil jwtUtil;
+
+    @Autowired
+    public AuthController(UserService userService, JwtUtil jwtUtil) {
+        this.userService = userService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Log in with a username and password.
+     *
+     * @param request The user's credentials.
+     * @return ResponseEntity containing a token to send as {@code Authorization: Bearer <token>}.
+     */
+    @PostMapping("/login")
+    public ResponseEntity<AuthToken> login(@RequestBody LoginRequest request) {
+        User user = userService.authenticate(request.username(), request.password())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password."));
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        return ResponseEntity.ok(new AuthToken(token, "Bearer", jwtUtil.getTokenTtl().toSeconds()));
+    }
+}
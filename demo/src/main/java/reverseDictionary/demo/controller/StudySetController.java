@@ -1,12 +1,24 @@
 package reverseDictionary.demo.controller;
 
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reverseDictionary.demo.model.CursorPage;
+import reverseDictionary.demo.model.ImportReport;
 import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.StudySetVersion;
+import reverseDictionary.demo.model.TransferFormat;
 import reverseDictionary.demo.service.StudySetService;
+import reverseDictionary.demo.service.StudySetTransferService;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Controller for managing Study Sets.
@@ -16,10 +28,12 @@ import java.util.List;
 public class StudySetController {
 
     private final StudySetService studySetService;
+    private final StudySetTransferService studySetTransferService;
 
     @Autowired
-    public StudySetController(StudySetService studySetService) {
+    public StudySetController(StudySetService studySetService, StudySetTransferService studySetTransferService) {
         this.studySetService = studySetService;
+        this.studySetTransferService = studySetTransferService;
     }
 
     /**
@@ -35,29 +49,103 @@ public class StudySetController {
     }
 
     /**
-     * Retrieve all Study Sets for a specific user.
+     * Retrieve summaries of the Study Sets for a specific user, one page at a time, ordered by id.
+     * Words are not included; fetch a single set to get them.
      *
      * @param userId The ID of the user.
-     * @return A list of Study Sets owned by the user.
+     * @param cursor Continuation token from the previous page's {@code nextCursor}; omit for the first page.
+     * @param size   Page size (capped server-side).
+     * @return A page of Study Set summaries owned by the user and the next cursor.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<StudySet>> getStudySetsByUserId(@PathVariable Long userId) {
-        List<StudySet> studySets = studySetService.getStudySetsByUserId(userId);
-        if (studySets.isEmpty()) {
+    public ResponseEntity<CursorPage<StudySetSummary>> getStudySetsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) int size) {
+        CursorPage<StudySetSummary> studySets = studySetService.getStudySetsByUserId(userId, cursor, size);
+        if (studySets.items().isEmpty() && cursor == null) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(studySets);
     }
 
+    /**
+     * Export all Study Sets of a user, one row per word, streamed as it is read from the database.
+     *
+     * @param userId The ID of the user.
+     * @param format "ndjson" (default) or "csv".
+     * @return The streamed export.
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportStudySets(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        studySetTransferService.requireUser(userId);
+        StreamingResponseBody body = out -> studySetTransferService.exportStudySets(userId, transferFormat, out);
+        return ResponseEntity.ok()
+                .contentType(transferFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"studysets-" + userId + "." + transferFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Import rows in the export format into a user's Study Sets, committing in chunks.
+     *
+     * @param userId The ID of the user.
+     * @param format "ndjson" (default) or "csv".
+     * @param body   The rows to import.
+     * @return What was imported, and which rows were rejected.
+     */
+    @PostMapping("/user/{userId}/import")
+    public ResponseEntity<ImportReport> importStudySets(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(studySetTransferService.importStudySets(userId, TransferFormat.of(format), body));
+    }
+
+    /**
+     * Import like {@link #importStudySets}, for clients that accept {@code application/x-ndjson}: the
+     * running report is streamed as one line per committed chunk, and the last line is the final one.
+     *
+     * @param userId The ID of the user.
+     * @param format "ndjson" (default) or "csv".
+     * @param body   The rows to import.
+     * @return The streamed progress reports.
+     */
+    @PostMapping(value = "/user/{userId}/import", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importStudySetsWithProgress(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        studySetTransferService.requireUser(userId);
+        StreamingResponseBody progress = out -> studySetTransferService.importStudySets(userId, transferFormat, body, out);
+        return ResponseEntity.ok().contentType(TransferFormat.NDJSON.getMediaType()).body(progress);
+    }
+
     /**
      * Retrieve a specific Study Set by ID.
+     * The response carries a strong ETag. A request whose If-None-Match matches it gets a 304
+     * after a version lookup only; the set is neither loaded nor serialized.
      *
-     * @param id The ID of the Study Set.
-     * @return The requested Study Set.
+     * @param id      The ID of the Study Set.
+     * @param request Used to evaluate If-None-Match.
+     * @return The requested Study Set, or 304 Not Modified.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<StudySet> getStudySetById(@PathVariable Long id) {
-        return ResponseEntity.ok(studySetService.getStudySetById(id));
+    public ResponseEntity<StudySet> getStudySetById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(studySetService.getStudySetVersion(id).eTag())) {
+            return null;
+        }
+        StudySet studySet = studySetService.getStudySetById(id);
+        // Tagged with the versions of what was actually loaded, in case it changed since the check.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(StudySetVersion.of(studySet).eTag())
+                .body(studySet);
     }
 
     /**
@@ -1,13 +1,14 @@
 package reverseDictionary.demo.controller;
 
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reverseDictionary.demo.model.CursorPage;
 import reverseDictionary.demo.model.User;
 import reverseDictionary.demo.service.UserService;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -37,13 +38,17 @@ public class UserController {
     }
 
     /**
-     * Retrieve all users.
+     * Retrieve users one page at a time, ordered by id.
      *
-     * @return ResponseEntity containing a list of all users.
+     * @param cursor Continuation token from the previous page's {@code nextCursor}; omit for the first page.
+     * @param size   Page size (capped server-side).
+     * @return ResponseEntity containing the page of users and the next cursor.
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPage<User>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return ResponseEntity.ok(userService.getUsers(cursor, size));
     }
 
     /**
@@ -1,13 +1,41 @@
 package reverseDictionary.demo.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriUtils;
+import reverseDictionary.demo.config.SearchRateLimitInterceptor;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.model.BatchSearchRequest;
+import reverseDictionary.demo.model.OffsetPage;
+import reverseDictionary.demo.model.SearchQuery;
 import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.model.WordSummary;
+import reverseDictionary.demo.service.BatchSearchService;
+import reverseDictionary.demo.service.SearchRateLimiter;
+import reverseDictionary.demo.service.SpellingCorrector;
+import reverseDictionary.demo.service.StudySetService;
+import reverseDictionary.demo.service.SuggestionService;
 import reverseDictionary.demo.service.WordService;
 
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Controller for managing words.
@@ -16,22 +44,155 @@ import java.util.Map;
 @RequestMapping("/api/words")
 public class WordController {
 
+    /** Carries the definition actually searched when the one sent was spelling-corrected, percent-encoded. */
+    static final String CORRECTED_QUERY_HEADER = "X-Corrected-Query";
+
     private final WordService wordService;
+    private final BatchSearchService batchSearchService;
+    private final StudySetService studySetService;
+    private final SuggestionService suggestionService;
+    private final SpellingCorrector spellingCorrector;
+    private final SearchRateLimiter searchRateLimiter;
 
     @Autowired
-    public WordController(WordService wordService) {
+    public WordController(WordService wordService, BatchSearchService batchSearchService, StudySetService studySetService,
+                          SuggestionService suggestionService, SpellingCorrector spellingCorrector,
+                          SearchRateLimiter searchRateLimiter) {
         this.wordService = wordService;
+        this.batchSearchService = batchSearchService;
+        this.studySetService = studySetService;
+        this.suggestionService = suggestionService;
+        this.spellingCorrector = spellingCorrector;
+        this.searchRateLimiter = searchRateLimiter;
     }
 
     /**
      * Search for words by definition.
      *
      * @param definition The definition to search for.
-     * @return A list of words matching the definition.
+     * @param offset     Number of top-ranked results to skip.
+     * @param limit      Maximum number of results to return.
+     * @param spellcheck Whether misspelled terms are corrected before searching.
+     * @return The words in the requested window, best match first; if the definition was corrected,
+     *         the corrected definition is in the X-Corrected-Query header.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Map<String, String>>> searchWords(@RequestParam String definition) {
-        return ResponseEntity.ok(wordService.searchWords(definition));
+    public ResponseEntity<List<WordMatch>> searchWords(
+            @RequestParam String definition,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(SearchQuery.MAX_WINDOW_END - 1) int offset,
+            @RequestParam(defaultValue = "" + SearchQuery.DEFAULT_LIMIT) @Min(1) @Max(SearchQuery.MAX_WINDOW_END) int limit,
+            @RequestParam(defaultValue = "true") boolean spellcheck) {
+        SearchQuery query = toQuery(definition, offset, limit);
+        SearchQuery searched = spellcheck ? spellingCorrector.correct(query) : query;
+        return withCorrection(ResponseEntity.ok(), query, searched).body(wordService.searchWords(searched));
+    }
+
+    /**
+     * Search for words by definition without holding a request thread while the upstream answers.
+     * If the client disconnects or the request times out, the search is abandoned and its upstream
+     * call aborted, unless an identical search is still waiting for it.
+     *
+     * @param definition The definition to search for.
+     * @param offset     Number of top-ranked results to skip.
+     * @param limit      Maximum number of results to return.
+     * @param spellcheck Whether misspelled terms are corrected before searching.
+     * @return The words in the requested window, best match first, once available; if the definition
+     *         was corrected, the corrected definition is in the X-Corrected-Query header.
+     */
+    @GetMapping("/search/async")
+    public DeferredResult<ResponseEntity<List<WordMatch>>> searchWordsAsync(
+            @RequestParam String definition,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(SearchQuery.MAX_WINDOW_END - 1) int offset,
+            @RequestParam(defaultValue = "" + SearchQuery.DEFAULT_LIMIT) @Min(1) @Max(SearchQuery.MAX_WINDOW_END) int limit,
+            @RequestParam(defaultValue = "true") boolean spellcheck) {
+        SearchQuery query = toQuery(definition, offset, limit);
+        SearchQuery searched = spellcheck ? spellingCorrector.correct(query) : query;
+        CompletableFuture<List<WordMatch>> search = wordService.searchWordsAsync(searched);
+
+        DeferredResult<ResponseEntity<List<WordMatch>>> result = new DeferredResult<>();
+        // The container reports a client disconnect as an async error.
+        result.onError(error -> search.cancel(true));
+        result.onTimeout(() -> search.cancel(true));
+        search.whenComplete((words, error) -> {
+            if (error == null) {
+                result.setResult(withCorrection(ResponseEntity.ok(), query, searched).body(words));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                cause = new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        "Timed out waiting for an identical search already in progress.");
+            }
+            result.setErrorResult(cause);
+        });
+        return result;
+    }
+
+    /**
+     * Search for many definitions at once. Duplicate definitions are searched once, the distinct
+     * searches run in parallel up to a configured limit, and each entry's result or error is
+     * streamed back as one NDJSON line as soon as it is known.
+     *
+     * @param request The definitions and the window of results wanted for each.
+     * @return The streamed results, in completion order; each line carries its request index.
+     */
+    @PostMapping("/search/batch")
+    public ResponseEntity<StreamingResponseBody> searchWordsBatch(@RequestBody BatchSearchRequest request,
+                                                                  HttpServletRequest httpRequest) {
+        batchSearchService.checkRequest(request);
+        // One token per distinct search, so batching does not get around the rate limit.
+        int searches = batchSearchService.countSearches(request);
+        if (searches > 0) {
+            searchRateLimiter.acquire(SearchRateLimitInterceptor.username(httpRequest), httpRequest.getRemoteAddr(), searches);
+        }
+        StreamingResponseBody body = out -> batchSearchService.searchBatch(request, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    private static SearchQuery toQuery(String definition, int offset, int limit) {
+        if (offset + limit > SearchQuery.MAX_WINDOW_END) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "offset + limit must not exceed " + SearchQuery.MAX_WINDOW_END);
+        }
+        return new SearchQuery(definition, offset, limit);
+    }
+
+    private static ResponseEntity.BodyBuilder withCorrection(ResponseEntity.BodyBuilder response, SearchQuery query,
+                                                             SearchQuery searched) {
+        if (searched != query) {
+            response.header(CORRECTED_QUERY_HEADER,
+                    UriUtils.encode(searched.definition(), StandardCharsets.UTF_8));
+        }
+        return response;
+    }
+
+    /**
+     * Runtime statistics for the search path (cache hits, misses, evictions).
+     *
+     * @return Search statistics.
+     */
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(wordService.getSearchStats());
+        stats.put("rateLimit", searchRateLimiter.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Suggest words starting with what the user has typed so far, for typeahead.
+     *
+     * @param prefix The characters typed so far.
+     * @param limit  Maximum number of suggestions (capped server-side).
+     * @param user   The signed-in user, if any; words in their own study sets are suggested first.
+     *               Anonymous requests get shared suggestions only.
+     * @return The matching words, best first.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestWords(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) AuthenticatedUser user) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, user == null ? null : user.id(), limit));
     }
 
     /**
@@ -50,13 +211,44 @@ public class WordController {
     }
 
     /**
-     * Retrieve all words in a specific study set.
+     * Add many words to a specific study set at once.
+     *
+     * @param studySetId The ID of the study set.
+     * @param words      The word details to add.
+     * @return The added words.
+     */
+    @PostMapping("/add-to-studyset/bulk")
+    public ResponseEntity<List<Word>> addWordsToStudySet(
+            @RequestParam Long studySetId,
+            @RequestBody List<Word> words) {
+        return ResponseEntity.ok(wordService.addWordsToStudySet(words, studySetId));
+    }
+
+    /**
+     * Retrieve the words in a specific study set, one page at a time.
      *
      * @param studySetId The ID of the study set.
-     * @return A list of words in the study set.
+     * @param page       Zero-based page number.
+     * @param size       Page size (capped server-side).
+     * @param sort       Sort property ("id", "word" or "definition") with optional ",asc"/",desc".
+     * @param request    Used to evaluate If-None-Match.
+     * @return A page of words in the study set, or 304 Not Modified if the client's copy is current.
      */
     @GetMapping("/studyset/{studySetId}")
-    public ResponseEntity<List<Word>> getWordsInStudySet(@PathVariable Long studySetId) {
-        return ResponseEntity.ok(wordService.getWordsInStudySet(studySetId));
+    public ResponseEntity<OffsetPage<WordSummary>> getWordsInStudySet(
+            @PathVariable Long studySetId,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "50") @Min(1) int size,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        // The version is read before the page, so a page never carries a newer tag than its content.
+        String eTag = studySetService.getStudySetVersion(studySetId).eTag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTag)
+                .body(wordService.getWordsInStudySet(studySetId, page, size, sort));
     }
 }
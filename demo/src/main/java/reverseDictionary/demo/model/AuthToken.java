@@ -0,0 +1,11 @@
+package reverseDictionary.demo.model;
+
+/**
+ * A signed token to send as {@code Authorization: Bearer <token>}.
+ *
+ * @param token     The JWT.
+ * @param tokenType Always {@code Bearer}.
+ * @param expiresIn Seconds until the token expires.
+ */
+public record AuthToken(String token, String tokenType, long expiresIn) {
+}
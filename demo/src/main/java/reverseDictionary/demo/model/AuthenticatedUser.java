@@ -0,0 +1,15 @@
+package reverseDictionary.demo.model;
+
+/**
+ * The user a request was authenticated as, stored as a request attribute by the authentication filter.
+ *
+ * @param id       The user's id.
+ * @param username The user's name when the token was issued.
+ */
+public record AuthenticatedUser(long id, String username) {
+
+    /**
+     * Name of the request attribute holding the authenticated user.
+     */
+    public static final String ATTRIBUTE = "reverseDictionary.demo.model.AuthenticatedUser";
+}
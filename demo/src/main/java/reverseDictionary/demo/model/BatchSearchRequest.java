@@ -0,0 +1,21 @@
+package reverseDictionary.demo.model;
+
+import java.util.List;
+
+/**
+ * Many reverse-dictionary lookups sent in one request. The window applies to every definition.
+ *
+ * @param definitions The definitions to search for, in the order results are indexed.
+ * @param offset      Number of top-ranked results to skip for each definition; defaults to 0.
+ * @param limit       Maximum number of results per definition; defaults to {@link SearchQuery#DEFAULT_LIMIT}.
+ */
+public record BatchSearchRequest(List<String> definitions, Integer offset, Integer limit) {
+
+    public int offsetOrDefault() {
+        return offset == null ? 0 : offset;
+    }
+
+    public int limitOrDefault() {
+        return limit == null ? SearchQuery.DEFAULT_LIMIT : limit;
+    }
+}
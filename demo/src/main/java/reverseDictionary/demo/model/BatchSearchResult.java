@@ -0,0 +1,35 @@
+package reverseDictionary.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * The outcome of one entry of a batch search: either its words or an error.
+ *
+ * @param index      Position of the definition in the request.
+ * @param definition The definition as sent.
+ * @param corrected  The definition actually searched, if misspelled terms were corrected.
+ * @param status     HTTP status the entry would have had as a single search.
+ * @param words      The matching words, on success.
+ * @param error      Why the entry failed, otherwise.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchSearchResult(int index, String definition, String corrected, int status, List<WordMatch> words,
+                                String error) {
+
+    public static BatchSearchResult success(int index, String definition, List<WordMatch> words) {
+        return new BatchSearchResult(index, definition, null, 200, words, null);
+    }
+
+    public static BatchSearchResult failure(int index, String definition, int status, String error) {
+        return new BatchSearchResult(index, definition, null, status, null, error);
+    }
+
+    /**
+     * @return This result, noting that {@code corrected} was searched instead of the definition.
+     */
+    public BatchSearchResult withCorrected(String corrected) {
+        return new BatchSearchResult(index, definition, corrected, status, words, error);
+    }
+}
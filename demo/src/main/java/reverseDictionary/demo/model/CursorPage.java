@@ -0,0 +1,12 @@
+package reverseDictionary.demo.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items      The items on this page, in ascending id order.
+ * @param nextCursor Opaque token for the following page, or null if this is the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,12 @@
+package reverseDictionary.demo.model;
+
+/**
+ * A single gloss from the bundled dictionary corpus.
+ * A headword may appear in several entries, one per sense.
+ *
+ * @param word         The headword being defined.
+ * @param partOfSpeech The part-of-speech tag (n, v, adj, adv), as used by Datamuse.
+ * @param definition   The gloss text.
+ */
+public record DictionaryEntry(String word, String partOfSpeech, String definition) {
+}
@@ -0,0 +1,24 @@
+package reverseDictionary.demo.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a study set import.
+ *
+ * @param rowsRead       Data rows read from the body (header excluded).
+ * @param wordsImported  Words committed.
+ * @param setsCreated    Study sets created because no set of that name existed.
+ * @param chunksCommitted Transactions committed.
+ * @param errorCount     Rows that were not imported.
+ * @param errors         Details of the first rejected rows (capped).
+ */
+public record ImportReport(long rowsRead, long wordsImported, long setsCreated, int chunksCommitted,
+                           long errorCount, List<RowError> errors) {
+
+    /**
+     * @param line    Line (NDJSON) or record (CSV) number in the body, starting at 1.
+     * @param message Why the row was rejected.
+     */
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,7 @@
+package reverseDictionary.demo.model;
+
+/**
+ * Credentials exchanged for a token at {@code POST /api/auth/login}.
+ */
+public record LoginRequest(String username, String password) {
+}
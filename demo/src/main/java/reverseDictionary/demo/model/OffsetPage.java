@@ -0,0 +1,14 @@
+package reverseDictionary.demo.model;
+
+import java.util.List;
+
+/**
+ * One page of an offset-paginated, sortable listing.
+ *
+ * @param items   The items on this page.
+ * @param page    Zero-based page number.
+ * @param size    Requested page size (after capping).
+ * @param hasNext Whether another page follows.
+ */
+public record OffsetPage<T>(List<T> items, int page, int size, boolean hasNext) {
+}
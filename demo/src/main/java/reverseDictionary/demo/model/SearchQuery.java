@@ -0,0 +1,46 @@
+package reverseDictionary.demo.model;
+
+import reverseDictionary.demo.util.TextAnalyzer;
+
+/**
+ * A reverse-dictionary search: the definition plus the window of ranked results wanted.
+ *
+ * @param definition The definition or meaning to search for, as entered.
+ * @param offset     Number of top-ranked results to skip.
+ * @param limit      Maximum number of results to return.
+ */
+public record SearchQuery(String definition, int offset, int limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    // Datamuse returns at most 1000 results, so no window may reach past that.
+    public static final int MAX_WINDOW_END = 1000;
+
+    public SearchQuery {
+        if (offset < 0 || limit < 1 || offset + limit > MAX_WINDOW_END) {
+            throw new IllegalArgumentException("Result window must satisfy offset >= 0, limit >= 1 and offset + limit <= " + MAX_WINDOW_END);
+        }
+    }
+
+    /**
+     * @param definition The definition to search for.
+     * @return A query for the default first page of results.
+     */
+    public static SearchQuery of(String definition) {
+        return new SearchQuery(definition, 0, DEFAULT_LIMIT);
+    }
+
+    /**
+     * @return The normalized definition; queries differing only in case, spacing or punctuation share it.
+     */
+    public String normalizedDefinition() {
+        return TextAnalyzer.normalize(definition);
+    }
+
+    /**
+     * @return A key identifying equivalent queries (same normalized definition and window).
+     */
+    public String key() {
+        return normalizedDefinition() + '#' + offset + '#' + limit;
+    }
+}
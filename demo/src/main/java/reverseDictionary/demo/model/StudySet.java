@@ -2,27 +2,42 @@ package reverseDictionary.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "study-set")
 public class StudySet {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic-lock version. Adding a word through addWord changes the words collection, which
+    // bumps it too, so it identifies the state of the set and its words; the study set and word
+    // listing endpoints use it as their ETag.
+    @Version
+    private long version;
+
     private String name;
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // A list (bag) rather than a set, so addWord can queue a new word without loading the existing
+    // ones. The cached collection holds only word ids; the words themselves come from the "word" region.
     @OneToMany(mappedBy = "studySet", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "study-set-words")
+    @OptimisticLock(excluded = false) // Word changes bump the set's version; mappedBy collections do not by default.
     @JsonManagedReference
-    private Set<Word> words = new HashSet<>();
+    private List<Word> words = new ArrayList<>();
 
     public StudySet() {
     }
@@ -42,6 +57,10 @@ public class StudySet {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -66,11 +85,21 @@ public class StudySet {
         this.user = user;
     }
 
-    public Set<Word> getWords() {
+    public List<Word> getWords() {
         return words;
     }
 
-    public void setWords(Set<Word> words) {
+    public void setWords(List<Word> words) {
         this.words = words;
     }
+
+    /**
+     * Adds a word to this set, setting both sides of the association. Changing the collection makes
+     * Hibernate bump the set's version and invalidate its cached words when the word is saved; the
+     * existing words are not loaded.
+     */
+    public void addWord(Word word) {
+        word.setStudySet(this);
+        words.add(word);
+    }
 }
@@ -0,0 +1,20 @@
+package reverseDictionary.demo.model;
+
+/**
+ * One line of a study set export or import: a word together with the set it belongs to.
+ * A row without a word stands for a set that has no words.
+ *
+ * @param set         The study set name.
+ * @param description The study set description.
+ * @param word        The word, or null.
+ * @param definition  The word's definition, or null.
+ */
+public record StudySetRow(String set, String description, String word, String definition) {
+
+    /** Column order of the CSV format. */
+    public static final String[] CSV_HEADER = {"set", "description", "word", "definition"};
+
+    public boolean hasWord() {
+        return word != null && !word.isBlank();
+    }
+}
@@ -0,0 +1,12 @@
+package reverseDictionary.demo.model;
+
+/**
+ * Read model for listing study sets: the set's own columns plus its word count, without the words.
+ *
+ * @param id          The study set ID.
+ * @param name        The study set name.
+ * @param description The study set description.
+ * @param wordCount   Number of words in the set.
+ */
+public record StudySetSummary(Long id, String name, String description, long wordCount) {
+}
@@ -0,0 +1,22 @@
+package reverseDictionary.demo.model;
+
+/**
+ * The versions that together identify the JSON of a study set: the set's own (bumped whenever its
+ * words change) and its owner's. Read without loading either entity.
+ *
+ * @param version     The study set version.
+ * @param userVersion The owning user's version.
+ */
+public record StudySetVersion(long version, long userVersion) {
+
+    public static StudySetVersion of(StudySet studySet) {
+        return new StudySetVersion(studySet.getVersion(), studySet.getUser().getVersion());
+    }
+
+    /**
+     * @return A strong entity tag, quoted as it appears in the {@code ETag} header.
+     */
+    public String eTag() {
+        return "\"" + version + "." + userVersion + "\"";
+    }
+}
@@ -0,0 +1,43 @@
+package reverseDictionary.demo.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Line formats supported by study set export and import.
+ */
+public enum TransferFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TransferFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param format "ndjson" or "csv", case-insensitive.
+     * @throws ResponseStatusException 400 for any other value.
+     */
+    public static TransferFormat of(String format) {
+        for (TransferFormat candidate : values()) {
+            if (candidate.extension.equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format '" + format + "'; use ndjson or csv.");
+    }
+}
@@ -1,7 +1,12 @@
 package reverseDictionary.demo.model;
 
 // Importing necessary JPA (Jakarta Persistence API) annotations for database mapping
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Represents a User entity that maps to the 'user' table in the database.
@@ -9,6 +14,10 @@ import jakarta.persistence.*;
  * constraints, and how it interacts with the database.
  */
 @Entity // Marks this class as a JPA Entity, indicating it maps to a database table.
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Study sets load their user lazily; skip the proxy internals when serializing.
+@Cacheable // Users are read far more often than they change; keep them in the second-level cache.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-by-username") // Caches the username -> id resolution used by UserRepository#findByUsername.
 public class User {
 
     /**
@@ -19,10 +28,19 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Automatically generates unique IDs using the database's auto-increment feature.
     private Long id;
 
+    /**
+     * The optimistic-lock version of the user.
+     * Study sets embed their owner, so their ETags include this version too.
+     */
+    @Version // Incremented by Hibernate on every update.
+    private long version;
+
     /**
      * The username of the user.
-     * This field must be unique and cannot be null.
+     * This field must be unique and cannot be null. It is the user's natural id, so lookups by
+     * username can be answered from the second-level cache.
      */
+    @NaturalId(mutable = true) // Users may rename themselves; Hibernate keeps the natural id cache in step.
     @Column(nullable = false, unique = true) // Maps this field to a database column, enforces non-null and unique constraints.
     private String username;
 
@@ -63,6 +81,15 @@ public class User {
         this.id = id;
     }
 
+    /**
+     * Gets the optimistic-lock version of the user.
+     *
+     * @return the version, incremented on every update
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Gets the username of the user.
      *
@@ -2,18 +2,29 @@ package reverseDictionary.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "word")
 public class Word {
 
+    /** The sequence word ids are drawn from, and how many ids Hibernate reserves per call. */
+    public static final String ID_SEQUENCE = "word_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A pooled sequence lets Hibernate assign ids in memory and batch the inserts;
+    // IDENTITY would force one round trip per row to read the generated key.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String word;
     private String definition;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "study_set_id", nullable = false)
     @JsonBackReference
     private StudySet studySet;
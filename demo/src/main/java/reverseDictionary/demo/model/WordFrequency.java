@@ -0,0 +1,10 @@
+package reverseDictionary.demo.model;
+
+/**
+ * Read model for how often a word has been saved to study sets.
+ *
+ * @param word  The word, lower-cased.
+ * @param count The number of times it was saved.
+ */
+public record WordFrequency(String word, long count) {
+}
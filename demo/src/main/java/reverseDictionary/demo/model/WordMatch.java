@@ -0,0 +1,17 @@
+package reverseDictionary.demo.model;
+
+import java.util.List;
+
+/**
+ * One result of a reverse-dictionary search.
+ *
+ * @param id             1-based rank of this word in the full result list.
+ * @param word           The matching word.
+ * @param definition     The first definition, kept for clients that show a single gloss.
+ * @param score          The engine's relevance score (higher is better).
+ * @param partsOfSpeech  Part-of-speech tags (n, v, adj, adv).
+ * @param definitions    Every definition returned for the word, each prefixed with its part of speech.
+ */
+public record WordMatch(int id, String word, String definition, int score,
+                        List<String> partsOfSpeech, List<String> definitions) {
+}
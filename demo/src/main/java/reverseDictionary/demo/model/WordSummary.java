@@ -0,0 +1,11 @@
+package reverseDictionary.demo.model;
+
+/**
+ * Read model for listing the words of a study set, without the back-reference to the set.
+ *
+ * @param id         The word ID.
+ * @param word       The word.
+ * @param definition The word's definition.
+ */
+public record WordSummary(Long id, String word, String definition) {
+}
@@ -1,10 +1,56 @@
 package reverseDictionary.demo.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.StudySetVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface StudySetRepository extends JpaRepository<StudySet, Long> {
     List<StudySet> findByUserId(Long userId); //Derived query
+
+    /**
+     * "Sets summary" read model: a keyset page of a user's sets with their word counts,
+     * computed by the database in a single grouped query. No entities or words are loaded.
+     */
+    @Query("select new reverseDictionary.demo.model.StudySetSummary(s.id, s.name, s.description, count(w)) "
+            + "from StudySet s left join s.words w "
+            + "where s.user.id = :userId and s.id > :afterId "
+            + "group by s.id, s.name, s.description "
+            + "order by s.id asc")
+    List<StudySetSummary> findSummariesByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * "Set with words" read model: the set, its owner and all of its words, fetched in one joined query.
+     */
+    @EntityGraph(attributePaths = {"user", "words"})
+    Optional<StudySet> findWithWordsById(Long id);
+
+    /**
+     * The versions of a set and its owner, read from their version columns only. Lets a conditional
+     * GET be answered without loading the set.
+     */
+    @Query("select new reverseDictionary.demo.model.StudySetVersion(s.version, u.version) "
+            + "from StudySet s join s.user u where s.id = :id")
+    Optional<StudySetVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Loads the given sets for a change to their words, in id order, holding a row lock until the
+     * transaction ends so concurrent writers to the same set queue up instead of failing their
+     * optimistic version check. Must run in a transaction.
+     *
+     * @return The sets that were found; fewer than requested if some do not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StudySet s where s.id in :ids order by s.id")
+    List<StudySet> lockAllById(@Param("ids") Collection<Long> ids);
 }
@@ -4,26 +4,29 @@ package reverseDictionary.demo.repository;
 import reverseDictionary.demo.model.User;
 
 // Importing JpaRepository for CRUD operations
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-// Importing Optional to handle potential null results gracefully
-import java.util.Optional;
+// Importing List to handle results gracefully
+import java.util.List;
 
 /**
  * UserRepository interface serves as the data access layer for User entities.
- * It extends JpaRepository to provide CRUD operations and query support.
+ * It extends JpaRepository to provide CRUD operations and query support, and
+ * UserRepositoryCustom for lookups by username through the natural id cache.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
-     * Finds a User by their username.
-     * This method allows retrieving a user based on their unique username.
+     * Finds the next page of users in id order, starting after the given id (keyset pagination).
+     * Served by the primary key index, so the cost does not grow with the page number.
      *
-     * @param username The username to search for in the database.
-     * @return An Optional containing the User if found, or empty if not found.
+     * @param id    The id of the last user on the previous page (0 for the first page).
+     * @param limit The maximum number of users to return.
+     * @return Users with an id greater than {@code id}, in ascending id order.
      *
      * Example Query Generated:
-     * SELECT * FROM user WHERE username = ?;
+     * SELECT * FROM user WHERE id > ? ORDER BY id ASC LIMIT ?;
      */
-    Optional<User> findByUsername(String username);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,20 @@
+package reverseDictionary.demo.repository;
+
+import reverseDictionary.demo.model.User;
+
+import java.util.Optional;
+
+/**
+ * User lookups that go through Hibernate directly rather than a derived query.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a User by their username, which is the user's natural id. A repeated lookup is answered
+     * from the second-level cache (username to id, then id to user) without a query.
+     *
+     * @param username The username to search for.
+     * @return An Optional containing the User if found, or empty if not found.
+     */
+    Optional<User> findByUsername(String username);
+}
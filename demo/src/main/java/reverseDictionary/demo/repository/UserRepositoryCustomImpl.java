@@ -0,0 +1,27 @@
+package reverseDictionary.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import reverseDictionary.demo.model.User;
+
+import java.util.Optional;
+
+/**
+ * Picked up by Spring Data as the implementation of {@link UserRepositoryCustom}.
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        // A derived query would always reach the database; a natural id load checks the cache first.
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,7 +1,38 @@
 package reverseDictionary.demo.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.model.WordFrequency;
+import reverseDictionary.demo.model.WordSummary;
+
+import java.util.List;
 
 public interface WordRepository extends JpaRepository<Word, Long> {
+
+    /**
+     * One page of a study set's words as {@link WordSummary} projections, filtered on the
+     * {@code study_set_id} column without loading the study set. A {@link Slice} asks for one
+     * extra row instead of running a separate count query.
+     */
+    Slice<WordSummary> findByStudySetId(Long studySetId, Pageable pageable);
+
+    /**
+     * The most saved words across all study sets, with how often each was saved, most saved first.
+     * Words differing only in case are counted together.
+     */
+    @Query("select new reverseDictionary.demo.model.WordFrequency(lower(w.word), count(w)) from Word w "
+            + "where w.word is not null group by lower(w.word) order by count(w) desc")
+    List<WordFrequency> findMostSavedWords(Limit limit);
+
+    /**
+     * The words in one user's study sets, with how often each was saved.
+     */
+    @Query("select new reverseDictionary.demo.model.WordFrequency(lower(w.word), count(w)) from Word w "
+            + "where w.studySet.user.id = :userId and w.word is not null group by lower(w.word)")
+    List<WordFrequency> findSavedWordsByUserId(@Param("userId") Long userId);
 }
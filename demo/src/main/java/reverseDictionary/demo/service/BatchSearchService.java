@@ -0,0 +1,206 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.BatchSearchRequest;
+import reverseDictionary.demo.model.BatchSearchResult;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves many definitions in one request.
+ * <p>
+ * Misspelled terms are corrected first (see {@link SpellingCorrector}), and definitions that
+ * normalize to the same corrected query are searched once. The distinct searches run through
+ * {@link WordService#searchWordsAsync(SearchQuery)}, with at most {@code max-concurrency} in flight,
+ * so one batch cannot take over the upstream. Each entry's result or error is written as one NDJSON
+ * line as soon as its search completes, in completion order; a failed entry does not affect the others.
+ */
+@Service
+public class BatchSearchService {
+
+    private final WordService wordService;
+    private final ObjectMapper objectMapper;
+    private final SpellingCorrector spellingCorrector;
+    private final int maxConcurrency;
+    private final int maxSize;
+
+    public BatchSearchService(WordService wordService, ObjectMapper objectMapper, SpellingCorrector spellingCorrector,
+                              @Value("${whatsdaword.search.batch.max-concurrency:8}") int maxConcurrency,
+                              @Value("${whatsdaword.search.batch.max-size:100}") int maxSize) {
+        this.wordService = wordService;
+        this.objectMapper = objectMapper;
+        this.spellingCorrector = spellingCorrector;
+        this.maxConcurrency = maxConcurrency;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Rejects a batch that cannot be run at all, before the response starts streaming.
+     *
+     * @throws ResponseStatusException 400 if the batch is empty, too large or has an invalid window.
+     */
+    public void checkRequest(BatchSearchRequest request) {
+        if (request.definitions() == null || request.definitions().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one definition is required.");
+        }
+        if (request.definitions().size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxSize + " definitions can be searched at once.");
+        }
+        int offset = request.offsetOrDefault();
+        int limit = request.limitOrDefault();
+        if (offset < 0 || limit < 1 || offset + limit > SearchQuery.MAX_WINDOW_END) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "offset must be >= 0, limit >= 1 and offset + limit must not exceed " + SearchQuery.MAX_WINDOW_END);
+        }
+    }
+
+    /**
+     * @return How many searches the batch will run: its distinct non-blank definitions, after
+     *         spelling correction, as {@link #searchBatch} deduplicates them.
+     */
+    public int countSearches(BatchSearchRequest request) {
+        Set<String> keys = new HashSet<>();
+        for (String definition : request.definitions()) {
+            if (definition != null && !definition.isBlank()) {
+                keys.add(spellingCorrector.correct(
+                        new SearchQuery(definition, request.offsetOrDefault(), request.limitOrDefault())).key());
+            }
+        }
+        return keys.size();
+    }
+
+    /**
+     * Runs the batch and writes one NDJSON line per entry to {@code out} as results arrive. If the
+     * client goes away, the searches still in flight are cancelled.
+     *
+     * @param request The definitions and the result window.
+     * @param out     The response body; flushed after each group of results, not closed.
+     */
+    public void searchBatch(BatchSearchRequest request, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<String> definitions = request.definitions();
+
+        // Collapse duplicates: each distinct query remembers every position that asked for it.
+        Map<String, Pending> pending = new LinkedHashMap<>();
+        String[] corrections = new String[definitions.size()];
+        for (int index = 0; index < definitions.size(); index++) {
+            String definition = definitions.get(index);
+            if (definition == null || definition.isBlank()) {
+                write(writer, BatchSearchResult.failure(index, definition, HttpStatus.BAD_REQUEST.value(),
+                        "The definition must not be blank."));
+                continue;
+            }
+            SearchQuery asked = new SearchQuery(definition, request.offsetOrDefault(), request.limitOrDefault());
+            SearchQuery query = spellingCorrector.correct(asked);
+            if (query != asked) {
+                corrections[index] = query.definition();
+            }
+            pending.computeIfAbsent(query.key(), key -> new Pending(query)).indexes.add(index);
+        }
+        writer.flush();
+
+        BlockingQueue<Pending> completed = new LinkedBlockingQueue<>();
+        List<Pending> queue = new ArrayList<>(pending.values());
+        int started = 0;
+        int finished = 0;
+        try {
+            while (finished < queue.size()) {
+                // Keep up to maxConcurrency searches in flight; write results as they complete.
+                while (started < queue.size() && started - finished < maxConcurrency) {
+                    Pending search = queue.get(started++);
+                    search.future = wordService.searchWordsAsync(search.query);
+                    search.future.whenComplete((words, error) -> completed.add(search));
+                }
+                Pending done = completed.take();
+                finished++;
+                writeOutcome(writer, done, definitions, corrections);
+                // Write whatever else has finished meanwhile before flushing.
+                while ((done = completed.poll()) != null) {
+                    finished++;
+                    writeOutcome(writer, done, definitions, corrections);
+                }
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Pending search : queue) {
+                if (search.future != null) {
+                    search.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private void writeOutcome(Writer writer, Pending search, List<String> definitions, String[] corrections)
+            throws IOException {
+        List<WordMatch> words = null;
+        Throwable error = null;
+        try {
+            words = search.future.join();
+        } catch (CompletionException e) {
+            error = e.getCause();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        for (int index : search.indexes) {
+            String definition = definitions.get(index);
+            BatchSearchResult result = error == null
+                    ? BatchSearchResult.success(index, definition, words)
+                    : failure(index, definition, error);
+            write(writer, corrections[index] == null ? result : result.withCorrected(corrections[index]));
+        }
+    }
+
+    private static BatchSearchResult failure(int index, String definition, Throwable error) {
+        if (error instanceof ResponseStatusException status) {
+            return BatchSearchResult.failure(index, definition, status.getStatusCode().value(), status.getReason());
+        }
+        if (error instanceof TimeoutException) {
+            return BatchSearchResult.failure(index, definition, HttpStatus.GATEWAY_TIMEOUT.value(),
+                    "Timed out waiting for an identical search already in progress.");
+        }
+        return BatchSearchResult.failure(index, definition, HttpStatus.INTERNAL_SERVER_ERROR.value(), error.getMessage());
+    }
+
+    private void write(Writer writer, BatchSearchResult result) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    /**
+     * One distinct search of the batch and the entries waiting for it.
+     */
+    private static final class Pending {
+        final SearchQuery query;
+        final List<Integer> indexes = new ArrayList<>(1);
+        CompletableFuture<List<WordMatch>> future;
+
+        Pending(SearchQuery query) {
+            this.query = query;
+        }
+    }
+}
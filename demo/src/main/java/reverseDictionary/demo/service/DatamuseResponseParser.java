@@ -0,0 +1,129 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a Datamuse {@code /words} response straight into {@link WordMatch} records.
+ * <p>
+ * The body is read token by token: no {@code JsonNode} tree is built, entries before the requested
+ * offset are skipped without materializing their fields, and reading stops as soon as the window is full.
+ */
+public final class DatamuseResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String NO_DEFINITION = "No definition available";
+
+    private DatamuseResponseParser() {
+    }
+
+    /**
+     * @param body   The response body; not closed by this method.
+     * @param offset Number of leading entries to skip.
+     * @param limit  Maximum number of entries to return.
+     * @return The entries in the window, in upstream order.
+     * @throws IOException If the body cannot be read or is not a JSON array of objects.
+     */
+    public static List<WordMatch> parse(InputStream body, int offset, int limit) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parse(parser, offset, limit);
+        }
+    }
+
+    static List<WordMatch> parse(JsonParser parser, int offset, int limit) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return List.of();
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array from Datamuse but got " + token);
+        }
+
+        List<WordMatch> matches = new ArrayList<>(Math.min(limit, 128));
+        int index = 0;
+        while (matches.size() < limit && parser.nextToken() == JsonToken.START_OBJECT) {
+            index++;
+            if (index <= offset) {
+                parser.skipChildren();
+                continue;
+            }
+            WordMatch match = readEntry(parser, index);
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+
+    private static WordMatch readEntry(JsonParser parser, int rank) throws IOException {
+        String word = null;
+        int score = 0;
+        List<String> partsOfSpeech = List.of();
+        List<String> definitions = List.of();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "word" -> word = parser.getText();
+                case "score" -> score = parser.getValueAsInt();
+                case "tags" -> partsOfSpeech = readPartsOfSpeech(parser);
+                case "defs" -> definitions = readStrings(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (word == null) {
+            return null;
+        }
+        String first = definitions.isEmpty() ? NO_DEFINITION : definitions.get(0);
+        return new WordMatch(rank, word, first, score, partsOfSpeech, definitions);
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> values = new ArrayList<>(4);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getText());
+        }
+        return values;
+    }
+
+    /**
+     * Keeps only part-of-speech tags; Datamuse mixes in others such as "syn" or "results_type:primary_rel".
+     */
+    private static List<String> readPartsOfSpeech(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> tags = null;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String tag = parser.getText();
+            if (isPartOfSpeech(tag)) {
+                if (tags == null) {
+                    tags = new ArrayList<>(2);
+                }
+                tags.add(tag);
+            }
+        }
+        return tags == null ? List.of() : tags;
+    }
+
+    private static boolean isPartOfSpeech(String tag) {
+        return switch (tag) {
+            case "n", "v", "adj", "adv" -> true;
+            default -> false;
+        };
+    }
+}
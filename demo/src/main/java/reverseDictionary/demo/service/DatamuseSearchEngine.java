@@ -0,0 +1,482 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reverseDictionary.demo.config.PerHostLimitInterceptor;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.util.CircuitBreaker;
+import reverseDictionary.demo.util.LatencyTracker;
+import reverseDictionary.demo.util.NamedThreads;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Searches words through the Datamuse "means like" API.
+ * This is the default engine.
+ * <p>
+ * Every upstream call is wrapped in a resilience layer so a slow or failing Datamuse cannot
+ * exhaust the servlet threads that study sets and users also depend on:
+ * <ul>
+ *     <li>a latency budget: the whole lookup, hedges included, must finish within it;</li>
+ *     <li>a bulkhead capping concurrent lookups;</li>
+ *     <li>a circuit breaker that fails fast with a 503 while the upstream is unhealthy;</li>
+ *     <li>optional hedging: if the first call is slower than a recent latency percentile, a second
+ *     identical call is sent and whichever answers first wins.</li>
+ * </ul>
+ * {@link #searchAsync(SearchQuery)} applies the same budget, circuit breaker and bulkhead without
+ * holding a thread: it sends the request with {@link HttpClient#sendAsync}, never waits for a permit,
+ * and aborts the exchange when the search is cancelled or runs out of time. It does not hedge.
+ * <p>
+ * Each upstream call is timed as {@code whatsdaword.datamuse.upstream}, tagged by host and status,
+ * and turning its body into words as {@code whatsdaword.datamuse.parse}. The blocking path parses
+ * the body as it streams in, so there the upstream time ends at the response headers and the parse
+ * time includes reading the body; the non-blocking path buffers the body first.
+ */
+@Component
+@ConditionalOnProperty(name = "whatsdaword.search.engine", havingValue = "datamuse", matchIfMissing = true)
+public class DatamuseSearchEngine implements WordSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DatamuseSearchEngine.class);
+
+    // Hedge delays are only derived from the latency history once it has this many samples.
+    private static final int MINIMUM_LATENCY_SAMPLES = 20;
+
+    private final RestTemplate restTemplate; // Used to make HTTP requests to external APIs.
+    private final HttpClient httpClient; // Used directly by the non-blocking path.
+    private final Duration readTimeout;
+    private final PerHostLimitInterceptor connectionLimiter; // Tracks outbound connection usage.
+    private final String datamuseUrl; // API endpoint, with placeholders for query parameters.
+    private final String upstreamHost; // Host tag for the upstream timer.
+    private final MeterRegistry meterRegistry;
+    private final Timer syncParseTimer;
+    private final Timer asyncParseTimer;
+
+    private final long latencyBudgetNanos;
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayNanos;
+    private final LatencyTracker latencies = new LatencyTracker(256);
+    private final ExecutorService callExecutor;
+    private final ScheduledThreadPoolExecutor deadlines;
+
+    private final LongAdder budgetExceeded = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder asyncCancelled = new LongAdder();
+
+    public DatamuseSearchEngine(RestTemplate restTemplate, HttpClient httpClient, PerHostLimitInterceptor connectionLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${whatsdaword.http.read-timeout:5s}") Duration readTimeout,
+                                @Value("${whatsdaword.datamuse.url:https://api.datamuse.com/words}") String datamuseUrl,
+                                @Value("${whatsdaword.datamuse.latency-budget:3s}") Duration latencyBudget,
+                                @Value("${whatsdaword.datamuse.bulkhead.max-concurrent:20}") int maxConcurrent,
+                                @Value("${whatsdaword.datamuse.bulkhead.max-wait:100ms}") Duration bulkheadWait,
+                                @Value("${whatsdaword.datamuse.circuit-breaker.window-size:20}") int windowSize,
+                                @Value("${whatsdaword.datamuse.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                @Value("${whatsdaword.datamuse.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                @Value("${whatsdaword.datamuse.circuit-breaker.open-duration:30s}") Duration openDuration,
+                                @Value("${whatsdaword.datamuse.hedging.enabled:false}") boolean hedgingEnabled,
+                                @Value("${whatsdaword.datamuse.hedging.percentile:95}") double hedgePercentile,
+                                @Value("${whatsdaword.datamuse.hedging.min-delay:50ms}") Duration hedgeMinDelay,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.restTemplate = restTemplate;
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+        this.connectionLimiter = connectionLimiter;
+        this.datamuseUrl = datamuseUrl + "?ml={definition}&md=dp&max={max}";
+        this.upstreamHost = URI.create(datamuseUrl).getHost();
+        this.meterRegistry = meterRegistry;
+        this.syncParseTimer = parseTimer("sync");
+        this.asyncParseTimer = parseTimer("async");
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitNanos = bulkheadWait.toNanos();
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration);
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        // Upstream calls run here so the caller can stop waiting at the deadline. Concurrency is
+        // already bounded by the bulkhead (two calls per lookup when hedging). Virtual threads are
+        // cheap enough to start one per call; platform threads are pooled.
+        ThreadFactory threads = NamedThreads.factory("datamuse-call", virtualThreads);
+        this.callExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(threads)
+                : Executors.newCachedThreadPool(threads);
+        // Latency budgets of non-blocking searches. A search that settles in time cancels its
+        // deadline, which then leaves the queue at once rather than when it would have fired.
+        this.deadlines = new ScheduledThreadPoolExecutor(1, NamedThreads.factory("datamuse-deadline", virtualThreads));
+        this.deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public List<WordMatch> search(SearchQuery query) {
+        List<WordMatch> words = fetch(query);
+
+        // Throws an exception if the first page is empty, indicating no results.
+        if (words.isEmpty() && query.offset() == 0) {
+            throw new RuntimeException("No words found for the given definition.");
+        }
+        return words;
+    }
+
+    @Override
+    public CompletableFuture<List<WordMatch>> searchAsync(SearchQuery query) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(degraded("the dictionary service is not responding. Please try again in "
+                    + circuitBreaker.secondsUntilRetry() + " seconds."));
+        }
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejected.increment();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(degraded("too many searches are in progress. Please try again shortly."));
+        }
+        URI uri = UriComponentsBuilder.fromUriString(datamuseUrl).encode()
+                .buildAndExpand(query.definition(), query.offset() + query.limit()).toUri();
+        String host = uri.getHost();
+        if (!connectionLimiter.tryAcquire(host)) {
+            bulkhead.release();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent requests to " + host + "; try again shortly."));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<List<WordMatch>> result = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(
+                HttpRequest.newBuilder(uri).timeout(readTimeout).header(HttpHeaders.ACCEPT_ENCODING, "gzip").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        exchange.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    recordUpstream("async", error instanceof CancellationException ? "CANCELLED" : "IO_ERROR", start);
+                    throw new ResourceAccessException("Datamuse call failed: " + error.getMessage());
+                }
+                recordUpstream("async", String.valueOf(response.statusCode()), start);
+                result.complete(parse(response, query));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(isUpstreamFailure(e) ? new UpstreamFailure(e) : e);
+            }
+        });
+        ScheduledFuture<?> deadline = deadlines.schedule(() ->
+                result.completeExceptionally(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        "Word search is temporarily degraded: the dictionary service did not respond in time.")),
+                latencyBudgetNanos, TimeUnit.NANOSECONDS);
+
+        // Settles the permits exactly once, however the search ends. Cancelling the HTTP future
+        // aborts the exchange, so an abandoned search stops occupying the upstream.
+        result.whenComplete((words, error) -> {
+            deadline.cancel(false);
+            connectionLimiter.release(host);
+            bulkhead.release();
+            if (error == null) {
+                latencies.record(System.nanoTime() - start);
+                circuitBreaker.recordSuccess();
+                return;
+            }
+            exchange.cancel(true);
+            if (error instanceof ResponseStatusException status && status.getStatusCode() == HttpStatus.GATEWAY_TIMEOUT) {
+                budgetExceeded.increment();
+                circuitBreaker.recordFailure();
+            } else if (error instanceof UpstreamFailure failure) {
+                circuitBreaker.recordFailure();
+                log.warn("Datamuse call failed: {}", failure.getCause().getMessage());
+            } else {
+                if (result.isCancelled()) {
+                    asyncCancelled.increment();
+                }
+                circuitBreaker.release();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Turns a buffered Datamuse response into the requested window, failing the way the blocking
+     * path does for error statuses and empty first pages.
+     */
+    private List<WordMatch> parse(HttpResponse<byte[]> response, SearchQuery query) {
+        int status = response.statusCode();
+        if (status >= 400) {
+            HttpHeaders headers = new HttpHeaders();
+            response.headers().map().forEach(headers::addAll);
+            throw status >= 500
+                    ? HttpServerErrorException.create(HttpStatusCode.valueOf(status), "", headers, response.body(), null)
+                    : HttpClientErrorException.create(HttpStatusCode.valueOf(status), "", headers, response.body(), null);
+        }
+        long parseStart = System.nanoTime();
+        try {
+            InputStream body = new ByteArrayInputStream(response.body());
+            if (response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).filter("gzip"::equalsIgnoreCase).isPresent()) {
+                body = new GZIPInputStream(body);
+            }
+            List<WordMatch> words = DatamuseResponseParser.parse(body, query.offset(), query.limit());
+            if (words.isEmpty() && query.offset() == 0) {
+                throw new RuntimeException("No words found for the given definition.");
+            }
+            return words;
+        } catch (IOException e) {
+            throw new ResourceAccessException("Unreadable Datamuse response: " + e.getMessage(), e);
+        } finally {
+            asyncParseTimer.record(System.nanoTime() - parseStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Calls Datamuse through the circuit breaker and bulkhead, within the latency budget.
+     *
+     * @param query The definition and result window to look up.
+     * @return The words in the window.
+     */
+    private List<WordMatch> fetch(SearchQuery query) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw degraded("the dictionary service is not responding. Please try again in "
+                    + circuitBreaker.secondsUntilRetry() + " seconds.");
+        }
+        boolean permitted = false;
+        try {
+            permitted = bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+            if (!permitted) {
+                bulkheadRejected.increment();
+                circuitBreaker.release();
+                throw degraded("too many searches are in progress. Please try again shortly.");
+            }
+            List<WordMatch> words = callWithinBudget(query);
+            circuitBreaker.recordSuccess();
+            return words;
+        } catch (TimeoutException e) {
+            budgetExceeded.increment();
+            circuitBreaker.recordFailure();
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Word search is temporarily degraded: the dictionary service did not respond in time.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.release();
+            throw degraded("the search was interrupted.");
+        } catch (RuntimeException e) {
+            if (isUpstreamFailure(e)) {
+                circuitBreaker.recordFailure();
+                log.warn("Datamuse call failed: {}", e.getMessage());
+                throw degraded("the dictionary service returned an error. Please try again shortly.");
+            }
+            circuitBreaker.release();
+            throw e;
+        } finally {
+            if (permitted) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * Runs the upstream call on the call executor, hedging it if enabled, and waits at most for the
+     * remaining budget. Whatever is still running when this returns is cancelled.
+     */
+    private List<WordMatch> callWithinBudget(SearchQuery query) throws TimeoutException, InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + latencyBudgetNanos;
+        ExecutorCompletionService<List<WordMatch>> calls = new ExecutorCompletionService<>(callExecutor);
+        List<Future<List<WordMatch>>> pending = new ArrayList<>(2);
+        pending.add(calls.submit(() -> call(query)));
+
+        try {
+            Future<List<WordMatch>> done = null;
+            long hedgeDelay = hedgeDelayNanos();
+            if (hedgeDelay > 0 && hedgeDelay < latencyBudgetNanos) {
+                done = calls.poll(hedgeDelay, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    hedgesSent.increment();
+                    pending.add(calls.submit(() -> call(query)));
+                }
+            }
+
+            RuntimeException lastFailure = null;
+            for (int outstanding = pending.size(); outstanding > 0; outstanding--) {
+                if (done == null) {
+                    done = calls.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        throw new TimeoutException();
+                    }
+                }
+                try {
+                    List<WordMatch> words = done.get();
+                    latencies.record(System.nanoTime() - start);
+                    if (pending.size() > 1 && done == pending.get(1)) {
+                        hedgesWon.increment();
+                    }
+                    return words;
+                } catch (ExecutionException e) {
+                    // One attempt failed; a hedge may still succeed.
+                    lastFailure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new IllegalStateException(e.getCause());
+                    done = null;
+                }
+            }
+            throw lastFailure;
+        } finally {
+            for (Future<List<WordMatch>> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private List<WordMatch> call(SearchQuery query) {
+        // Asks Datamuse for no more entries than the window needs and parses the body as it streams in.
+        int max = query.offset() + query.limit();
+        long start = System.nanoTime();
+        AtomicBoolean responded = new AtomicBoolean();
+        try {
+            List<WordMatch> words = restTemplate.execute(datamuseUrl, HttpMethod.GET, null, response -> {
+                responded.set(true);
+                recordUpstream("sync", String.valueOf(response.getStatusCode().value()), start);
+                long parseStart = System.nanoTime();
+                try {
+                    return DatamuseResponseParser.parse(response.getBody(), query.offset(), query.limit());
+                } finally {
+                    syncParseTimer.record(System.nanoTime() - parseStart, TimeUnit.NANOSECONDS);
+                }
+            }, query.definition(), max);
+            return words == null ? List.of() : words;
+        } catch (RestClientResponseException e) {
+            // Error statuses are raised before the extractor runs.
+            recordUpstream("sync", String.valueOf(e.getStatusCode().value()), start);
+            throw e;
+        } catch (ResourceAccessException e) {
+            if (!responded.get()) {
+                recordUpstream("sync", "IO_ERROR", start);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param status The HTTP status code, or {@code IO_ERROR} / {@code CANCELLED} when there was none.
+     */
+    private void recordUpstream(String mode, String status, long startNanos) {
+        HttpStatus.Series series = status.chars().allMatch(Character::isDigit)
+                ? HttpStatus.Series.resolve(Integer.parseInt(status))
+                : null;
+        Timer.builder("whatsdaword.datamuse.upstream")
+                .description("Datamuse HTTP calls, up to the response (non-blocking) or its headers (blocking)")
+                .tag("host", upstreamHost)
+                .tag("mode", mode)
+                .tag("status", status)
+                .tag("outcome", series == null ? "UNKNOWN" : series.name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer parseTimer(String mode) {
+        return Timer.builder("whatsdaword.datamuse.parse")
+                .description("Turning Datamuse response bodies into words")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    private long hedgeDelayNanos() {
+        if (!hedgingEnabled) {
+            return -1;
+        }
+        long observed = latencies.percentile(hedgePercentile, MINIMUM_LATENCY_SAMPLES);
+        return Math.max(hedgeMinDelayNanos, observed);
+    }
+
+    /**
+     * Server errors, throttling and I/O failures say the upstream is unhealthy; other client errors do not.
+     */
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        return e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests
+                || e instanceof ResourceAccessException;
+    }
+
+    private static ResponseStatusException degraded(String reason) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Word search is temporarily degraded: " + reason);
+    }
+
+    /**
+     * An asynchronous call failed in a way that counts against the circuit breaker.
+     */
+    private static final class UpstreamFailure extends ResponseStatusException {
+
+        private static final long serialVersionUID = 1L;
+
+        UpstreamFailure(RuntimeException cause) {
+            super(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Word search is temporarily degraded: the dictionary service returned an error. Please try again shortly.",
+                    cause);
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuitBreaker", circuitBreaker.stats());
+        stats.put("bulkheadInUse", maxConcurrent - bulkhead.availablePermits());
+        stats.put("bulkheadRejected", bulkheadRejected.sum());
+        stats.put("budgetExceeded", budgetExceeded.sum());
+        stats.put("hedgesSent", hedgesSent.sum());
+        stats.put("hedgesWon", hedgesWon.sum());
+        stats.put("asyncCancelled", asyncCancelled.sum());
+        stats.put("pendingDeadlines", deadlines.getQueue().size());
+        stats.put("connections", connectionLimiter.stats());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callExecutor.shutdownNow();
+        deadlines.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package reverseDictionary.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import reverseDictionary.demo.model.DictionaryEntry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bundled definitions corpus, loaded once at startup.
+ * The file is tab separated (headword, part of speech, gloss); lines starting with '#' are comments.
+ */
+@Component
+public class DictionaryCorpus {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryCorpus.class);
+
+    private final List<DictionaryEntry> entries;
+
+    public DictionaryCorpus(ResourceLoader resourceLoader,
+                            @Value("${whatsdaword.dictionary.corpus:classpath:dictionary/definitions.tsv}") String location) {
+        this.entries = List.copyOf(load(resourceLoader.getResource(location)));
+        log.info("Loaded {} dictionary entries from {}", entries.size(), location);
+    }
+
+    /**
+     * @return All entries in file order.
+     */
+    public List<DictionaryEntry> getEntries() {
+        return entries;
+    }
+
+    private static List<DictionaryEntry> load(Resource resource) {
+        List<DictionaryEntry> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 3);
+                if (fields.length < 3) {
+                    throw new IllegalStateException("Malformed dictionary line: " + line);
+                }
+                loaded.add(new DictionaryEntry(fields[0].trim(), fields[1].trim(), fields[2].trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read dictionary corpus " + resource, e);
+        }
+        return loaded;
+    }
+}
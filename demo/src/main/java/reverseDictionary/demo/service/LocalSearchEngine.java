@@ -0,0 +1,168 @@
+package reverseDictionary.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reverseDictionary.demo.model.DictionaryEntry;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.util.TextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Offline reverse-dictionary engine over the bundled {@link DictionaryCorpus}.
+ * <p>
+ * Every gloss is a document in an in-memory inverted index. A query is analyzed the same way
+ * as the glosses and documents are ranked with Okapi BM25; a headword is scored by its best
+ * matching gloss. Postings are plain int arrays, so a query costs one array walk per term.
+ * Only the top {@code offset + limit} headwords are kept while ranking.
+ */
+@Component
+@ConditionalOnProperty(name = "whatsdaword.search.engine", havingValue = "local")
+public class LocalSearchEngine implements WordSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSearchEngine.class);
+
+    // Standard BM25 parameters: term-frequency saturation and length normalization.
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final List<DictionaryEntry> documents;
+    private final Map<String, Postings> index;
+    private final int[] documentLengths;
+    private final float averageDocumentLength;
+    private final Map<String, List<String>> definitionsByWord = new HashMap<>();
+    private final Map<String, List<String>> partsOfSpeechByWord = new HashMap<>();
+
+    public LocalSearchEngine(DictionaryCorpus corpus) {
+        long start = System.nanoTime();
+        this.documents = corpus.getEntries();
+        this.documentLengths = new int[documents.size()];
+
+        // Every gloss of a headword is returned with it, whichever one matched.
+        for (DictionaryEntry entry : documents) {
+            definitionsByWord.computeIfAbsent(entry.word(), w -> new ArrayList<>())
+                    .add(entry.partOfSpeech() + "\t" + entry.definition());
+            List<String> tags = partsOfSpeechByWord.computeIfAbsent(entry.word(), w -> new ArrayList<>());
+            if (!tags.contains(entry.partOfSpeech())) {
+                tags.add(entry.partOfSpeech());
+            }
+        }
+        definitionsByWord.replaceAll((word, definitions) -> List.copyOf(definitions));
+        partsOfSpeechByWord.replaceAll((word, tags) -> List.copyOf(tags));
+
+        // Build term -> (doc, tf) lists, then freeze them into arrays.
+        Map<String, Map<Integer, Integer>> building = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < documents.size(); doc++) {
+            List<String> terms = TextAnalyzer.analyze(documents.get(doc).definition());
+            documentLengths[doc] = terms.size();
+            totalLength += terms.size();
+            for (String term : terms) {
+                building.computeIfAbsent(term, t -> new HashMap<>()).merge(doc, 1, Integer::sum);
+            }
+        }
+        this.averageDocumentLength = documents.isEmpty() ? 1f : (float) totalLength / documents.size();
+
+        this.index = new HashMap<>(building.size() * 2);
+        building.forEach((term, frequencies) -> index.put(term, Postings.of(frequencies, documents.size())));
+
+        log.info("Built local search index: {} glosses, {} terms in {} ms",
+                documents.size(), index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public List<WordMatch> search(SearchQuery query) {
+        // Distinct query terms; repeating a word in the query should not double its weight.
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.analyze(query.definition()));
+
+        float[] scores = new float[documents.size()];
+        for (String term : queryTerms) {
+            Postings postings = index.get(term);
+            if (postings == null) {
+                continue;
+            }
+            for (int i = 0; i < postings.docs.length; i++) {
+                int doc = postings.docs[i];
+                int tf = postings.frequencies[i];
+                float norm = K1 * (1 - B + B * documentLengths[doc] / averageDocumentLength);
+                scores[doc] += postings.idf * (tf * (K1 + 1)) / (tf + norm);
+            }
+        }
+
+        // Keep the best gloss per headword, then take the top results.
+        Map<String, Integer> bestDocByWord = new HashMap<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] > 0) {
+                bestDocByWord.merge(documents.get(doc).word(), doc, (a, b) -> scores[a] >= scores[b] ? a : b);
+            }
+        }
+        if (bestDocByWord.isEmpty() && query.offset() == 0) {
+            throw new RuntimeException("No words found for the given definition.");
+        }
+
+        // Best first; ties go to the earlier gloss so that pages are stable across windows.
+        Comparator<Integer> ranking = (a, b) -> {
+            int byScore = Float.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Integer.compare(a, b);
+        };
+        int windowEnd = query.offset() + query.limit();
+        PriorityQueue<Integer> top = new PriorityQueue<>(ranking.reversed());
+        for (int doc : bestDocByWord.values()) {
+            top.offer(doc);
+            if (top.size() > windowEnd) {
+                top.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+
+        List<WordMatch> words = new ArrayList<>(Math.max(0, ranked.size() - query.offset()));
+        for (int rank = query.offset(); rank < ranked.size(); rank++) {
+            int doc = ranked.get(rank);
+            DictionaryEntry entry = documents.get(doc);
+            List<String> definitions = definitionsByWord.get(entry.word());
+            // The best matching gloss goes first; same "pos<TAB>gloss" layout Datamuse uses.
+            String best = entry.partOfSpeech() + "\t" + entry.definition();
+            List<String> ordered = new ArrayList<>(definitions.size());
+            ordered.add(best);
+            for (String other : definitions) {
+                if (!other.equals(best)) {
+                    ordered.add(other);
+                }
+            }
+            words.add(new WordMatch(rank + 1, entry.word(), best, Math.round(scores[doc] * 1000),
+                    partsOfSpeechByWord.get(entry.word()), ordered));
+        }
+        return words;
+    }
+
+    /**
+     * Documents containing one term, with the term's frequency in each and its BM25 idf.
+     */
+    private record Postings(int[] docs, int[] frequencies, float idf) {
+
+        static Postings of(Map<Integer, Integer> frequenciesByDoc, int documentCount) {
+            int[] docs = new int[frequenciesByDoc.size()];
+            int[] frequencies = new int[docs.length];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : frequenciesByDoc.entrySet()) {
+                docs[i] = entry.getKey();
+                frequencies[i] = entry.getValue();
+                i++;
+            }
+            int df = docs.length;
+            float idf = (float) Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            return new Postings(docs, frequencies, idf);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.util.NamedThreads;
+import reverseDictionary.demo.util.RateLimiter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often each client may search, and how often all of them together may, so one scripted
+ * client cannot use up the Datamuse daily quota for everyone.
+ * <p>
+ * Every signed-in user, or every IP address for anonymous requests, has a token bucket; a global
+ * bucket sized to the upstream quota sits behind them. A search takes a token from both; a batch
+ * takes one per distinct search, and one larger than the burst empties the bucket for as long as
+ * the extra searches take to refill. A refused search gets a 429 with a
+ * {@code Retry-After} header. Checking takes no lock and allocates nothing once the client's bucket
+ * exists.
+ * <p>
+ * A bucket that has refilled completely is indistinguishable from a new one, so a periodic sweep
+ * removes those, and memory follows the number of recently active clients. Beyond {@code max-clients}
+ * active clients, new ones share a fixed set of overflow buckets, picked by hash, until the sweep
+ * makes room.
+ */
+@Component
+public class SearchRateLimiter {
+
+    private static final int OVERFLOW_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final RateLimiter clientLimit;
+    private final RateLimiter globalLimit;
+    private final RateLimiter.Bucket globalBucket;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, RateLimiter.Bucket> userBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RateLimiter.Bucket> addressBuckets = new ConcurrentHashMap<>();
+    private final RateLimiter.Bucket[] overflowBuckets = new RateLimiter.Bucket[OVERFLOW_STRIPES];
+    private final ScheduledExecutorService sweeper;
+
+    private final Counter clientRejections;
+    private final Counter globalRejections;
+
+    /**
+     * @param clientRequests Searches each client may make per {@code clientPeriod}.
+     * @param clientBurst    Searches a client may make at once after being idle.
+     * @param globalRequests Searches all clients together may make per {@code globalPeriod}; the
+     *                       upstream quota.
+     * @param globalBurst    Searches all clients together may make at once.
+     * @param maxClients     Clients with their own bucket at any time.
+     * @param sweepInterval  How often refilled buckets are removed.
+     */
+    public SearchRateLimiter(MeterRegistry meterRegistry,
+                             @Value("${whatsdaword.ratelimit.enabled:false}") boolean enabled,
+                             @Value("${whatsdaword.ratelimit.client.requests:60}") long clientRequests,
+                             @Value("${whatsdaword.ratelimit.client.period:1m}") Duration clientPeriod,
+                             @Value("${whatsdaword.ratelimit.client.burst:20}") long clientBurst,
+                             @Value("${whatsdaword.ratelimit.global.requests:100000}") long globalRequests,
+                             @Value("${whatsdaword.ratelimit.global.period:1d}") Duration globalPeriod,
+                             @Value("${whatsdaword.ratelimit.global.burst:1000}") long globalBurst,
+                             @Value("${whatsdaword.ratelimit.max-clients:1000000}") int maxClients,
+                             @Value("${whatsdaword.ratelimit.sweep-interval:1m}") Duration sweepInterval,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.enabled = enabled;
+        this.clientLimit = new RateLimiter(clientRequests, clientPeriod, clientBurst);
+        this.globalLimit = new RateLimiter(globalRequests, globalPeriod, globalBurst);
+        this.maxClients = maxClients;
+        long now = System.nanoTime();
+        this.globalBucket = globalLimit.newBucket(now);
+        for (int i = 0; i < OVERFLOW_STRIPES; i++) {
+            overflowBuckets[i] = clientLimit.newBucket(now);
+        }
+        this.clientRejections = rejections(meterRegistry, "client");
+        this.globalRejections = rejections(meterRegistry, "global");
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(NamedThreads.factory("rate-limit-sweep", virtualThreads));
+        if (enabled) {
+            long interval = sweepInterval.toMillis();
+            sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("whatsdaword.ratelimit.rejections")
+                .description("Searches refused by the rate limiter, by the bucket that was empty")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes tokens for {@code searches} searches, or refuses them all.
+     *
+     * @param username The signed-in user, or null for an anonymous request.
+     * @param address  The client's IP address, used when {@code username} is null.
+     * @throws ResponseStatusException 429 with a {@code Retry-After} header if a bucket is empty.
+     */
+    public void acquire(String username, String address, int searches) {
+        long wait = tryAcquire(username, address, searches);
+        if (wait > 0) {
+            throw new TooManyRequestsException(wait);
+        }
+    }
+
+    /**
+     * Takes tokens for {@code searches} searches, or refuses them all.
+     *
+     * @param username The signed-in user, or null for an anonymous request.
+     * @param address  The client's IP address, used when {@code username} is null.
+     * @return 0 if the searches may go ahead, otherwise how many nanoseconds until they could.
+     */
+    public long tryAcquire(String username, String address, int searches) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        RateLimiter.Bucket bucket = username != null
+                ? bucket(userBuckets, username, now)
+                : bucket(addressBuckets, address == null ? "" : address, now);
+        long wait = clientLimit.tryAcquire(bucket, searches, now);
+        if (wait > 0) {
+            clientRejections.increment();
+            return wait;
+        }
+        wait = globalLimit.tryAcquire(globalBucket, searches, now);
+        if (wait > 0) {
+            // The client did not get to search, so it should not pay for it.
+            clientLimit.release(bucket, searches);
+            globalRejections.increment();
+        }
+        return wait;
+    }
+
+    private RateLimiter.Bucket bucket(ConcurrentHashMap<String, RateLimiter.Bucket> buckets, String key, long now) {
+        RateLimiter.Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (userBuckets.size() + addressBuckets.size() >= maxClients) {
+            return overflowBuckets[(key.hashCode() & 0x7fffffff) % OVERFLOW_STRIPES];
+        }
+        RateLimiter.Bucket created = clientLimit.newBucket(now);
+        bucket = buckets.putIfAbsent(key, created);
+        return bucket != null ? bucket : created;
+    }
+
+    /**
+     * Removes the buckets of clients that have been idle long enough to refill completely. A client
+     * that searches during the sweep may keep using a removed bucket while its next request gets a
+     * new one; at worst that allows one extra burst.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        userBuckets.values().removeIf(bucket -> clientLimit.isFull(bucket, now));
+        addressBuckets.values().removeIf(bucket -> clientLimit.isFull(bucket, now));
+    }
+
+    /**
+     * Buckets in use and rejection counts, for monitoring.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("userBuckets", userBuckets.size());
+        result.put("addressBuckets", addressBuckets.size());
+        result.put("clientRejections", (long) clientRejections.count());
+        result.put("globalRejections", (long) globalRejections.count());
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * A refused search: 429 Too Many Requests, with the whole seconds to wait in {@code Retry-After}.
+     */
+    static final class TooManyRequestsException extends ResponseStatusException {
+
+        private final long retryAfterSeconds;
+
+        TooManyRequestsException(long waitNanos) {
+            super(HttpStatus.TOO_MANY_REQUESTS, "Too many searches; please slow down.");
+            this.retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return headers;
+        }
+    }
+}
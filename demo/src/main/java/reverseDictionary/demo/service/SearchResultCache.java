@@ -0,0 +1,272 @@
+package reverseDictionary.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.util.NamedThreads;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search results, keyed by normalized definition and result window.
+ * <p>
+ * Entries are weighed by their approximate size in bytes and evicted by Caffeine's
+ * frequency-aware (W-TinyLFU) policy, so a burst of one-off queries cannot flush the popular ones.
+ * An entry is fresh for {@code ttl}; for a further {@code stale-while-revalidate} window it is
+ * still served, while a single background reload replaces it. Only after both windows have
+ * passed does a lookup go to the engine on the caller's thread.
+ * <p>
+ * Below the memory cache sits an optional {@link SearchResultDiskTier}: a memory miss is looked up
+ * on disk before going to the engine, and every result loaded from the engine is written there in
+ * the background. A result read from disk is treated like one that has been in memory for its age,
+ * so an old one is served while it is refreshed.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Cache<String, CachedResult> cache;
+    private final SearchResultDiskTier diskTier;
+
+    // Keys with a background refresh in progress, so an entry is revalidated at most once at a time.
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public SearchResultCache(@Value("${whatsdaword.search.cache.enabled:true}") boolean enabled,
+                             @Value("${whatsdaword.search.cache.max-entries:10000}") long maxEntries,
+                             @Value("${whatsdaword.search.cache.max-size:32MB}") DataSize maxSize,
+                             @Value("${whatsdaword.search.cache.ttl:10m}") Duration ttl,
+                             @Value("${whatsdaword.search.cache.stale-while-revalidate:1h}") Duration staleWhileRevalidate,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                             SearchResultDiskTier diskTier) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.diskTier = diskTier != null && diskTier.isEnabled() ? diskTier : null;
+
+        // Caffeine bounds either weight or count, not both. Charging every entry at least its
+        // share of the byte budget makes the byte limit imply the entry limit as well.
+        long maxBytes = maxSize.toBytes();
+        long minimumWeight = Math.max(1, maxBytes / maxEntries);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResult value) ->
+                        (int) Math.min(Integer.MAX_VALUE, Math.max(minimumWeight, value.bytes())))
+                .expireAfterWrite(ttl.plus(staleWhileRevalidate))
+                .recordStats()
+                .build();
+
+        // Refreshes are best effort: if the queue is full the stale value is simply served a bit longer.
+        // The pool exists to bound refresh concurrency, so it stays bounded with virtual threads too.
+        this.refreshExecutor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                NamedThreads.factory("search-cache-refresh", virtualThreads));
+    }
+
+    /**
+     * Returns the cached result for {@code key}, loading it with {@code loader} on a miss.
+     * Failed loads are not cached.
+     *
+     * @param key    Identifies the query (normalized definition and result window).
+     * @param loader Produces the result from the search engine.
+     * @return The cached or freshly loaded result.
+     */
+    public List<WordMatch> get(String key, Supplier<List<WordMatch>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (System.nanoTime() - cached.loadedAt() > ttlNanos) {
+                staleHits.increment();
+                scheduleRefresh(key, loader);
+            }
+            return cached.words();
+        }
+        List<WordMatch> stored = loadFromDisk(key, loader);
+        if (stored != null) {
+            return stored;
+        }
+
+        List<WordMatch> words = loader.get();
+        put(key, words);
+        return words;
+    }
+
+    /**
+     * Non-blocking form of {@link #get(String, Supplier)}. On a miss the loader's own future is
+     * returned (not a dependent of it), so cancelling the result cancels the load.
+     *
+     * @param key    Identifies the query (normalized definition and result window).
+     * @param loader Starts loading the result from the search engine.
+     * @return The cached result, or the pending load.
+     */
+    public CompletableFuture<List<WordMatch>> getAsync(String key, Supplier<CompletableFuture<List<WordMatch>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (System.nanoTime() - cached.loadedAt() > ttlNanos) {
+                staleHits.increment();
+                // The refresh runs on the refresh executor, where waiting for the load is fine.
+                scheduleRefresh(key, () -> loader.get().join());
+            }
+            return CompletableFuture.completedFuture(cached.words());
+        }
+        List<WordMatch> stored = loadFromDisk(key, () -> loader.get().join());
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        CompletableFuture<List<WordMatch>> load = loader.get();
+        load.thenAccept(words -> put(key, words));
+        return load;
+    }
+
+    /**
+     * Moves a result from the disk tier into memory, scheduling a refresh if it is past its ttl.
+     *
+     * @return The stored result, or null if the disk tier has none.
+     */
+    private List<WordMatch> loadFromDisk(String key, Supplier<List<WordMatch>> loader) {
+        if (diskTier == null) {
+            return null;
+        }
+        SearchResultDiskTier.StoredResult stored = diskTier.load(key);
+        if (stored == null) {
+            return null;
+        }
+        long ageNanos = stored.age().toNanos();
+        CachedResult result = CachedResult.of(stored.words(), System.nanoTime() - ageNanos);
+        cache.put(key, result);
+        if (ageNanos > ttlNanos) {
+            staleHits.increment();
+            scheduleRefresh(key, loader);
+        }
+        return result.words();
+    }
+
+    private void put(String key, List<WordMatch> words) {
+        cache.put(key, CachedResult.of(words));
+        if (diskTier != null) {
+            diskTier.storeAsync(key, words);
+        }
+    }
+
+    private void scheduleRefresh(String key, Supplier<List<WordMatch>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, loader.get());
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    // Keep serving the stale entry; it expires on its own at the end of the window.
+                    refreshFailures.increment();
+                    log.debug("Background refresh failed for cached search '{}'", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters for monitoring.
+     *
+     * @return The current cache statistics.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("staleHits", staleHits.sum());
+        result.put("refreshes", refreshes.sum());
+        result.put("refreshFailures", refreshFailures.sum());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictedBytes", stats.evictionWeight());
+        if (diskTier != null) {
+            result.put("disk", diskTier.stats());
+        }
+        return result;
+    }
+
+    /**
+     * Runs pending maintenance (evictions) immediately; mainly useful in tests.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * A cached result together with its load time and approximate retained size.
+     */
+    private record CachedResult(List<WordMatch> words, long loadedAt, long bytes) {
+
+        // Rough per-object overheads for a 64-bit JVM with compressed oops.
+        private static final int LIST_OVERHEAD = 64;
+        private static final int RECORD_OVERHEAD = 40;
+        private static final int STRING_OVERHEAD = 40;
+
+        static CachedResult of(List<WordMatch> words) {
+            return of(words, System.nanoTime());
+        }
+
+        static CachedResult of(List<WordMatch> words, long loadedAt) {
+            long bytes = LIST_OVERHEAD;
+            for (WordMatch word : words) {
+                bytes += RECORD_OVERHEAD + 2 * LIST_OVERHEAD + STRING_OVERHEAD + word.word().length();
+                for (String tag : word.partsOfSpeech()) {
+                    bytes += STRING_OVERHEAD + tag.length();
+                }
+                // The first definition is shared with the definitions list.
+                for (String definition : word.definitions()) {
+                    bytes += STRING_OVERHEAD + definition.length();
+                }
+            }
+            return new CachedResult(List.copyOf(words), loadedAt, bytes);
+        }
+    }
+}
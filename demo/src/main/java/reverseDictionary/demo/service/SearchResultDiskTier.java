@@ -0,0 +1,182 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.util.AppendOnlyStore;
+import reverseDictionary.demo.util.NamedThreads;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search results on local disk, beneath {@link SearchResultCache}, so a restarted instance answers
+ * the searches it had seen without asking the engine again.
+ * <p>
+ * Results are kept as JSON in an {@link AppendOnlyStore} of bounded size, each for {@code ttl} after
+ * it was loaded. Reads happen on the caller's thread and cost a map lookup and a copy out of the
+ * mapped file. Writes are queued to a single background thread, so a search never waits for the
+ * disk; if the queue is full the write is dropped. A disk that cannot be opened disables the tier
+ * rather than the application.
+ */
+@Component
+public class SearchResultDiskTier {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultDiskTier.class);
+    private static final TypeReference<List<WordMatch>> WORDS = new TypeReference<>() {
+    };
+
+    /**
+     * A result read back from disk and how long ago it was loaded from the engine.
+     */
+    public record StoredResult(List<WordMatch> words, Duration age) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final AppendOnlyStore store;
+    private final ThreadPoolExecutor writer;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder droppedWrites = new LongAdder();
+
+    public SearchResultDiskTier(ObjectMapper objectMapper,
+                                @Value("${whatsdaword.search.cache.disk.enabled:false}") boolean enabled,
+                                @Value("${whatsdaword.search.cache.disk.path:data/search-results.db}") Path path,
+                                @Value("${whatsdaword.search.cache.disk.max-size:256MB}") DataSize maxSize,
+                                @Value("${whatsdaword.search.cache.disk.ttl:24h}") Duration ttl,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.store = enabled ? open(path, maxSize) : null;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1024),
+                NamedThreads.factory("search-cache-disk", virtualThreads));
+    }
+
+    private static AppendOnlyStore open(Path path, DataSize maxSize) {
+        long start = System.nanoTime();
+        try {
+            AppendOnlyStore store = AppendOnlyStore.open(path, (int) Math.min(Integer.MAX_VALUE, maxSize.toBytes()),
+                    System.currentTimeMillis());
+            log.info("Opened search result store {} in {} ms: {} results, {} KB",
+                    path, (System.nanoTime() - start) / 1_000_000, store.size(), store.liveBytes() / 1024);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search results will not be kept on disk: cannot open {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return Whether results are read from and written to disk.
+     */
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * @param key Identifies the query (normalized definition and result window).
+     * @return The stored result, or null if there is none, it expired or it cannot be read.
+     */
+    public StoredResult load(String key) {
+        if (store == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        AppendOnlyStore.Entry entry = store.get(key, now);
+        if (entry != null) {
+            try {
+                List<WordMatch> words = objectMapper.readValue(entry.value(), WORDS);
+                hits.increment();
+                return new StoredResult(words, Duration.ofMillis(Math.max(0, now - entry.writtenAt())));
+            } catch (IOException e) {
+                log.debug("Unreadable stored search '{}'", key, e);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Queues {@code words}, just loaded from the engine, to be written to disk.
+     *
+     * @param key Identifies the query (normalized definition and result window).
+     */
+    public void storeAsync(String key, List<WordMatch> words) {
+        if (store == null) {
+            return;
+        }
+        long loadedAt = System.currentTimeMillis();
+        try {
+            writer.execute(() -> {
+                try {
+                    if (store.put(key, objectMapper.writeValueAsBytes(words), loadedAt, loadedAt + ttlMillis)) {
+                        writes.increment();
+                    } else {
+                        droppedWrites.increment();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    droppedWrites.increment();
+                    log.debug("Could not store search '{}'", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedWrites.increment();
+        }
+    }
+
+    /**
+     * Hit, miss and write counters and the size of the store, for monitoring.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", store != null);
+        if (store != null) {
+            result.put("size", store.size());
+            result.put("liveBytes", store.liveBytes());
+            result.put("usedBytes", store.usedBytes());
+            result.put("compactions", store.compactions());
+        }
+        result.put("hits", hits.sum());
+        result.put("misses", misses.sum());
+        result.put("writes", writes.sum());
+        result.put("droppedWrites", droppedWrites.sum());
+        return result;
+    }
+
+    /**
+     * Waits until queued writes are on disk; mainly useful in tests.
+     */
+    void awaitWrites() throws InterruptedException {
+        while (writer.getQueue().size() > 0 || writer.getActiveCount() > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Finish queued writes, so what this instance learned is there after a restart.
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        if (store != null) {
+            store.close();
+        }
+    }
+}
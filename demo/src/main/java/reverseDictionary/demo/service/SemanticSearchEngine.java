@@ -0,0 +1,202 @@
+package reverseDictionary.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reverseDictionary.demo.model.DictionaryEntry;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.util.HnswIndex;
+import reverseDictionary.demo.util.TextAnalyzer;
+import reverseDictionary.demo.util.WordVectors;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline semantic reverse-dictionary engine: finds words whose meaning is close to the definition,
+ * even when they share no words with it ("someone who cannot sleep" finds "insomniac").
+ * <p>
+ * The definition is embedded as the average of its words' vectors, taken from a pretrained word
+ * vector file, and the words nearest to it are found with an {@link HnswIndex}. Words of the
+ * definition itself, and words sharing their stem, are left out of the results. Definitions come
+ * from the bundled corpus when it has the word.
+ * <p>
+ * On first start the text vector file is converted to a binary file and the graph is built and
+ * written next to it; both are memory-mapped, so later starts only map them and neither the vectors
+ * nor the graph is on the heap. They are rebuilt when the source file or the settings change.
+ */
+@Component
+@ConditionalOnProperty(name = "whatsdaword.search.engine", havingValue = "semantic")
+public class SemanticSearchEngine implements WordSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SemanticSearchEngine.class);
+
+    // Fixed so that a rebuilt graph is the same graph.
+    private static final long SEED = 42;
+
+    private final WordVectors vectors;
+    private final HnswIndex index;
+    private final int efSearch;
+    private final Map<String, List<String>> definitionsByWord = new HashMap<>();
+    private final Map<String, List<String>> partsOfSpeechByWord = new HashMap<>();
+
+    /**
+     * @param vectorFile     A pretrained word vector file in text format (GloVe, word2vec or fastText).
+     * @param indexDirectory Where the binary vectors and the graph are kept; blank for next to
+     *                       {@code vectorFile}.
+     * @param maxWords       How many of the most frequent words are searchable.
+     * @param m              Graph neighbours per node; more is more accurate, larger and slower to build.
+     * @param efConstruction Search width while building the graph.
+     * @param efSearch       Search width per query; more is more accurate and slower.
+     */
+    public SemanticSearchEngine(DictionaryCorpus corpus,
+                                @Value("${whatsdaword.semantic.vectors}") String vectorFile,
+                                @Value("${whatsdaword.semantic.index-dir:}") String indexDirectory,
+                                @Value("${whatsdaword.semantic.max-words:200000}") int maxWords,
+                                @Value("${whatsdaword.semantic.m:16}") int m,
+                                @Value("${whatsdaword.semantic.ef-construction:100}") int efConstruction,
+                                @Value("${whatsdaword.semantic.ef-search:64}") int efSearch) throws IOException {
+        this.efSearch = efSearch;
+        long start = System.nanoTime();
+        Path source = Path.of(vectorFile).toAbsolutePath();
+        Path directory = indexDirectory.isBlank() ? source.getParent() : Path.of(indexDirectory);
+        Files.createDirectories(directory);
+        Path vectorPath = directory.resolve(source.getFileName() + ".vectors");
+        Path graphPath = directory.resolve(source.getFileName() + ".hnsw");
+
+        long stamp = 31 * (31 * Files.size(source) + Files.getLastModifiedTime(source).toMillis()) + maxWords;
+        if (Files.exists(vectorPath) && WordVectors.readStamp(vectorPath) == stamp) {
+            this.vectors = WordVectors.open(vectorPath);
+        } else {
+            log.info("Converting word vectors from {}", source);
+            this.vectors = WordVectors.convert(source, vectorPath, maxWords, stamp);
+        }
+        HnswIndex existing = Files.exists(graphPath) ? openIfCurrent(graphPath, stamp, m, efConstruction) : null;
+        if (existing == null) {
+            long buildStart = System.nanoTime();
+            HnswIndex.build(vectors, m, efConstruction, SEED).write(graphPath);
+            log.info("Built HNSW graph over {} words in {} ms", vectors.size(), (System.nanoTime() - buildStart) / 1_000_000);
+            existing = HnswIndex.open(graphPath, vectors);
+        }
+        this.index = existing;
+
+        for (DictionaryEntry entry : corpus.getEntries()) {
+            String word = entry.word().toLowerCase(Locale.ROOT);
+            definitionsByWord.computeIfAbsent(word, w -> new ArrayList<>())
+                    .add(entry.partOfSpeech() + "\t" + entry.definition());
+            List<String> tags = partsOfSpeechByWord.computeIfAbsent(word, w -> new ArrayList<>());
+            if (!tags.contains(entry.partOfSpeech())) {
+                tags.add(entry.partOfSpeech());
+            }
+        }
+        definitionsByWord.replaceAll((word, definitions) -> List.copyOf(definitions));
+        partsOfSpeechByWord.replaceAll((word, tags) -> List.copyOf(tags));
+        log.info("Semantic search ready in {} ms: {} words of {} dimensions, {} MB mapped",
+                (System.nanoTime() - start) / 1_000_000, vectors.size(), vectors.dimensions(),
+                (vectors.mappedBytes() + index.mappedBytes()) >> 20);
+    }
+
+    @Override
+    public List<WordMatch> search(SearchQuery query) {
+        float[] embedding = new float[vectors.dimensions()];
+        Set<String> queryStems = new HashSet<>();
+        int known = 0;
+        for (String term : TextAnalyzer.normalize(query.definition()).split(" ")) {
+            if (term.isEmpty() || TextAnalyzer.isStopWord(term)) {
+                continue;
+            }
+            queryStems.add(TextAnalyzer.stem(term));
+            int id = vectors.id(term);
+            if (id >= 0) {
+                vectors.addTo(id, embedding);
+                known++;
+            }
+        }
+        if (known == 0) {
+            if (query.offset() == 0) {
+                throw new RuntimeException("No words found for the given definition.");
+            }
+            return List.of();
+        }
+        normalize(embedding);
+
+        // Over-fetch: the definition's own words and punctuation tokens are dropped below.
+        int windowEnd = query.offset() + query.limit();
+        int wanted = windowEnd + 4 * queryStems.size() + 16;
+        int[] nearest = index.search(embedding, wanted, Math.max(efSearch, wanted));
+
+        List<WordMatch> words = new ArrayList<>(query.limit());
+        int rank = 0;
+        for (int id : nearest) {
+            String word = vectors.word(id);
+            if (!isWord(word) || TextAnalyzer.isStopWord(word) || queryStems.contains(TextAnalyzer.stem(word))) {
+                continue;
+            }
+            rank++;
+            if (rank > query.offset()) {
+                List<String> definitions = definitionsByWord.getOrDefault(word, List.of());
+                words.add(new WordMatch(rank, word, definitions.isEmpty() ? "" : definitions.getFirst(),
+                        Math.round(vectors.dot(embedding, id) * 1000),
+                        partsOfSpeechByWord.getOrDefault(word, List.of()), definitions));
+            }
+            if (rank == windowEnd) {
+                break;
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of(
+                "words", vectors.size(),
+                "dimensions", vectors.dimensions(),
+                "graphLayers", index.maxLevel() + 1,
+                "mappedBytes", vectors.mappedBytes() + index.mappedBytes());
+    }
+
+    private HnswIndex openIfCurrent(Path graphPath, long stamp, int m, int efConstruction) throws IOException {
+        try {
+            HnswIndex graph = HnswIndex.open(graphPath, vectors);
+            return graph.vectorsStamp() == stamp && graph.m() == m && graph.efConstruction() == efConstruction ? graph : null;
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float component : vector) {
+            norm += (double) component * component;
+        }
+        float scale = norm == 0 ? 0f : (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    /**
+     * Vector files also hold punctuation, numbers and markup tokens; only letters (and inner
+     * hyphens) make a result.
+     */
+    private static boolean isWord(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!Character.isLetter(c) && !(c == '-' && i > 0 && i < token.length() - 1)) {
+                return false;
+            }
+        }
+        return !token.isEmpty();
+    }
+}
@@ -0,0 +1,178 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import reverseDictionary.demo.model.DictionaryEntry;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.util.SpellingIndex;
+import reverseDictionary.demo.util.TextAnalyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Corrects misspelled terms in a definition before it is searched, so "fear of hieghts" is looked
+ * up as "fear of heights".
+ * <p>
+ * The vocabulary is every word of the bundled corpus (headwords and glosses), weighted by how often
+ * it occurs, plus a general word list, held in a {@link SpellingIndex} built once at startup. The
+ * corpus has under two thousand distinct words, so without the word list ordinary English would be
+ * "corrected" to the nearest of them ("river" to "driver"); correction is therefore off until
+ * {@code whatsdaword.search.spelling.vocabulary} is set.
+ * <p>
+ * Correction is conservative: only terms of at least four letters that are neither stop words,
+ * numbers, nor known words (directly or by their stem) are replaced, and only by a word within one
+ * edit for terms of up to five letters, two for longer ones. Terms with no close word are left as
+ * typed. Nothing is scanned or fetched per query.
+ */
+@Component
+public class SpellingCorrector {
+
+    private static final Logger log = LoggerFactory.getLogger(SpellingCorrector.class);
+
+    private static final int MIN_TERM_LENGTH = 4;
+    private static final int PREFIX_LENGTH = 7;
+
+    private final boolean enabled;
+    private final int maxEditDistance;
+    private final SpellingIndex index;
+    private final Set<String> knownStems;
+    private final Counter corrections;
+
+    /**
+     * @param enabled         Whether queries are corrected at all; ignored without a vocabulary.
+     * @param maxEditDistance The most edits a correction of a long term may make.
+     * @param vocabulary      Location of a general word list, one word per line with an optional
+     *                        tab-separated count; blank turns correction off.
+     */
+    public SpellingCorrector(DictionaryCorpus corpus, ResourceLoader resourceLoader, MeterRegistry meterRegistry,
+                             @Value("${whatsdaword.search.spelling.enabled:true}") boolean enabled,
+                             @Value("${whatsdaword.search.spelling.max-edit-distance:2}") int maxEditDistance,
+                             @Value("${whatsdaword.search.spelling.vocabulary:}") String vocabulary) {
+        this.enabled = enabled && !vocabulary.isBlank();
+        this.maxEditDistance = maxEditDistance;
+        this.corrections = Counter.builder("whatsdaword.search.spelling.corrections")
+                .description("Search queries rewritten by the spelling corrector")
+                .register(meterRegistry);
+
+        if (enabled && !this.enabled) {
+            log.warn("Spelling correction is off: set whatsdaword.search.spelling.vocabulary to a general word list to enable it");
+        }
+        long start = System.nanoTime();
+        Map<String, Long> frequencies = new HashMap<>();
+        for (DictionaryEntry entry : corpus.getEntries()) {
+            count(frequencies, entry.word());
+            count(frequencies, entry.definition());
+        }
+        if (!vocabulary.isBlank()) {
+            loadVocabulary(resourceLoader.getResource(vocabulary), frequencies);
+        }
+        this.knownStems = new HashSet<>();
+        for (String word : frequencies.keySet()) {
+            knownStems.add(TextAnalyzer.stem(word));
+        }
+        this.index = SpellingIndex.build(frequencies, maxEditDistance, PREFIX_LENGTH);
+        log.info("Built spelling index in {} ms: {} words, {} deletes",
+                (System.nanoTime() - start) / 1_000_000, index.size(), index.deleteCount());
+    }
+
+    /**
+     * @param query The query as entered.
+     * @return {@code query} itself if nothing was corrected, otherwise the same window over the
+     *         corrected, normalized definition.
+     */
+    public SearchQuery correct(SearchQuery query) {
+        String normalized = query.normalizedDefinition();
+        String corrected = correct(normalized);
+        if (corrected.equals(normalized)) {
+            return query;
+        }
+        corrections.increment();
+        return new SearchQuery(corrected, query.offset(), query.limit());
+    }
+
+    /**
+     * @param normalized A definition as returned by {@link TextAnalyzer#normalize(String)}.
+     * @return The definition with misspelled terms replaced, or {@code normalized} itself.
+     */
+    public String correct(String normalized) {
+        if (!enabled || normalized.isEmpty()) {
+            return normalized;
+        }
+        String[] terms = normalized.split(" ");
+        boolean changed = false;
+        for (int i = 0; i < terms.length; i++) {
+            String replacement = correctTerm(terms[i]);
+            if (replacement != null) {
+                terms[i] = replacement;
+                changed = true;
+            }
+        }
+        return changed ? String.join(" ", terms) : normalized;
+    }
+
+    /**
+     * @return The replacement for {@code term}, or null to keep it.
+     */
+    private String correctTerm(String term) {
+        if (term.length() < MIN_TERM_LENGTH || TextAnalyzer.isStopWord(term) || !isAlphabetic(term)
+                || index.contains(term) || knownStems.contains(TextAnalyzer.stem(term))) {
+            return null;
+        }
+        int distance = term.length() <= 5 ? 1 : maxEditDistance;
+        String match = index.bestMatch(term, distance);
+        return match == null || match.equals(term) ? null : match;
+    }
+
+    private static void loadVocabulary(Resource resource, Map<String, Long> frequencies) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 2);
+                String word = TextAnalyzer.normalize(fields[0]);
+                if (!word.isEmpty() && isAlphabetic(word)) {
+                    frequencies.merge(word, fields.length > 1 ? Long.parseLong(fields[1].trim()) : 1L, Long::sum);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read spelling vocabulary " + resource, e);
+        }
+    }
+
+    private static void count(Map<String, Long> frequencies, String text) {
+        String normalized = TextAnalyzer.normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        for (String token : normalized.split(" ")) {
+            if (isAlphabetic(token)) {
+                frequencies.merge(token, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static boolean isAlphabetic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isLetter(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,19 @@
 package reverseDictionary.demo.service;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reverseDictionary.demo.model.CursorPage;
 import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.StudySetVersion;
 import reverseDictionary.demo.model.User;
 import reverseDictionary.demo.repository.StudySetRepository;
 import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.util.CursorCodec;
 
 import java.util.List;
 
@@ -17,11 +25,14 @@ public class StudySetService {
 
     private final StudySetRepository studySetRepository;
     private final UserRepository userRepository;
+    private final int maxPageSize;
 
     @Autowired
-    public StudySetService(StudySetRepository studySetRepository, UserRepository userRepository) {
+    public StudySetService(StudySetRepository studySetRepository, UserRepository userRepository,
+                           @Value("${whatsdaword.pagination.max-page-size:100}") int maxPageSize) {
         this.studySetRepository = studySetRepository;
         this.userRepository = userRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -40,41 +51,75 @@ public class StudySetService {
     }
 
     /**
-     * Retrieve all Study Sets owned by a specific user.
+     * Retrieve one page of summaries (name, description, word count) of the Study Sets owned by a
+     * specific user, ordered by id. The page is read with a single query.
      *
-     * @param userId The ID of the user.
-     * @return A list of Study Sets.
+     * @param userId   The ID of the user.
+     * @param cursor   Continuation token from the previous page, or null for the first page.
+     * @param pageSize Requested page size; capped at the configured maximum.
+     * @return The page of Study Set summaries and the token for the next page.
      */
-    public List<StudySet> getStudySetsByUserId(Long userId) {
-        return studySetRepository.findByUserId(userId);
+    public CursorPage<StudySetSummary> getStudySetsByUserId(Long userId, String cursor, int pageSize) {
+        int size = Math.min(pageSize, maxPageSize);
+        // Fetch one extra row to learn whether another page follows.
+        List<StudySetSummary> studySets = studySetRepository.findSummariesByUserId(
+                userId, CursorCodec.decode(cursor), Limit.of(size + 1));
+        if (studySets.size() <= size) {
+            return new CursorPage<>(studySets, null);
+        }
+        List<StudySetSummary> page = studySets.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), CursorCodec.encode(page.get(size - 1).id()));
     }
 
     /**
-     * Retrieve a Study Set by its ID.
+     * Retrieve a Study Set by its ID, together with its owner and words. The set, its owner, its
+     * word ids and its words are each read from the second-level cache when present, so a repeated
+     * read runs no queries; a cold read runs at most one per part.
      *
      * @param id The ID of the Study Set.
      * @return The requested Study Set.
      */
+    @Transactional(readOnly = true)
     public StudySet getStudySetById(Long id) {
-        return studySetRepository.findById(id)
+        StudySet studySet = studySetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Study Set not found with ID: " + id));
+        Hibernate.initialize(studySet.getUser());
+        Hibernate.initialize(studySet.getWords());
+        return studySet;
+    }
+
+    /**
+     * Retrieve the current versions of a Study Set and its owner, without loading either. Clients
+     * holding a representation with the matching ETag can be told it has not changed.
+     *
+     * @param id The ID of the Study Set.
+     * @return The versions identifying the current state of the set, its words and its owner.
+     */
+    public StudySetVersion getStudySetVersion(Long id) {
+        return studySetRepository.findVersionById(id)
                 .orElseThrow(() -> new RuntimeException("Study Set not found with ID: " + id));
     }
 
     /**
-     * Update an existing Study Set.
+     * Update an existing Study Set. The set is locked for the rest of the transaction, as the word
+     * add paths do, so a concurrent word add queues behind the rename instead of failing its
+     * optimistic version check, and the change is flushed from the managed set on commit.
      *
      * @param id              The ID of the Study Set.
      * @param updatedStudySet The updated Study Set object.
      * @return The updated Study Set.
      */
+    @Transactional
     public StudySet updateStudySet(Long id, StudySet updatedStudySet) {
-        return studySetRepository.findById(id)
-                .map(studySet -> {
-                    studySet.setName(updatedStudySet.getName());
-                    studySet.setDescription(updatedStudySet.getDescription());
-                    return studySetRepository.save(studySet);
-                })
+        StudySet studySet = studySetRepository.lockAllById(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Study Set not found with ID: " + id));
+        studySet.setName(updatedStudySet.getName());
+        studySet.setDescription(updatedStudySet.getDescription());
+        // The updated set is returned with its owner and words.
+        Hibernate.initialize(studySet.getUser());
+        Hibernate.initialize(studySet.getWords());
+        return studySet;
     }
 
     /**
@@ -0,0 +1,432 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.ImportReport;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetRow;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.TransferFormat;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.repository.WordRepository;
+import reverseDictionary.demo.util.CsvCodec;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams a user's study sets out as NDJSON or CSV, and back in.
+ * <p>
+ * Export reads one row per word from a forward-only JDBC cursor and writes it to the response as
+ * it arrives, so memory use does not depend on how many words a user has. Import reads the body
+ * one line (or CSV record) at a time and commits every {@code chunk-size} rows in its own
+ * transaction. Malformed rows are skipped and reported; a chunk that fails to commit is reported
+ * row by row and the import carries on with the next one. A caller may follow an import chunk by
+ * chunk, and the imported words reach the user's typeahead suggestions as each chunk commits.
+ */
+@Service
+public class StudySetTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudySetTransferService.class);
+
+    // Default VARCHAR length of the generated columns.
+    private static final int MAX_COLUMN_LENGTH = 255;
+    // Only the first rejected rows are described in the report; the rest are just counted.
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // Existing set names are read in keyset pages of this size before an import.
+    private static final int SET_PAGE_SIZE = 1000;
+
+    private static final String EXPORT_SQL = "select s.name, s.description, w.word, w.definition "
+            + "from study_set s left join word w on w.study_set_id = s.id "
+            + "where s.user_id = ? "
+            + "order by s.id, w.id";
+
+    private final JdbcTemplate exportTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final StudySetRepository studySetRepository;
+    private final WordRepository wordRepository;
+    private final SuggestionService suggestionService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * @param fetchSize Rows the driver fetches per round trip during export. With MySQL
+     *                  Connector/J, {@code Integer.MIN_VALUE} streams rows one at a time instead of
+     *                  buffering the whole result.
+     * @param chunkSize Rows committed per import transaction.
+     */
+    public StudySetTransferService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                   EntityManager entityManager, UserRepository userRepository,
+                                   StudySetRepository studySetRepository, WordRepository wordRepository,
+                                   SuggestionService suggestionService, ObjectMapper objectMapper,
+                                   @Value("${whatsdaword.transfer.fetch-size:-2147483648}") int fetchSize,
+                                   @Value("${whatsdaword.transfer.import-chunk-size:500}") int chunkSize) {
+        this.exportTemplate = new JdbcTemplate(dataSource);
+        this.exportTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.userRepository = userRepository;
+        this.studySetRepository = studySetRepository;
+        this.wordRepository = wordRepository;
+        this.suggestionService = suggestionService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Fails fast, before any response is written, if the user does not exist.
+     */
+    public void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found with ID: " + userId);
+        }
+    }
+
+    // ====================
+    // Export
+    // ====================
+
+    /**
+     * Writes every study set of a user, one row per word, to {@code out}.
+     *
+     * @param userId The ID of the user.
+     * @param format The line format.
+     * @param out    The response body; it is flushed but not closed.
+     */
+    public void exportStudySets(Long userId, TransferFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TransferFormat.CSV) {
+            CsvCodec.writeRecord(writer, StudySetRow.CSV_HEADER);
+        }
+        try {
+            exportTemplate.query(EXPORT_SQL, resultSet -> {
+                StudySetRow row = new StudySetRow(resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getString(4));
+                try {
+                    writeRow(writer, format, row);
+                } catch (IOException e) {
+                    // Typically the client went away; abandon the cursor.
+                    throw new UncheckedIOException(e);
+                }
+            }, userId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, TransferFormat format, StudySetRow row) throws IOException {
+        if (format == TransferFormat.CSV) {
+            CsvCodec.writeRecord(writer, row.set(), row.description(), row.word(), row.definition());
+        } else {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    // ====================
+    // Import
+    // ====================
+
+    /**
+     * Adds the rows in {@code body} to the user's study sets. Rows are matched to an existing set of
+     * the same name, and a set is created the first time an unknown name appears.
+     *
+     * @param userId The ID of the user.
+     * @param format The line format of the body.
+     * @param body   The request body, read incrementally.
+     * @return Counts of what was imported and the rows that were rejected.
+     */
+    public ImportReport importStudySets(Long userId, TransferFormat format, InputStream body) throws IOException {
+        return importStudySets(userId, format, body, report -> {
+        });
+    }
+
+    /**
+     * Like {@link #importStudySets(Long, TransferFormat, InputStream)}, and also passes the running
+     * counts to {@code progress} each time a chunk has been committed or rolled back.
+     *
+     * @param progress Called on the importing thread with the report so far.
+     */
+    public ImportReport importStudySets(Long userId, TransferFormat format, InputStream body,
+                                        Consumer<ImportReport> progress) throws IOException {
+        requireUser(userId);
+        ImportState state = new ImportState(progress);
+        loadSetIds(userId, state);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        try {
+            if (format == TransferFormat.CSV) {
+                readCsv(reader, state, chunk, userId);
+            } else {
+                readNdjson(reader, state, chunk, userId);
+            }
+        } catch (IllegalArgumentException e) {
+            // The rest of the body cannot be parsed; keep what was read before it.
+            state.reject(state.line, e.getMessage());
+        }
+        commitChunk(userId, chunk, state);
+
+        log.info("Import for user {} finished: {} rows read, {} words imported, {} sets created, {} rows rejected",
+                userId, state.rowsRead, state.wordsImported, state.setsCreated, state.errorCount);
+        return state.report();
+    }
+
+    /**
+     * Imports like {@link #importStudySets(Long, TransferFormat, InputStream)}, writing the running
+     * report to {@code out} as one NDJSON line per chunk, each flushed as soon as the chunk is done.
+     * The last line is the final report. The response status is already sent, so a body that cannot
+     * be imported at all, such as CSV without the header, is reported as a rejected first line.
+     *
+     * @param out The response body; it is flushed but not closed.
+     */
+    public void importStudySets(Long userId, TransferFormat format, InputStream body, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ImportReport report;
+        try {
+            report = importStudySets(userId, format, body, progress -> {
+                try {
+                    writeReport(writer, progress);
+                } catch (IOException e) {
+                    // Typically the client went away; stop reading the body.
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ResponseStatusException e) {
+            report = new ImportReport(0, 0, 0, 0, 1, List.of(new ImportReport.RowError(1, e.getReason())));
+        }
+        writeReport(writer, report);
+    }
+
+    private void writeReport(Writer writer, ImportReport report) throws IOException {
+        writer.write(objectMapper.writeValueAsString(report));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Maps the names of the user's existing sets to their ids, from the summary read model, so no
+     * set entities are loaded. The first set of a name wins.
+     */
+    private void loadSetIds(Long userId, ImportState state) {
+        long afterId = 0;
+        List<StudySetSummary> page;
+        do {
+            page = studySetRepository.findSummariesByUserId(userId, afterId, Limit.of(SET_PAGE_SIZE));
+            for (StudySetSummary summary : page) {
+                state.setIds.putIfAbsent(summary.name(), summary.id());
+                afterId = summary.id();
+            }
+        } while (page.size() == SET_PAGE_SIZE);
+    }
+
+    private void readNdjson(BufferedReader reader, ImportState state, List<PendingRow> chunk, Long userId) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            state.line++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.rowsRead++;
+            try {
+                accept(objectMapper.readValue(line, StudySetRow.class), state, chunk, userId);
+            } catch (JsonProcessingException e) {
+                state.reject(state.line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportState state, List<PendingRow> chunk, Long userId) throws IOException {
+        List<String> header = CsvCodec.readRecord(reader);
+        state.line++;
+        if (header == null || !header.stream().map(String::trim).map(String::toLowerCase).toList()
+                .equals(Arrays.asList(StudySetRow.CSV_HEADER))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "CSV must start with the header " + String.join(",", StudySetRow.CSV_HEADER) + ".");
+        }
+        List<String> fields;
+        while ((fields = CsvCodec.readRecord(reader)) != null) {
+            state.line++;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            state.rowsRead++;
+            if (fields.size() != StudySetRow.CSV_HEADER.length) {
+                state.reject(state.line, "Expected " + StudySetRow.CSV_HEADER.length + " fields but found " + fields.size() + ".");
+                continue;
+            }
+            accept(new StudySetRow(fields.get(0), emptyToNull(fields.get(1)), emptyToNull(fields.get(2)),
+                    emptyToNull(fields.get(3))), state, chunk, userId);
+        }
+    }
+
+    private void accept(StudySetRow row, ImportState state, List<PendingRow> chunk, Long userId) {
+        String problem = validate(row);
+        if (problem != null) {
+            state.reject(state.line, problem);
+            return;
+        }
+        chunk.add(new PendingRow(state.line, row));
+        if (chunk.size() >= chunkSize) {
+            commitChunk(userId, chunk, state);
+        }
+    }
+
+    private static String validate(StudySetRow row) {
+        if (row.set() == null || row.set().isBlank()) {
+            return "The set name is required.";
+        }
+        if (tooLong(row.set()) || tooLong(row.description()) || tooLong(row.word()) || tooLong(row.definition())) {
+            return "Values may be at most " + MAX_COLUMN_LENGTH + " characters.";
+        }
+        if (!row.hasWord() && row.definition() != null && !row.definition().isBlank()) {
+            return "A definition was given without a word.";
+        }
+        return null;
+    }
+
+    /**
+     * Writes the pending rows in one transaction, then empties the chunk. The persistence context is
+     * cleared afterwards so it does not grow with the size of the import.
+     */
+    private void commitChunk(Long userId, List<PendingRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> createdNames = new ArrayList<>();
+        try {
+            int words = transactionTemplate.execute(status -> {
+                User user = userRepository.getReferenceById(userId);
+                // Lock the existing sets this chunk adds words to; adding through them bumps their versions.
+                Set<Long> existingSetIds = new HashSet<>();
+                for (PendingRow pending : chunk) {
+                    Long setId = state.setIds.get(pending.row().set());
+                    if (setId != null && pending.row().hasWord()) {
+                        existingSetIds.add(setId);
+                    }
+                }
+                Map<Long, StudySet> sets = new HashMap<>();
+                if (!existingSetIds.isEmpty()) {
+                    studySetRepository.lockAllById(existingSetIds).forEach(studySet -> sets.put(studySet.getId(), studySet));
+                }
+                List<Word> batch = new ArrayList<>(chunk.size());
+                for (PendingRow pending : chunk) {
+                    StudySetRow row = pending.row();
+                    Long setId = state.setIds.get(row.set());
+                    if (setId == null) {
+                        StudySet created = studySetRepository.save(new StudySet(row.set(), row.description(), user));
+                        setId = created.getId();
+                        sets.put(setId, created);
+                        state.setIds.put(row.set(), setId);
+                        createdNames.add(row.set());
+                    }
+                    if (row.hasWord()) {
+                        StudySet studySet = sets.get(setId);
+                        if (studySet == null) {
+                            throw new RuntimeException("Study Set not found with ID: " + setId);
+                        }
+                        Word word = new Word(row.word(), row.definition(), null);
+                        studySet.addWord(word);
+                        batch.add(word);
+                    }
+                }
+                wordRepository.saveAll(batch);
+                suggestionService.recordSavedWords(userId, batch.stream().map(Word::getWord).toList());
+                entityManager.flush();
+                entityManager.clear();
+                return batch.size();
+            });
+            state.wordsImported += words;
+            state.setsCreated += createdNames.size();
+            state.chunksCommitted++;
+            log.debug("Import for user {}: {} rows read, {} words committed so far", userId, state.rowsRead, state.wordsImported);
+        } catch (RuntimeException e) {
+            // The sets created in this chunk were rolled back with it.
+            createdNames.forEach(state.setIds::remove);
+            log.warn("Import chunk for user {} rolled back: {}", userId, e.getMessage());
+            for (PendingRow pending : chunk) {
+                state.reject(pending.line(), "Not saved: the batch containing this row failed (" + e.getMessage() + ").");
+            }
+        } finally {
+            chunk.clear();
+        }
+        state.progress.accept(state.report());
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_COLUMN_LENGTH;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private record PendingRow(long line, StudySetRow row) {
+    }
+
+    /**
+     * Progress of one import.
+     */
+    private static final class ImportState {
+        final Consumer<ImportReport> progress;
+        final Map<String, Long> setIds = new HashMap<>();
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+        long line;
+        long rowsRead;
+        long wordsImported;
+        long setsCreated;
+        int chunksCommitted;
+        long errorCount;
+
+        ImportState(Consumer<ImportReport> progress) {
+            this.progress = progress;
+        }
+
+        ImportReport report() {
+            return new ImportReport(rowsRead, wordsImported, setsCreated, chunksCommitted, errorCount, List.copyOf(errors));
+        }
+
+        void reject(long line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+}
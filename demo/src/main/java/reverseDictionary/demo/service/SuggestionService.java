@@ -0,0 +1,182 @@
+package reverseDictionary.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reverseDictionary.demo.model.DictionaryEntry;
+import reverseDictionary.demo.model.WordFrequency;
+import reverseDictionary.demo.repository.WordRepository;
+import reverseDictionary.demo.util.SuggestionTrie;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Typeahead suggestions for words being added to a study set.
+ * <p>
+ * Suggestions come from two places. A shared {@link SuggestionTrie}, built once at startup, holds
+ * the bundled headwords and the words most saved across all study sets, ranked by how often they
+ * were saved (a headword counts once per gloss). A per-user sorted map holds the words in that
+ * user's own study sets, loaded on the user's first lookup and updated as they add words; its
+ * matches rank above the shared ones. Words are matched case-insensitively and returned lower-cased.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+
+    private final WordRepository wordRepository;
+    private final SuggestionTrie index;
+    private final Cache<Long, ConcurrentNavigableMap<String, Long>> userWords;
+
+    /**
+     * @param topK          The most suggestions one lookup returns.
+     * @param maxSavedWords How many of the most saved words join the headwords in the shared index.
+     * @param maxUsers      How many users' word lists are kept in memory.
+     * @param userTtl       How long a user's word list is kept before it is reloaded; words the user
+     *                      removed show up once it is.
+     */
+    public SuggestionService(DictionaryCorpus corpus, WordRepository wordRepository,
+                             @Value("${whatsdaword.suggest.top-k:10}") int topK,
+                             @Value("${whatsdaword.suggest.max-saved-words:100000}") int maxSavedWords,
+                             @Value("${whatsdaword.suggest.max-users:10000}") long maxUsers,
+                             @Value("${whatsdaword.suggest.user-ttl:10m}") Duration userTtl) {
+        this.wordRepository = wordRepository;
+        this.userWords = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(userTtl)
+                .build();
+
+        long start = System.nanoTime();
+        Map<String, Long> weights = new HashMap<>();
+        for (DictionaryEntry entry : corpus.getEntries()) {
+            weights.merge(normalize(entry.word()), 1L, Long::sum);
+        }
+        for (WordFrequency saved : wordRepository.findMostSavedWords(Limit.of(maxSavedWords))) {
+            weights.merge(normalize(saved.word()), saved.count(), Long::sum);
+        }
+        this.index = SuggestionTrie.build(weights, topK);
+        log.info("Built suggestion index in {} ms: {} words, {} nodes, ~{} KB",
+                (System.nanoTime() - start) / 1_000_000, index.size(), index.nodeCount(), index.estimatedBytes() / 1024);
+    }
+
+    /**
+     * The best words starting with {@code prefix}: the user's own words first, most often saved
+     * first, then the shared index.
+     *
+     * @param prefix The typed prefix; a blank prefix has no suggestions.
+     * @param userId The user typing, or null for the shared index only.
+     * @param limit  The most words to return; capped at the configured top-k.
+     * @return Up to {@code limit} distinct words, best first.
+     */
+    public List<String> suggest(String prefix, Long userId, int limit) {
+        String normalized = normalize(prefix);
+        int size = Math.min(limit, index.k());
+        if (normalized.isEmpty() || size < 1) {
+            return List.of();
+        }
+        List<String> shared = index.suggest(normalized, size);
+        if (userId == null) {
+            return shared;
+        }
+        List<String> suggestions = topUserWords(userWords(userId), normalized, size);
+        for (String word : shared) {
+            if (suggestions.size() == size) {
+                break;
+            }
+            if (!suggestions.contains(word)) {
+                suggestions.add(word);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Counts words the user just saved. When called inside a transaction they are counted once it
+     * commits. Users whose word list is not in memory are skipped; it is read from the database
+     * with the words included when next needed.
+     *
+     * @param userId The owner of the study set the words were added to.
+     * @param words  The saved words.
+     */
+    public void recordSavedWords(Long userId, Collection<String> words) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addUserWords(userId, words);
+                }
+            });
+        } else {
+            addUserWords(userId, words);
+        }
+    }
+
+    private void addUserWords(Long userId, Collection<String> words) {
+        ConcurrentNavigableMap<String, Long> known = userWords.getIfPresent(userId);
+        if (known == null) {
+            return;
+        }
+        for (String word : words) {
+            String normalized = normalize(word);
+            if (!normalized.isEmpty()) {
+                known.merge(normalized, 1L, Long::sum);
+            }
+        }
+    }
+
+    private ConcurrentNavigableMap<String, Long> userWords(Long userId) {
+        return userWords.get(userId, id -> {
+            ConcurrentNavigableMap<String, Long> words = new ConcurrentSkipListMap<>();
+            for (WordFrequency saved : wordRepository.findSavedWordsByUserId(id)) {
+                String normalized = normalize(saved.word());
+                if (!normalized.isEmpty()) {
+                    words.merge(normalized, saved.count(), Long::sum);
+                }
+            }
+            return words;
+        });
+    }
+
+    /**
+     * The {@code size} most saved of the user's words starting with {@code prefix}, found with a
+     * range scan of the sorted map. Ties keep alphabetical order.
+     */
+    private static List<String> topUserWords(ConcurrentNavigableMap<String, Long> words, String prefix, int size) {
+        List<String> best = new ArrayList<>(size);
+        List<Long> counts = new ArrayList<>(size);
+        for (Map.Entry<String, Long> entry : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            long count = entry.getValue();
+            int position = counts.size();
+            while (position > 0 && counts.get(position - 1) < count) {
+                position--;
+            }
+            if (position < size) {
+                best.add(position, entry.getKey());
+                counts.add(position, count);
+                if (best.size() > size) {
+                    best.removeLast();
+                    counts.removeLast();
+                }
+            }
+        }
+        return best;
+    }
+
+    private static String normalize(String word) {
+        return word == null ? "" : word.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,151 @@
+package reverseDictionary.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.util.JwtUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns a bearer token into the user it was issued to.
+ * <p>
+ * Verifying a token means parsing it and recomputing its HMAC-SHA256 signature, and tokens without
+ * a user id claim also need a user lookup. A client sends the same token with every request, so
+ * verified tokens are kept in a bounded cache until they expire, and repeat requests cost one
+ * SHA-256 of the token and a map lookup. The cache is keyed by that hash rather than the token, so
+ * it holds no usable credentials. A user deleted or renamed after login keeps their token until it
+ * expires, as they would without the cache.
+ */
+@Component
+public class TokenAuthenticator {
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final boolean cacheEnabled;
+    private final Cache<String, CachedToken> verified;
+
+    private final Counter cached;
+    private final Counter verifiedNow;
+    private final Counter rejected;
+
+    /**
+     * @param cacheEnabled Whether verified tokens are remembered.
+     * @param maxEntries   How many verified tokens are remembered; the least recently used go first.
+     */
+    public TokenAuthenticator(JwtUtil jwtUtil, UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${whatsdaword.auth.cache.enabled:true}") boolean cacheEnabled,
+                              @Value("${whatsdaword.auth.cache.max-entries:100000}") long maxEntries) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.cacheEnabled = cacheEnabled;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        return Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.cached = outcome(meterRegistry, "cached");
+        this.verifiedNow = outcome(meterRegistry, "verified");
+        this.rejected = outcome(meterRegistry, "rejected");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("whatsdaword.auth.tokens")
+                .description("Bearer tokens checked, by whether the verified-token cache answered")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param token The bearer token sent by the client.
+     * @return The user the token was issued to.
+     * @throws ResponseStatusException 401 if the token is invalid, expired or its user does not exist.
+     */
+    public AuthenticatedUser authenticate(String token) {
+        if (!cacheEnabled) {
+            return verify(token).user();
+        }
+        String key = hash(token);
+        CachedToken hit = verified.getIfPresent(key);
+        // Caffeine expires entries lazily, so check the expiry here too.
+        if (hit != null && hit.expiresAtMillis() > System.currentTimeMillis()) {
+            cached.increment();
+            return hit.user();
+        }
+        CachedToken checked = verify(token);
+        verified.put(key, checked);
+        return checked.user();
+    }
+
+    private CachedToken verify(String token) {
+        JwtUtil.VerifiedToken claims;
+        try {
+            claims = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token.");
+        }
+        Long userId = claims.userId();
+        if (userId == null) {
+            // Tokens issued before ids were embedded; the natural id cache usually answers this.
+            userId = userRepository.findByUsername(claims.username()).map(User::getId).orElse(null);
+            if (userId == null) {
+                rejected.increment();
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token.");
+            }
+        }
+        verifiedNow.increment();
+        return new CachedToken(new AuthenticatedUser(userId, claims.username()), claims.expiresAt().toEpochMilli());
+    }
+
+    /**
+     * Size of the verified-token cache, for monitoring.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cacheEnabled", cacheEnabled);
+        result.put("cachedTokens", verified.estimatedSize());
+        return result;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            // One char per byte: a compact Latin-1 string, cheaper than hex or Base64.
+            return new String(digest, StandardCharsets.ISO_8859_1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
+}
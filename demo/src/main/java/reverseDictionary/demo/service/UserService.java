@@ -1,10 +1,16 @@
 package reverseDictionary.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reverseDictionary.demo.model.CursorPage;
 import reverseDictionary.demo.model.User;
 import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.util.CursorCodec;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +21,13 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final int maxPageSize;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository,
+                       @Value("${whatsdaword.pagination.max-page-size:100}") int maxPageSize) {
         this.userRepository = userRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -35,12 +44,21 @@ public class UserService {
     }
 
     /**
-     * Retrieve all users.
+     * Retrieve one page of users, ordered by id.
      *
-     * @return List of all users.
+     * @param cursor   Continuation token from the previous page, or null for the first page.
+     * @param pageSize Requested page size; capped at the configured maximum.
+     * @return The page of users and the token for the next page.
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getUsers(String cursor, int pageSize) {
+        int size = Math.min(pageSize, maxPageSize);
+        // Fetch one extra row to learn whether another page follows.
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(cursor), Limit.of(size + 1));
+        if (users.size() <= size) {
+            return new CursorPage<>(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        return new CursorPage<>(List.copyOf(page), CursorCodec.encode(page.get(size - 1).getId()));
     }
 
     /**
@@ -53,6 +71,23 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Check a user's credentials.
+     *
+     * @param username The username.
+     * @param password The password as typed.
+     * @return The user, if the username exists and the password matches.
+     */
+    public Optional<User> authenticate(String username, String password) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        // Constant-time comparison, so response times do not reveal how much of a password matched.
+        return userRepository.findByUsername(username)
+                .filter(user -> MessageDigest.isEqual(user.getPassword().getBytes(StandardCharsets.UTF_8),
+                        password.getBytes(StandardCharsets.UTF_8)));
+    }
+
     /**
      * Update user details.
      *
@@ -0,0 +1,50 @@
+package reverseDictionary.demo.service;
+
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A reverse-dictionary backend: given a definition, find words that match it.
+ * The active implementation is chosen with the {@code whatsdaword.search.engine} property.
+ */
+public interface WordSearchEngine {
+
+    /**
+     * Search for words matching a definition.
+     *
+     * @param query The definition and the window of ranked results wanted.
+     * @return The matching words in the window, best first.
+     */
+    List<WordMatch> search(SearchQuery query);
+
+    /**
+     * Search without blocking the calling thread. Cancelling the returned future abandons the
+     * search, and engines that call out to a remote service abort that call.
+     * <p>
+     * The default runs {@link #search(SearchQuery)} on the caller's thread, which suits engines
+     * that answer from memory.
+     *
+     * @param query The definition and the window of ranked results wanted.
+     * @return The matching words in the window, best first.
+     */
+    default CompletableFuture<List<WordMatch>> searchAsync(SearchQuery query) {
+        try {
+            return CompletableFuture.completedFuture(search(query));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Engine-specific runtime counters, reported alongside the search statistics.
+     *
+     * @return Statistics for this engine; empty by default.
+     */
+    default Map<String, Object> stats() {
+        return Map.of();
+    }
+}
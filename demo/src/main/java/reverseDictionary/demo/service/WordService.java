@@ -1,22 +1,37 @@
 package reverseDictionary.demo.service;
 
-// Importing necessary dependencies for handling JSON, REST APIs, and Spring functionalities
-import com.fasterxml.jackson.databind.JsonNode;
+// Importing necessary dependencies for Spring functionalities
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.OffsetPage;
+import reverseDictionary.demo.model.SearchQuery;
 import reverseDictionary.demo.model.StudySet;
 import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.model.WordSummary;
 import reverseDictionary.demo.repository.StudySetRepository;
 import reverseDictionary.demo.repository.WordRepository;
+import reverseDictionary.demo.util.SingleFlight;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for managing words and their association with study sets.
  * This class contains business logic for handling words and their relationship with study sets,
- * as well as for searching words using the Datamuse API.
+ * as well as for searching words by definition.
  */
 @Service // Marks this class as a service layer in the Spring application.
 public class WordService {
@@ -27,7 +42,15 @@ public class WordService {
 
     private final WordRepository wordRepository; // Repository for performing database operations on Word entities.
     private final StudySetRepository studySetRepository; // Repository for performing database operations on StudySet entities.
-    private final RestTemplate restTemplate; // Used to make HTTP requests to external APIs.
+    private final WordSearchEngine searchEngine; // Backend used to look words up by definition.
+    private final SearchResultCache searchResultCache; // Cache of recent search results.
+    private final SingleFlight<String, List<WordMatch>> searchFlights; // Coalesces identical concurrent searches.
+    private final MeterRegistry meterRegistry; // Receives search latency timers.
+    private final SuggestionService suggestionService; // Learns the words users save, for typeahead.
+    private final int maxPageSize; // Upper bound on the size of a page of words.
+    private final int maxBulkSize; // Upper bound on the number of words in one bulk add.
+
+    private static final Set<String> WORD_SORT_PROPERTIES = Set.of("id", "word", "definition");
 
     /**
      * Constructor for dependency injection.
@@ -35,13 +58,30 @@ public class WordService {
      *
      * @param wordRepository Repository for Word entities.
      * @param studySetRepository Repository for StudySet entities.
-     * @param restTemplate RestTemplate for making external API calls.
+     * @param searchEngine The configured reverse-dictionary engine.
+     * @param searchResultCache Cache of search results keyed by normalized definition.
+     * @param meterRegistry Registry for the search latency timer.
+     * @param suggestionService Typeahead suggestions, told about every saved word.
+     * @param followerTimeout How long a coalesced search waits for the identical search in progress.
+     * @param maxPageSize Upper bound on the size of a page of words.
+     * @param maxBulkSize Upper bound on the number of words in one bulk add.
      */
     @Autowired
-    public WordService(WordRepository wordRepository, StudySetRepository studySetRepository, RestTemplate restTemplate) {
+    public WordService(WordRepository wordRepository, StudySetRepository studySetRepository,
+                       WordSearchEngine searchEngine, SearchResultCache searchResultCache, MeterRegistry meterRegistry,
+                       SuggestionService suggestionService,
+                       @Value("${whatsdaword.search.coalescing.follower-timeout:5s}") Duration followerTimeout,
+                       @Value("${whatsdaword.pagination.max-page-size:100}") int maxPageSize,
+                       @Value("${whatsdaword.words.bulk.max-size:1000}") int maxBulkSize) {
         this.wordRepository = wordRepository;
         this.studySetRepository = studySetRepository;
-        this.restTemplate = restTemplate;
+        this.searchEngine = searchEngine;
+        this.searchResultCache = searchResultCache;
+        this.searchFlights = new SingleFlight<>(followerTimeout);
+        this.meterRegistry = meterRegistry;
+        this.suggestionService = suggestionService;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
     }
 
     // ====================
@@ -49,44 +89,83 @@ public class WordService {
     // ====================
 
     /**
-     * Search for words matching a specific definition using the Datamuse API.
+     * Search for words matching a specific definition.
+     * The lookup is delegated to the configured {@link WordSearchEngine}
+     * (the Datamuse API by default, or the bundled local index).
+     * Results are cached by normalized definition and window, so "Very happy!" and "very happy" share an entry.
+     * On a cache miss, concurrent identical searches share a single engine call and all receive
+     * its result or its error.
+     * Every search is timed as {@code whatsdaword.search}, cache hits included; the engine times
+     * its own upstream calls.
      *
-     * @param definition The definition or meaning to search for.
-     * @return A list of words along with their definitions, formatted as a map.
+     * @param query The definition to search for and the window of ranked results wanted.
+     * @return The matching words in the window, with score, parts of speech and definitions.
      */
-    public List<Map<String, String>> searchWords(String definition) {
-        // API endpoint for the Datamuse API, with placeholders for query parameters.
-        String DATAMUSE_API_URL = "https://api.datamuse.com/words?ml={definition}&md=d";
-
-        // Makes a GET request to the Datamuse API and retrieves the response as a JsonNode.
-        ResponseEntity<JsonNode> response = restTemplate.getForEntity(DATAMUSE_API_URL, JsonNode.class, definition);
-
-        // Throws an exception if the response body is null or empty, indicating no results.
-        if (response.getBody() == null || response.getBody().isEmpty()) {
-            throw new RuntimeException("No words found for the given definition.");
+    public List<WordMatch> searchWords(SearchQuery query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            String key = query.key();
+            return searchResultCache.get(key, () -> searchCoalesced(key, query));
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            sample.stop(searchTimer("sync", failure));
         }
+    }
 
-        // List to store the formatted words and their definitions.
-        List<Map<String, String>> words = new ArrayList<>();
-        int idCounter = 1; // Counter to assign unique IDs to each word in the list.
-
-        // Loops through each JSON node (representing a word) in the response body.
-        for (JsonNode node : response.getBody()) {
-            // Extracts the word text from the JSON node.
-            String word = node.get("word").asText();
+    /**
+     * Non-blocking form of {@link #searchWords(SearchQuery)}, with the same caching and coalescing.
+     * Cancelling the returned future abandons the search; the upstream call is aborted once no
+     * other caller is waiting for the same query.
+     *
+     * @param query The definition to search for and the window of ranked results wanted.
+     * @return The matching words in the window. A follower that waited too long for an identical
+     *         search fails with {@link TimeoutException}.
+     */
+    public CompletableFuture<List<WordMatch>> searchWordsAsync(SearchQuery query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String key = query.key();
+        CompletableFuture<List<WordMatch>> result =
+                searchResultCache.getAsync(key, () -> searchFlights.executeAsync(key, () -> searchEngine.searchAsync(query)));
+        result.whenComplete((words, error) -> sample.stop(searchTimer("async", error)));
+        return result;
+    }
 
-            // Extracts the first definition if available, otherwise sets a default message.
-            String definitionText = node.has("defs") ? node.get("defs").get(0).asText() : "No definition available";
+    // Tagged by outcome and exception type only; the definition never becomes a tag value.
+    private Timer searchTimer(String mode, Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return Timer.builder("whatsdaword.search")
+                .description("Reverse-dictionary searches, including cache hits")
+                .tag("mode", mode)
+                .tag("outcome", failure == null ? "success" : "error")
+                .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
 
-            // Adds the word, its ID, and its definition as a map to the list.
-            words.add(Map.of(
-                    "id", String.valueOf(idCounter++), // Unique ID for the word.
-                    "word", word, // The word itself.
-                    "definition", definitionText // The associated definition.
-            ));
+    private List<WordMatch> searchCoalesced(String key, SearchQuery query) {
+        try {
+            return searchFlights.execute(key, () -> searchEngine.search(query));
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Timed out waiting for an identical search already in progress.");
         }
+    }
 
-        return words; // Returns the list of words with their definitions.
+    /**
+     * Runtime counters for the search path.
+     *
+     * @return Statistics keyed by component.
+     */
+    public Map<String, Object> getSearchStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cache", searchResultCache.stats());
+        stats.put("coalescing", searchFlights.stats());
+        stats.put("engine", searchEngine.stats());
+        return stats;
     }
 
     // ============================
@@ -100,36 +179,103 @@ public class WordService {
      * @param studySetId The ID of the study set to which the word should be added.
      * @return The word object that was added to the study set.
      */
+    @Transactional
     public Word addWordToStudySet(Word word, Long studySetId) {
-        // Retrieves the study set by ID. If not found, throws a RuntimeException.
-        StudySet studySet = studySetRepository.findById(studySetId)
+        // Retrieves and locks the study set. If not found, throws a RuntimeException.
+        StudySet studySet = studySetRepository.lockAllById(List.of(studySetId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Study set not found."));
 
-        // Associates the word with the retrieved study set.
-        word.setStudySet(studySet);
+        // Associates the word with the retrieved study set, which bumps the set's version.
+        studySet.addWord(word);
 
         // Saves the word to the database and returns the saved object.
         Word savedWord = wordRepository.save(word);
+        suggestionService.recordSavedWords(studySet.getUser().getId(), List.of(savedWord.getWord()));
 
         return savedWord; // Returns the newly added word.
     }
 
+    // ============================
+    // Method: addWordsToStudySet
+    // ============================
+
+    /**
+     * Adds many words to a specific study set in one transaction.
+     * The study set is checked once, and the inserts are sent as JDBC batches
+     * ({@code hibernate.jdbc.batch_size}) rather than one statement per word.
+     *
+     * @param words The word details to add to the study set.
+     * @param studySetId The ID of the study set to which the words should be added.
+     * @return The words that were added, with their assigned IDs.
+     */
+    @Transactional
+    public List<Word> addWordsToStudySet(List<Word> words, Long studySetId) {
+        if (words.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one word is required.");
+        }
+        if (words.size() > maxBulkSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBulkSize + " words can be added at once.");
+        }
+        for (Word word : words) {
+            if (word.getWord() == null || word.getWord().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every word must have a value.");
+            }
+        }
+        StudySet studySet = studySetRepository.lockAllById(List.of(studySetId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Study set not found."));
+
+        // The new words are queued on the set without loading its existing ones, and the set's
+        // version is bumped once for the whole batch.
+        for (Word word : words) {
+            word.setId(null);
+            studySet.addWord(word);
+        }
+        List<Word> saved = wordRepository.saveAll(words);
+        suggestionService.recordSavedWords(studySet.getUser().getId(), saved.stream().map(Word::getWord).toList());
+        return saved;
+    }
+
     // ============================
     // Method: getWordsInStudySet
     // ============================
 
     /**
-     * Retrieves all words associated with a specific study set.
+     * Retrieves one page of the words in a specific study set, without loading the study set
+     * entity or its word collection.
      *
      * @param studySetId The ID of the study set.
-     * @return A list of words that belong to the specified study set.
+     * @param page       Zero-based page number.
+     * @param size       Requested page size; capped at the configured maximum.
+     * @param sort       Sort property ("id", "word" or "definition"), optionally followed by ",asc" or ",desc".
+     * @return A page of words that belong to the specified study set.
      */
-    public List<Word> getWordsInStudySet(Long studySetId) {
-        // Retrieves the study set by ID. If not found, throws a RuntimeException.
-        StudySet studySet = studySetRepository.findById(studySetId)
-                .orElseThrow(() -> new RuntimeException("Study set not found."));
+    public OffsetPage<WordSummary> getWordsInStudySet(Long studySetId, int page, int size, String sort) {
+        int pageSize = Math.min(size, maxPageSize);
+        Slice<WordSummary> words = wordRepository.findByStudySetId(studySetId, PageRequest.of(page, pageSize, parseSort(sort)));
 
-        // Returns a list of words associated with the study set.
-        return new ArrayList<>(studySet.getWords());
+        // An empty first page may mean the set does not exist; only then is the set itself checked.
+        if (page == 0 && !words.hasContent() && !studySetRepository.existsById(studySetId)) {
+            throw new RuntimeException("Study set not found.");
+        }
+        return new OffsetPage<>(words.getContent(), page, pageSize, words.hasNext());
+    }
+
+    /**
+     * Builds the word sort, always ending with id so that rows with equal keys keep a stable order across pages.
+     */
+    private static Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!WORD_SORT_PROPERTIES.contains(property)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort words by '" + property + "'.");
+        }
+        Sort.Direction direction = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(Sort.Direction.ASC, "id"));
     }
 }
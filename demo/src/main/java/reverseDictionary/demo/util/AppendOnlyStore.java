@@ -0,0 +1,296 @@
+package reverseDictionary.demo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent key-value log in one memory-mapped file of fixed capacity: values are appended and
+ * never rewritten in place, and an in-memory map points each key at its latest record.
+ * <p>
+ * Every record carries a write time, an expiry time and a CRC, and its length is written last, so a
+ * process that dies mid-write leaves a record that is skipped on the next open. Reopening scans the
+ * file once to rebuild the key map; expired records are dropped then and on every read.
+ * <p>
+ * When a record does not fit, the file is compacted: the live records are copied, oldest dropped
+ * first until at most half the capacity is used, into a new file that atomically replaces the old
+ * one. Reads never block. Writes and compaction are serialized by a {@link ReentrantLock} rather
+ * than {@code synchronized}, because they do file I/O and a virtual thread blocked inside a monitor
+ * pins its carrier on Java 21.
+ * <pre>
+ * file:   int magic, int version, long reserved, records..., zeros
+ * record: int length, int crc, long writtenAt, long expiresAt, int keyLength, byte[] key, byte[] value
+ * </pre>
+ * The CRC covers everything after it. Values are little-endian; keys are UTF-8.
+ */
+public final class AppendOnlyStore implements Closeable {
+
+    private static final int MAGIC = 0x57444C47; // "WDLG"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 16;
+    private static final int RECORD_HEADER = 28;
+
+    /**
+     * A stored value with its write and expiry times (epoch milliseconds).
+     */
+    public record Entry(byte[] value, long writtenAt, long expiresAt) {
+    }
+
+    private final Path file;
+    private final int capacity;
+    // Guarded by "lock": appends, compaction and flushing.
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Segment segment;
+    private volatile int compactions;
+
+    private AppendOnlyStore(Path file, int capacity, Segment segment) {
+        this.file = file;
+        this.capacity = capacity;
+        this.segment = segment;
+    }
+
+    /**
+     * Opens the store at {@code file}, creating it if needed. An unreadable file is replaced by an
+     * empty one.
+     *
+     * @param capacity The file size; records are compacted to stay within it.
+     * @param now      The current time, for dropping expired records.
+     */
+    public static AppendOnlyStore open(Path file, int capacity, long now) throws IOException {
+        if (capacity < FILE_HEADER + RECORD_HEADER) {
+            throw new IllegalArgumentException("capacity is too small");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        if (Files.exists(file) && Files.size(file) == capacity) {
+            Segment recovered = recover(map(file, capacity), now);
+            if (recovered != null) {
+                return new AppendOnlyStore(file, capacity, recovered);
+            }
+        }
+        Path fresh = createFile(parent, capacity);
+        Files.move(fresh, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new AppendOnlyStore(file, capacity, new Segment(map(file, capacity), FILE_HEADER));
+    }
+
+    /**
+     * @param now The current time.
+     * @return The latest unexpired value for {@code key}, or null.
+     */
+    public Entry get(String key, long now) {
+        Segment current = segment;
+        Integer position = current.index.get(key);
+        if (position == null) {
+            return null;
+        }
+        ByteBuffer buffer = current.buffer;
+        int length = buffer.getInt(position);
+        long expiresAt = buffer.getLong(position + 16);
+        if (expiresAt <= now) {
+            return null;
+        }
+        int keyLength = buffer.getInt(position + 24);
+        byte[] value = new byte[length - RECORD_HEADER - keyLength];
+        buffer.get(position + RECORD_HEADER + keyLength, value);
+        return new Entry(value, buffer.getLong(position + 8), expiresAt);
+    }
+
+    /**
+     * Appends a value for {@code key}, compacting first if it does not fit.
+     *
+     * @return False if the record is larger than a quarter of the capacity, which is not stored.
+     */
+    public boolean put(String key, byte[] value, long writtenAt, long expiresAt) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_HEADER + keyBytes.length + value.length;
+        if (length > capacity / 4) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (segment.end + length > capacity) {
+                compact(writtenAt, length);
+            }
+            Segment current = segment;
+            int position = current.end;
+            ByteBuffer buffer = current.buffer;
+            buffer.putLong(position + 8, writtenAt);
+            buffer.putLong(position + 16, expiresAt);
+            buffer.putInt(position + 24, keyBytes.length);
+            buffer.put(position + RECORD_HEADER, keyBytes);
+            buffer.put(position + RECORD_HEADER + keyBytes.length, value);
+            buffer.putInt(position + 4, crc(buffer, position, length));
+            buffer.putInt(position, length); // Last, so a torn record reads as the end of the log.
+            current.end = position + length;
+
+            Integer previous = current.index.put(key, position);
+            current.liveBytes += length - (previous == null ? 0 : buffer.getInt(previous));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the live records into a new file, dropping the oldest until at most half the capacity
+     * (less {@code reserve}) is used. Called with the lock held.
+     */
+    private void compact(long now, int reserve) throws IOException {
+        Segment old = segment;
+        List<Map.Entry<String, Integer>> live = new ArrayList<>();
+        long liveBytes = 0;
+        for (Map.Entry<String, Integer> entry : old.index.entrySet()) {
+            if (old.buffer.getLong(entry.getValue() + 16) > now) {
+                live.add(entry);
+                liveBytes += old.buffer.getInt(entry.getValue());
+            }
+        }
+        live.sort(Map.Entry.comparingByValue()); // write order
+        long budget = capacity / 2 - FILE_HEADER - reserve;
+        int skip = 0;
+        while (skip < live.size() && liveBytes > budget) {
+            liveBytes -= old.buffer.getInt(live.get(skip++).getValue());
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Path part = createFile(parent, capacity);
+        MappedByteBuffer buffer = map(part, capacity);
+        Segment compacted = new Segment(buffer, FILE_HEADER);
+        for (Map.Entry<String, Integer> entry : live.subList(skip, live.size())) {
+            int length = old.buffer.getInt(entry.getValue());
+            buffer.put(compacted.end, old.buffer, entry.getValue(), length);
+            compacted.index.put(entry.getKey(), compacted.end);
+            compacted.end += length;
+            compacted.liveBytes += length;
+        }
+        buffer.force();
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // Readers holding the old segment keep reading the old mapping, which outlives the rename.
+        segment = compacted;
+        compactions++;
+    }
+
+    /**
+     * @return The number of keys with a record, expired ones included until the next compaction.
+     */
+    public int size() {
+        return segment.index.size();
+    }
+
+    /**
+     * @return Bytes written to the current file, superseded records included.
+     */
+    public long usedBytes() {
+        return segment.end;
+    }
+
+    /**
+     * @return Bytes held by the latest record of each key.
+     */
+    public long liveBytes() {
+        return segment.liveBytes;
+    }
+
+    /**
+     * @return How many times the file has been compacted since it was opened.
+     */
+    public int compactions() {
+        return compactions;
+    }
+
+    /**
+     * Flushes written records to the file.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            segment.buffer.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Segment recover(MappedByteBuffer buffer, long now) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        Segment recovered = new Segment(buffer, FILE_HEADER);
+        int position = FILE_HEADER;
+        while (position + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER || position + length > buffer.capacity()
+                    || buffer.getInt(position + 4) != crc(buffer, position, length)) {
+                break;
+            }
+            int keyLength = buffer.getInt(position + 24);
+            if (keyLength < 0 || RECORD_HEADER + keyLength > length) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.get(position + RECORD_HEADER, key);
+            if (buffer.getLong(position + 16) > now) {
+                Integer previous = recovered.index.put(new String(key, StandardCharsets.UTF_8), position);
+                recovered.liveBytes += length - (previous == null ? 0 : buffer.getInt(previous));
+            }
+            position += length;
+        }
+        recovered.end = position;
+        return recovered;
+    }
+
+    private static int crc(ByteBuffer buffer, int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + 8, length - 8));
+        return (int) crc.getValue();
+    }
+
+    private static Path createFile(Path directory, int capacity) throws IOException {
+        Path part = Files.createTempFile(directory, "store", ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(part.toFile(), "rw")) {
+            raf.setLength(capacity); // sparse: disk is only used as records are written
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+            raf.getChannel().write(header, 0);
+        }
+        return part;
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /**
+     * One mapped file and the position of each key's latest record in it. {@code end} and
+     * {@code liveBytes} are only written under the store's lock.
+     */
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final Map<String, Integer> index = new ConcurrentHashMap<>();
+        volatile int end;
+        volatile long liveBytes;
+
+        Segment(MappedByteBuffer buffer, int end) {
+            this.buffer = buffer;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package reverseDictionary.demo.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker.
+ * <p>
+ * While CLOSED, the outcomes of the last {@code windowSize} calls are kept in a ring. Once at least
+ * {@code minimumCalls} have been recorded and the failure rate reaches the threshold, the breaker
+ * OPENS and rejects calls for {@code openDuration}. It then goes HALF_OPEN and lets a single trial
+ * call through: success closes it again, failure re-opens it.
+ * <p>
+ * Callers must pair every granted {@link #tryAcquire()} with exactly one of
+ * {@link #recordSuccess()}, {@link #recordFailure()} or {@link #release()}.
+ * <p>
+ * State is guarded by a {@link ReentrantLock} rather than {@code synchronized}: on Java 21 a virtual
+ * thread that contends for a monitor pins its carrier, whereas waiting on the lock unmounts it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final long openDurationNanos;
+
+    // Guarded by "lock". The critical sections are a few field updates and never block.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    /**
+     * @param windowSize           Number of most recent calls considered.
+     * @param minimumCalls         Calls required in the window before the breaker may open.
+     * @param failureRateThreshold Failure percentage (0-100) at which the breaker opens.
+     * @param openDuration         How long to reject calls before allowing a trial.
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, float failureRateThreshold, Duration openDuration) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * @return True if the call may proceed; false if the breaker is open.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openDurationNanos) {
+                        rejected.increment();
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    // fall through: the caller becomes the trial call
+                default:
+                    if (trialInFlight) {
+                        rejected.increment();
+                        return false;
+                    }
+                    trialInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+                state = State.CLOSED;
+                resetWindow();
+                return;
+            }
+            record(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+                open();
+                return;
+            }
+            record(true);
+            if (recorded >= minimumCalls && failures * 100f / recorded >= failureRateThreshold) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit whose outcome says nothing about the upstream's health.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Seconds until a trial call will be allowed, or 0 if not open.
+     */
+    public long secondsUntilRetry() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) {
+                return 0;
+            }
+            long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+            return Math.max(1, Duration.ofNanos(remaining).toSeconds());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("state", state.name());
+            result.put("windowCalls", recorded);
+            result.put("windowFailures", failures);
+            result.put("timesOpened", opened.sum());
+            result.put("rejected", rejected.sum());
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened.increment();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
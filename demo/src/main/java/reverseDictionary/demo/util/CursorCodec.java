@@ -0,0 +1,48 @@
+package reverseDictionary.demo.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque continuation tokens.
+ * A token carries the id of the last row on the previous page; clients must treat it as opaque.
+ */
+public final class CursorCodec {
+
+    private static final byte VERSION = 1;
+
+    private CursorCodec() {
+    }
+
+    /**
+     * @param lastId The id of the last row on the current page.
+     * @return A URL-safe token for the next page.
+     */
+    public static String encode(long lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES).put(VERSION).putLong(lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor A token from {@link #encode(long)}, or null/blank for the first page.
+     * @return The id after which the page starts (0 for the first page).
+     * @throws ResponseStatusException 400 if the token is malformed.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            if (buffer.remaining() != 1 + Long.BYTES || buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Unknown cursor format");
+            }
+            return buffer.getLong();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pagination cursor.");
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package reverseDictionary.demo.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Approximate nearest-neighbour index over {@link WordVectors}: a hierarchical navigable small world
+ * graph (Malkov and Yashunin, 2016), searched by cosine similarity.
+ * <p>
+ * Every word is a node on layer 0 and, with geometrically falling probability, on the layers above.
+ * A search descends greedily through the sparse upper layers and then runs a best-first search of
+ * width {@code ef} on layer 0; a wider search finds more of the true neighbours and takes longer.
+ * Neighbours are chosen with the paper's heuristic, which favours neighbours in different directions.
+ * <p>
+ * The graph is built on the heap, written to a file with {@link #write} and mapped back with
+ * {@link #open}; a search only reads the mapped adjacency lists. The file holds, little-endian:
+ * <pre>
+ * int magic, int version, int count, int m, int efConstruction, int entryPoint, int maxLevel,
+ * int reserved, long vectorsStamp, long reserved
+ * int[count]              the top layer of each node
+ * int[count * (2m + 1)]   layer 0: per node, the neighbour count, then up to 2m neighbours
+ * int[count]              offset of each node's upper layers in the next array, -1 if none
+ * int[]                   layers 1 and up: per node and layer, the count, then up to m neighbours
+ * </pre>
+ */
+public final class HnswIndex {
+
+    private static final int MAGIC = 0x5744484E; // "WDHN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int MAX_LEVEL = 16;
+
+    private final WordVectors vectors;
+    private final int count;
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private final long vectorsStamp;
+    private final IntBuffer levels;
+    private final IntBuffer level0;
+    private final IntBuffer upperOffsets;
+    private final IntBuffer upper;
+    private final long mappedBytes;
+    private int entryPoint;
+    private int maxLevel;
+
+    private HnswIndex(WordVectors vectors, int m, int efConstruction, long vectorsStamp, int entryPoint, int maxLevel,
+                      IntBuffer levels, IntBuffer level0, IntBuffer upperOffsets, IntBuffer upper, long mappedBytes) {
+        this.vectors = vectors;
+        this.count = levels.capacity();
+        this.m = m;
+        this.m0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.vectorsStamp = vectorsStamp;
+        this.entryPoint = entryPoint;
+        this.maxLevel = maxLevel;
+        this.levels = levels;
+        this.level0 = level0;
+        this.upperOffsets = upperOffsets;
+        this.upper = upper;
+        this.mappedBytes = mappedBytes;
+    }
+
+    /**
+     * Builds the graph on the heap, inserting words in id order.
+     *
+     * @param m              Neighbours per node on the upper layers; layer 0 keeps twice as many.
+     * @param efConstruction Search width used to find each new node's neighbours.
+     * @param seed           Seeds the choice of layers, so builds are repeatable.
+     */
+    public static HnswIndex build(WordVectors vectors, int m, int efConstruction, long seed) {
+        if (m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("m must be at least 2 and efConstruction positive");
+        }
+        int count = vectors.size();
+        Random random = new Random(seed);
+        double levelScale = 1 / Math.log(m);
+        int[] levels = new int[count];
+        int[] upperOffsets = new int[count];
+        int upperSize = 0;
+        for (int node = 0; node < count; node++) {
+            levels[node] = Math.min(MAX_LEVEL, (int) (-Math.log(1 - random.nextDouble()) * levelScale));
+            upperOffsets[node] = levels[node] == 0 ? -1 : upperSize;
+            upperSize += levels[node] * (m + 1);
+        }
+        HnswIndex index = new HnswIndex(vectors, m, efConstruction, vectors.stamp(), -1, -1,
+                IntBuffer.wrap(levels), IntBuffer.wrap(new int[count * (2 * m + 1)]),
+                IntBuffer.wrap(upperOffsets), IntBuffer.wrap(new int[upperSize]), 0);
+
+        // Building is single threaded, so one visited array serves every search, reset by epoch.
+        int[] marks = new int[count];
+        int[] epoch = {0};
+        for (int node = 0; node < count; node++) {
+            index.insert(node, () -> {
+                epoch[0]++;
+                return id -> {
+                    if (marks[id] == epoch[0]) {
+                        return false;
+                    }
+                    marks[id] = epoch[0];
+                    return true;
+                };
+            });
+        }
+        return index;
+    }
+
+    /**
+     * Maps a graph written by {@link #write} over the vectors it was built from.
+     */
+    public static HnswIndex open(Path file, WordVectors vectors) throws IOException {
+        ByteBuffer mapped = WordVectors.map(file);
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an HNSW index file, or one written by another version");
+        }
+        int count = mapped.getInt(8);
+        int m = mapped.getInt(12);
+        if (count != vectors.size()) {
+            throw new IllegalStateException("Index has " + count + " nodes but there are " + vectors.size() + " vectors");
+        }
+        int position = HEADER_BYTES;
+        IntBuffer levels = WordVectors.slice(mapped, position, count * 4).asIntBuffer();
+        position += count * 4;
+        int level0Bytes = count * (2 * m + 1) * 4;
+        IntBuffer level0 = WordVectors.slice(mapped, position, level0Bytes).asIntBuffer();
+        position += level0Bytes;
+        IntBuffer upperOffsets = WordVectors.slice(mapped, position, count * 4).asIntBuffer();
+        position += count * 4;
+        IntBuffer upper = WordVectors.slice(mapped, position, mapped.capacity() - position).asIntBuffer();
+        return new HnswIndex(vectors, m, mapped.getInt(16), mapped.getLong(32), mapped.getInt(20), mapped.getInt(24),
+                levels, level0, upperOffsets, upper, mapped.capacity());
+    }
+
+    /**
+     * Writes a built graph, replacing {@code target} atomically.
+     */
+    public void write(Path target) throws IOException {
+        if (!levels.hasArray()) {
+            throw new IllegalStateException("Only a freshly built index can be written");
+        }
+        Path part = Files.createTempFile(target.toAbsolutePath().getParent(), "hnsw", ".tmp");
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(m).putInt(efConstruction)
+                    .putInt(entryPoint).putInt(maxLevel).putInt(0).putLong(vectorsStamp).putLong(0).flip();
+            writeFully(channel, header);
+            for (IntBuffer section : List.of(levels, level0, upperOffsets, upper)) {
+                ByteBuffer bytes = ByteBuffer.allocate(section.capacity() * 4).order(ByteOrder.LITTLE_ENDIAN);
+                bytes.asIntBuffer().put(section.array());
+                writeFully(channel, bytes);
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The approximate nearest neighbours of {@code query}.
+     *
+     * @param query A unit-length vector.
+     * @param k     The most ids to return.
+     * @param ef    Search width on layer 0; raised to {@code k} if smaller.
+     * @return Word ids, most similar first.
+     */
+    public int[] search(float[] query, int k, int ef) {
+        if (count == 0 || k < 1) {
+            return new int[0];
+        }
+        BitSet seen = new BitSet(count);
+        IntPredicate visited = id -> {
+            if (seen.get(id)) {
+                return false;
+            }
+            seen.set(id);
+            return true;
+        };
+        int entry = entryPoint;
+        for (int level = maxLevel; level > 0; level--) {
+            entry = greedy(query, entry, level);
+        }
+        ScoredHeap results = searchLayer(query, entry, Math.max(ef, k), 0, visited);
+        while (results.size() > k) {
+            results.pop();
+        }
+        int[] ids = new int[results.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = results.topId();
+            results.pop();
+        }
+        return ids;
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return Neighbours per node on the upper layers.
+     */
+    public int m() {
+        return m;
+    }
+
+    /**
+     * @return The search width the graph was built with.
+     */
+    public int efConstruction() {
+        return efConstruction;
+    }
+
+    /**
+     * @return The stamp of the vectors the graph was built from.
+     */
+    public long vectorsStamp() {
+        return vectorsStamp;
+    }
+
+    /**
+     * @return The highest layer.
+     */
+    public int maxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * @return The size of the mapped file, or 0 for a graph still on the heap.
+     */
+    public long mappedBytes() {
+        return mappedBytes;
+    }
+
+    // ====================
+    // Search
+    // ====================
+
+    /**
+     * Follows the single most similar neighbour on {@code level} until none is more similar.
+     */
+    private int greedy(float[] query, int entry, int level) {
+        IntBuffer layer = layer(level);
+        float best = vectors.dot(query, entry);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int base = base(entry, level);
+            int neighbours = layer.get(base);
+            for (int i = 1; i <= neighbours; i++) {
+                int candidate = layer.get(base + i);
+                float score = vectors.dot(query, candidate);
+                if (score > best) {
+                    best = score;
+                    entry = candidate;
+                    improved = true;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Best-first search of width {@code ef} on one layer.
+     *
+     * @return The {@code ef} most similar nodes found, least similar on top.
+     */
+    private ScoredHeap searchLayer(float[] query, int entry, int ef, int level, IntPredicate visited) {
+        IntBuffer layer = layer(level);
+        ScoredHeap candidates = new ScoredHeap(ef * 2); // scores negated: most similar on top
+        ScoredHeap results = new ScoredHeap(ef + 1);
+        visited.test(entry);
+        float score = vectors.dot(query, entry);
+        candidates.push(-score, entry);
+        results.push(score, entry);
+        while (!candidates.isEmpty()) {
+            float candidateScore = -candidates.topScore();
+            int candidate = candidates.topId();
+            if (results.size() >= ef && candidateScore < results.topScore()) {
+                break;
+            }
+            candidates.pop();
+            int base = base(candidate, level);
+            int neighbours = layer.get(base);
+            for (int i = 1; i <= neighbours; i++) {
+                int neighbour = layer.get(base + i);
+                if (!visited.test(neighbour)) {
+                    continue;
+                }
+                float neighbourScore = vectors.dot(query, neighbour);
+                if (results.size() < ef || neighbourScore > results.topScore()) {
+                    candidates.push(-neighbourScore, neighbour);
+                    results.push(neighbourScore, neighbour);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private IntBuffer layer(int level) {
+        return level == 0 ? level0 : upper;
+    }
+
+    private int base(int node, int level) {
+        return level == 0 ? node * (m0 + 1) : upperOffsets.get(node) + (level - 1) * (m + 1);
+    }
+
+    // ====================
+    // Construction
+    // ====================
+
+    private void insert(int node, Supplier<IntPredicate> freshVisited) {
+        int level = levels.get(node);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        float[] query = vectors.vector(node);
+        int entry = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            entry = greedy(query, entry, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            ScoredHeap found = searchLayer(query, entry, efConstruction, l, freshVisited.get());
+            int[] ids = new int[found.size()];
+            float[] scores = new float[ids.length];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = found.topId();
+                scores[i] = found.topScore();
+                found.pop();
+            }
+            int[] neighbours = select(ids, scores, l == 0 ? m0 : m);
+            setNeighbours(node, l, neighbours);
+            for (int neighbour : neighbours) {
+                connect(neighbour, node, l);
+            }
+            entry = ids[0];
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Adds {@code node} to the neighbours of {@code target}, re-selecting them if the list is full.
+     */
+    private void connect(int target, int node, int level) {
+        IntBuffer layer = layer(level);
+        int base = base(target, level);
+        int neighbours = layer.get(base);
+        int max = level == 0 ? m0 : m;
+        if (neighbours < max) {
+            layer.put(base + 1 + neighbours, node);
+            layer.put(base, neighbours + 1);
+            return;
+        }
+        int[] candidates = new int[neighbours + 1];
+        float[] similarity = new float[candidates.length];
+        Integer[] order = new Integer[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i < neighbours ? layer.get(base + 1 + i) : node;
+            similarity[i] = vectors.dot(target, candidates[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(similarity[b], similarity[a]));
+        int[] ids = new int[order.length];
+        float[] scores = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = candidates[order[i]];
+            scores[i] = similarity[order[i]];
+        }
+        setNeighbours(target, level, select(ids, scores, max));
+    }
+
+    /**
+     * The neighbour selection heuristic: walking candidates from most similar, keep one only if it
+     * is more similar to the base node than to every neighbour already kept.
+     *
+     * @param ids    Candidates, most similar to the base node first.
+     * @param scores Their similarity to the base node.
+     */
+    private int[] select(int[] ids, float[] scores, int max) {
+        int[] kept = new int[Math.min(max, ids.length)];
+        int size = 0;
+        for (int i = 0; i < ids.length && size < kept.length; i++) {
+            boolean diverse = true;
+            for (int j = 0; j < size; j++) {
+                if (vectors.dot(ids[i], kept[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                kept[size++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(kept, size);
+    }
+
+    private void setNeighbours(int node, int level, int[] neighbours) {
+        IntBuffer layer = layer(level);
+        int base = base(node, level);
+        layer.put(base, neighbours.length);
+        for (int i = 0; i < neighbours.length; i++) {
+            layer.put(base + 1 + i, neighbours[i]);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -1,34 +1,99 @@
 package reverseDictionary.demo.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 
 // Utility class for generating and validating JWT tokens.
 @Component
 public class JwtUtil {
 
-    private final String SECRET_KEY = "secret"; // Secret key for JWT signing.
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+    private static final String USER_ID = "uid"; // Claim carrying the user's id, so requests need no lookup.
+
+    /**
+     * The claims of a token whose signature and expiry have been checked.
+     *
+     * @param userId The user's id, or null for tokens issued without one.
+     */
+    public record VerifiedToken(String username, Long userId, Instant expiresAt) {
+    }
+
+    private final SecretKey signingKey; // Derived once; HMAC keys are not cheap to set up per call.
+    private final JwtParser parser; // Thread-safe, so one parser serves every request.
+    private final Duration tokenTtl;
+
+    /**
+     * @param secret   At least 32 bytes (256 bits) for HS256. If blank, a random key is generated,
+     *                 so tokens stop working when the application restarts.
+     * @param tokenTtl How long issued tokens are valid.
+     */
+    public JwtUtil(@Value("${whatsdaword.auth.secret:}") String secret,
+                   @Value("${whatsdaword.auth.token-ttl:10h}") Duration tokenTtl) {
+        if (secret.isBlank()) {
+            log.warn("whatsdaword.auth.secret is not set; tokens are signed with a random key and will not survive a restart");
+            this.signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        }
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.tokenTtl = tokenTtl;
+    }
 
     // Generate JWT token for a user.
     public String generateToken(String username) {
+        return generateToken(username, null);
+    }
+
+    // Generate JWT token for a user, recording their id so it need not be looked up again.
+    public String generateToken(String username, Long userId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(username) // Set the username in the token.
-                .setIssuedAt(new Date()) // Token issued time.
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // Valid for 10 hours.
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY) // Sign with HS256.
+                .claim(USER_ID, userId) // Omitted when null.
+                .setIssuedAt(new Date(now)) // Token issued time.
+                .setExpiration(new Date(now + tokenTtl.toMillis())) // Valid for the configured ttl.
+                .signWith(signingKey, SignatureAlgorithm.HS256) // Sign with HS256.
                 .compact();
     }
 
+    /**
+     * Checks the token's signature and expiry.
+     *
+     * @throws JwtException If the token is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(USER_ID, Number.class);
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return new VerifiedToken(claims.getSubject(), userId == null ? null : userId.longValue(), expiration.toInstant());
+    }
+
     // Validate the token and extract username.
     public String extractUsername(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return verify(token).username();
     }
-}
 
+    /**
+     * @return How long issued tokens are valid.
+     */
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+}
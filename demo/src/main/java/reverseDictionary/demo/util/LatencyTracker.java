@@ -0,0 +1,55 @@
+package reverseDictionary.demo.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the most recent latency samples in a fixed ring and answers percentile queries over them.
+ * Recording is O(1); a percentile query copies and sorts the ring, which is cheap at the few
+ * hundred samples this is meant for. Guarded by a {@link ReentrantLock} so contending virtual
+ * threads do not pin their carriers.
+ */
+public class LatencyTracker {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    public LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        lock.lock();
+        try {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param percentile A value between 0 and 100.
+     * @return The latency at that percentile in nanoseconds, or -1 if fewer than {@code minimumSamples} exist.
+     */
+    public long percentile(double percentile, int minimumSamples) {
+        long[] copy;
+        lock.lock();
+        try {
+            if (count < minimumSamples || count == 0) {
+                return -1;
+            }
+            copy = Arrays.copyOf(samples, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile / 100.0 * copy.length) - 1;
+        return copy[Math.max(0, Math.min(index, copy.length - 1))];
+    }
+}
@@ -0,0 +1,23 @@
+package reverseDictionary.demo.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own executors, following {@code spring.threads.virtual.enabled}.
+ */
+public final class NamedThreads {
+
+    private NamedThreads() {
+    }
+
+    /**
+     * @param name    Thread name prefix; a sequence number is appended.
+     * @param virtual True for virtual threads, false for daemon platform threads.
+     */
+    public static ThreadFactory factory(String name, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 0).factory();
+        }
+        return Thread.ofPlatform().name(name + "-", 0).daemon(true).factory();
+    }
+}
@@ -0,0 +1,121 @@
+package reverseDictionary.demo.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+
+/**
+ * Token bucket rate limit shared by any number of {@link Bucket}s: each bucket allows {@code burst}
+ * requests at once and refills at {@code requests} per {@code period}.
+ * <p>
+ * A bucket is a single {@code long}, the time at which it will be full again (the "generic cell rate
+ * algorithm" form of a token bucket), updated with one compare-and-set. Checking a bucket takes no
+ * lock and allocates nothing, and a bucket that is full holds no information, so it can be dropped
+ * and recreated later without changing any outcome.
+ */
+public final class RateLimiter {
+
+    private static final VarHandle FULL_AT;
+
+    static {
+        try {
+            FULL_AT = MethodHandles.lookup().findVarHandle(Bucket.class, "fullAt", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long intervalNanos;
+    private final long burst;
+    private final long burstNanos;
+
+    /**
+     * @param requests Requests allowed per {@code period} in the long run.
+     * @param period   The period {@code requests} refers to.
+     * @param burst    Requests allowed at once by a full bucket.
+     */
+    public RateLimiter(long requests, Duration period, long burst) {
+        if (requests <= 0 || burst <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("requests, period and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, period.toNanos() / requests);
+        this.burst = burst;
+        this.burstNanos = burst > Long.MAX_VALUE / 4 / intervalNanos ? Long.MAX_VALUE / 4 : burst * intervalNanos;
+    }
+
+    /**
+     * @param now The current {@link System#nanoTime()}.
+     * @return A new, full bucket.
+     */
+    public Bucket newBucket(long now) {
+        return new Bucket(now);
+    }
+
+    /**
+     * Takes {@code tokens} tokens from {@code bucket} if it has them all.
+     * <p>
+     * A request for more tokens than the burst is granted only from a full bucket, and is charged in
+     * full: the bucket goes into debt and stays empty until the excess has refilled, so a large
+     * request costs as much as the same number of single ones.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return 0 if the request is allowed, otherwise how many nanoseconds until it would be.
+     */
+    public long tryAcquire(Bucket bucket, long tokens, long now) {
+        long cost = cost(tokens);
+        long allowance = Math.max(burstNanos, cost);
+        while (true) {
+            long fullAt = bucket.fullAt;
+            // nanoTime values are only comparable by their difference.
+            long next = (fullAt - now > 0 ? fullAt : now) + cost;
+            long wait = next - now - allowance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (FULL_AT.compareAndSet(bucket, fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back tokens taken by {@link #tryAcquire}, for a request that was then refused elsewhere.
+     */
+    public void release(Bucket bucket, long tokens) {
+        FULL_AT.getAndAdd(bucket, -cost(tokens));
+    }
+
+    private long cost(long tokens) {
+        if (tokens <= 0) {
+            throw new IllegalArgumentException("tokens must be positive");
+        }
+        return tokens > Long.MAX_VALUE / 4 / intervalNanos ? Long.MAX_VALUE / 4 : tokens * intervalNanos;
+    }
+
+    /**
+     * @return Requests allowed at once by a full bucket.
+     */
+    public long burst() {
+        return burst;
+    }
+
+    /**
+     * @param now The current {@link System#nanoTime()}.
+     * @return Whether {@code bucket} has refilled completely, and so is no different from a new one.
+     */
+    public boolean isFull(Bucket bucket, long now) {
+        return bucket.fullAt - now <= 0;
+    }
+
+    /**
+     * The state of one client's bucket.
+     */
+    public static final class Bucket {
+
+        private volatile long fullAt;
+
+        private Bucket(long fullAt) {
+            this.fullAt = fullAt;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package reverseDictionary.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (score, id) pairs in two parallel arrays, for nearest-neighbour searches that
+ * would otherwise box every candidate. Push negated scores for a max-heap.
+ */
+final class ScoredHeap {
+
+    private float[] scores;
+    private int[] ids;
+    private int size;
+
+    ScoredHeap(int capacity) {
+        this.scores = new float[Math.max(capacity, 1)];
+        this.ids = new int[scores.length];
+    }
+
+    void push(float score, int id) {
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int child = size++;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            scores[child] = scores[parent];
+            ids[child] = ids[parent];
+            child = parent;
+        }
+        scores[child] = score;
+        ids[child] = id;
+    }
+
+    void pop() {
+        size--;
+        float score = scores[size];
+        int id = ids[size];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[child + 1] < scores[child]) {
+                child++;
+            }
+            if (scores[child] >= score) {
+                break;
+            }
+            scores[parent] = scores[child];
+            ids[parent] = ids[child];
+            parent = child;
+        }
+        if (size > 0) {
+            scores[parent] = score;
+            ids[parent] = id;
+        }
+    }
+
+    float topScore() {
+        return scores[0];
+    }
+
+    int topId() {
+        return ids[0];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,228 @@
+package reverseDictionary.demo.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller for a key (the leader) runs the supplier on its own thread. Callers that arrive
+ * while it is running (followers) wait for the leader's outcome instead of starting their own call,
+ * and receive the same value or the same exception. Followers give up after {@code followerTimeout};
+ * the leader itself is never cut short here. Nothing is remembered once the call completes.
+ * <p>
+ * {@link #executeAsync} does the same without blocking, and joins the same flights as
+ * {@link #execute}. Every asynchronous caller gets its own future; cancelling it detaches only that
+ * caller, and the underlying call is cancelled once no caller is waiting for it any more.
+ *
+ * @param <K> The key type.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<K, V>> inFlight = new ConcurrentHashMap<>();
+    private final long followerTimeoutNanos;
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder followerTimeouts = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    public SingleFlight(Duration followerTimeout) {
+        this.followerTimeoutNanos = followerTimeout.toNanos();
+    }
+
+    /**
+     * Runs {@code call} for {@code key}, or joins a run already in progress.
+     *
+     * @param key  Identifies equivalent calls.
+     * @param call The work to perform if no identical call is in flight.
+     * @return The shared result.
+     * @throws TimeoutException If this caller was a follower and the leader did not finish in time.
+     */
+    public V execute(K key, Supplier<V> call) throws TimeoutException {
+        Flight<K, V> mine = new Flight<>(key);
+        Flight<K, V> existing = join(mine);
+        if (existing != mine) {
+            return follow(existing);
+        }
+
+        leaders.increment();
+        try {
+            V value = call.get();
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Registers {@code mine} as the flight for its key, or counts the caller as one more waiter of
+     * the flight already in progress. Both happen under the map's lock for the key, the same lock
+     * the last caller to detach holds while it unregisters the flight, so a caller is never added to
+     * a flight that is being abandoned.
+     *
+     * @return {@code mine}, or the flight this caller now follows.
+     */
+    private Flight<K, V> join(Flight<K, V> mine) {
+        return inFlight.compute(mine.key, (key, existing) -> {
+            if (existing == null) {
+                return mine;
+            }
+            existing.waiters.incrementAndGet();
+            return existing;
+        });
+    }
+
+    private V follow(Flight<K, V> leader) throws TimeoutException {
+        coalesced.increment();
+        try {
+            return leader.result.get(followerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            followerTimeouts.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            // Surface the leader's failure as-is so every caller sees the same error.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight call", e);
+        } finally {
+            leave(leader);
+        }
+    }
+
+    /**
+     * Starts {@code call} for {@code key}, or joins a run already in progress, without blocking.
+     * A follower's future fails with {@link TimeoutException} if the leader does not finish in time.
+     *
+     * @param key  Identifies equivalent calls.
+     * @param call Starts the work if no identical call is in flight; cancelling its future must stop the work.
+     * @return This caller's view of the shared result.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<K, V> mine = new Flight<>(key);
+        Flight<K, V> existing = join(mine);
+        if (existing != mine) {
+            coalesced.increment();
+            CompletableFuture<V> view = subscribe(existing);
+            view.orTimeout(followerTimeoutNanos, TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    followerTimeouts.increment();
+                }
+            });
+            return view;
+        }
+
+        leaders.increment();
+        CompletableFuture<V> work;
+        try {
+            work = call.get();
+        } catch (RuntimeException e) {
+            work = CompletableFuture.failedFuture(e);
+        }
+        mine.work = work;
+        work.whenComplete((value, error) -> {
+            inFlight.remove(key, mine);
+            if (error == null) {
+                mine.result.complete(value);
+            } else {
+                mine.result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        return subscribe(mine);
+    }
+
+    /**
+     * A per-caller copy of the flight's result. When it ends before the flight does (cancelled or
+     * timed out) the caller is detached, and the last caller to detach cancels the work.
+     */
+    private CompletableFuture<V> subscribe(Flight<K, V> flight) {
+        CompletableFuture<V> view = flight.result.copy();
+        view.whenComplete((value, error) -> leave(flight));
+        return view;
+    }
+
+    /**
+     * Called once by every follower, and every asynchronous caller, when it stops waiting. If the
+     * flight is still running and this was its last caller, the work is cancelled.
+     */
+    private void leave(Flight<K, V> flight) {
+        if (flight.result.isDone() || !detach(flight)) {
+            return;
+        }
+        CompletableFuture<V> work = flight.work;
+        if (work != null && work.cancel(true)) {
+            abandoned.increment();
+            flight.result.completeExceptionally(new CancellationException("Abandoned by every caller"));
+        }
+    }
+
+    /**
+     * Counts one caller of {@code flight} out and, if it was the last, unregisters the flight so no
+     * new caller can join it.
+     *
+     * @return Whether no caller is waiting for the flight any more.
+     */
+    private boolean detach(Flight<K, V> flight) {
+        boolean[] last = new boolean[1];
+        inFlight.compute(flight.key, (key, current) -> {
+            if (flight.waiters.decrementAndGet() > 0) {
+                return current;
+            }
+            last[0] = true;
+            return current == flight ? null : current;
+        });
+        return last[0];
+    }
+
+    /**
+     * @return Counts of leader executions, coalesced followers, follower timeouts and calls
+     *         cancelled because every caller went away.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", inFlight.size());
+        result.put("executions", leaders.sum());
+        result.put("coalesced", coalesced.sum());
+        result.put("followerTimeouts", followerTimeouts.sum());
+        result.put("abandoned", abandoned.sum());
+        return result;
+    }
+
+    /**
+     * One execution and the callers waiting for it. The leader counts as the first waiter.
+     */
+    private static final class Flight<K, V> {
+        final K key;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger(1);
+        volatile CompletableFuture<V> work; // Set for asynchronous leaders only.
+
+        Flight(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package reverseDictionary.demo.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable symmetric-delete spelling index (the SymSpell approach) over a vocabulary with word
+ * frequencies.
+ * <p>
+ * At build time every word is reduced to all the strings obtained by deleting up to
+ * {@code maxEditDistance} characters from its first {@code prefixLength} characters, and each such
+ * string maps to the words it came from. A lookup generates the same deletes of the misspelled term
+ * and verifies the handful of words they point at with a bounded edit distance, so its cost depends
+ * on the length of the term, never on the size of the vocabulary. Limiting deletes to a prefix keeps
+ * the index small for long words, as in SymSpell.
+ */
+public final class SpellingIndex {
+
+    private final String[] words;
+    private final long[] frequencies;
+    private final Map<String, Integer> ids;
+    private final Map<String, int[]> deletes;
+    private final int maxEditDistance;
+    private final int prefixLength;
+
+    private SpellingIndex(String[] words, long[] frequencies, Map<String, Integer> ids, Map<String, int[]> deletes,
+                          int maxEditDistance, int prefixLength) {
+        this.words = words;
+        this.frequencies = frequencies;
+        this.ids = ids;
+        this.deletes = deletes;
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * @param frequencies     Words and how common they are; the more common of two equally close
+     *                        words wins.
+     * @param maxEditDistance The largest edit distance a lookup may ask for.
+     * @param prefixLength    How many leading characters of each word are indexed; must exceed
+     *                        {@code maxEditDistance}.
+     */
+    public static SpellingIndex build(Map<String, Long> frequencies, int maxEditDistance, int prefixLength) {
+        if (maxEditDistance < 0 || prefixLength <= maxEditDistance) {
+            throw new IllegalArgumentException("prefixLength must exceed maxEditDistance >= 0");
+        }
+        String[] words = new String[frequencies.size()];
+        long[] counts = new long[words.length];
+        Map<String, Integer> ids = new HashMap<>(words.length * 2);
+        Map<String, List<Integer>> pending = new HashMap<>();
+        int id = 0;
+        for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+            String word = entry.getKey();
+            words[id] = word;
+            counts[id] = entry.getValue();
+            ids.put(word, id);
+            for (String delete : deletes(prefix(word, prefixLength), maxEditDistance)) {
+                pending.computeIfAbsent(delete, key -> new ArrayList<>(1)).add(id);
+            }
+            id++;
+        }
+        Map<String, int[]> compact = new HashMap<>(pending.size() * 2);
+        pending.forEach((delete, wordIds) -> compact.put(delete, wordIds.stream().mapToInt(Integer::intValue).toArray()));
+        return new SpellingIndex(words, counts, ids, compact, maxEditDistance, prefixLength);
+    }
+
+    /**
+     * @return True if {@code word} is in the vocabulary.
+     */
+    public boolean contains(String word) {
+        return ids.containsKey(word);
+    }
+
+    /**
+     * The closest vocabulary word to {@code term}: the smallest edit distance (insertions,
+     * deletions, substitutions and adjacent transpositions), then the highest frequency, then
+     * alphabetical order.
+     *
+     * @param term        The possibly misspelled term.
+     * @param maxDistance The largest edit distance accepted; capped at the index's maximum.
+     * @return The best match, {@code term} itself if it is in the vocabulary, or null if no word is
+     *         close enough.
+     */
+    public String bestMatch(String term, int maxDistance) {
+        if (ids.containsKey(term)) {
+            return term;
+        }
+        int limit = Math.min(maxDistance, maxEditDistance);
+        if (limit < 1) {
+            return null;
+        }
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        Set<Integer> checked = new HashSet<>();
+        Set<String> seen = new HashSet<>();
+        List<String> level = List.of(prefix(term, prefixLength));
+        // A word d edits away shares a string with the term that is at most d deletes from it, so
+        // once a match is found no deletes deeper than its distance need looking at.
+        for (int deleted = 0; deleted <= limit && deleted <= bestDistance && !level.isEmpty(); deleted++) {
+            List<String> next = new ArrayList<>();
+            for (String delete : level) {
+                int[] candidates = this.deletes.get(delete);
+                if (candidates != null) {
+                    for (int candidate : candidates) {
+                        String word = words[candidate];
+                        if (Math.abs(word.length() - term.length()) > limit || !checked.add(candidate)) {
+                            continue;
+                        }
+                        int distance = distance(term, word, Math.min(limit, bestDistance));
+                        if (distance < 0) {
+                            continue;
+                        }
+                        if (distance < bestDistance || frequencies[candidate] > frequencies[best]
+                                || frequencies[candidate] == frequencies[best] && word.compareTo(words[best]) < 0) {
+                            best = candidate;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+                if (deleted < limit) {
+                    for (int i = 0; i < delete.length(); i++) {
+                        String shorter = delete.substring(0, i) + delete.substring(i + 1);
+                        if (seen.add(shorter)) {
+                            next.add(shorter);
+                        }
+                    }
+                }
+            }
+            level = next;
+        }
+        return best < 0 ? null : words[best];
+    }
+
+    /**
+     * @return The number of words in the vocabulary.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @return The number of distinct delete strings indexed.
+     */
+    public int deleteCount() {
+        return deletes.size();
+    }
+
+    private static String prefix(String word, int length) {
+        return word.length() <= length ? word : word.substring(0, length);
+    }
+
+    /**
+     * {@code word} and every string obtained by deleting up to {@code distance} characters from it.
+     */
+    private static Set<String> deletes(String word, int distance) {
+        Set<String> result = new HashSet<>();
+        result.add(word);
+        List<String> frontier = List.of(word);
+        for (int round = 0; round < distance; round++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String delete = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(delete)) {
+                        next.add(delete);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance between {@code a} and {@code b}, or -1 once it is known to
+     * exceed {@code limit}.
+     */
+    static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) {
+            return -1;
+        }
+        int[] previousPrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > limit) {
+                return -1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m] <= limit ? previous[m] : -1;
+    }
+}
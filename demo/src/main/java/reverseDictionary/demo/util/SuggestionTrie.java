@@ -0,0 +1,311 @@
+package reverseDictionary.demo.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix index over a weighted word list, for typeahead.
+ * <p>
+ * A radix trie (chains of single-child nodes merged into one edge) laid out breadth first in flat
+ * arrays, so siblings are contiguous and there is one object per array rather than per node. Every
+ * node stores the ranks of the {@code k} best words below it, so a lookup walks down the prefix and
+ * reads the answer off the node it stops at, without visiting the subtree.
+ * <p>
+ * Words are ranked by weight (highest first), then shorter first, then alphabetically. Lookups
+ * match characters exactly; callers normalize case.
+ */
+public final class SuggestionTrie {
+
+    private static final Comparator<Map.Entry<String, Long>> RANKING =
+            Comparator.<Map.Entry<String, Long>>comparingLong(entry -> -entry.getValue())
+                    .thenComparingInt(entry -> entry.getKey().length())
+                    .thenComparing(Map.Entry::getKey);
+
+    private final int k;
+    private final String[] words;    // by rank
+    private final char[] labels;     // edge labels, concatenated
+    private final int[] labelStart;  // per node: offset of the label of the edge leading to it
+    private final int[] labelLength;
+    private final int[] childStart;  // per node: index of the first child; children are sorted by first label char
+    private final int[] childCount;
+    private final int[] topStart;    // per node: offset into top
+    private final int[] topCount;
+    private final int[] top;         // ranks of the best words below each node, best first
+
+    private SuggestionTrie(int k, String[] words, char[] labels, int[] labelStart, int[] labelLength,
+                           int[] childStart, int[] childCount, int[] topStart, int[] topCount, int[] top) {
+        this.k = k;
+        this.words = words;
+        this.labels = labels;
+        this.labelStart = labelStart;
+        this.labelLength = labelLength;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topCount = topCount;
+        this.top = top;
+    }
+
+    /**
+     * @param weights Words and their weights; blank words are ignored.
+     * @param k       The most suggestions a lookup can return.
+     */
+    public static SuggestionTrie build(Map<String, Long> weights, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(weights.size());
+        for (Map.Entry<String, Long> entry : weights.entrySet()) {
+            if (!entry.getKey().isBlank()) {
+                ranked.add(entry);
+            }
+        }
+        ranked.sort(RANKING);
+        String[] words = new String[ranked.size()];
+        for (int rank = 0; rank < words.length; rank++) {
+            words[rank] = ranked.get(rank).getKey();
+        }
+
+        // Ranks in lexicographic order of their words: every subtree is then a contiguous range.
+        Integer[] lexical = new Integer[words.length];
+        for (int i = 0; i < lexical.length; i++) {
+            lexical[i] = i;
+        }
+        Arrays.sort(lexical, Comparator.comparing(rank -> words[rank]));
+
+        Node root = words.length == 0 ? new Node(0, 0) : buildNode(words, lexical, 0, lexical.length, 0, k);
+        return flatten(root, words, k);
+    }
+
+    /**
+     * The best words starting with {@code prefix}.
+     *
+     * @param prefix The typed prefix; an empty prefix returns the best words overall.
+     * @param limit  The most words to return; capped at {@code k}.
+     * @return Up to {@code limit} words, best first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        int node = find(prefix);
+        if (node < 0) {
+            return List.of();
+        }
+        int count = Math.min(topCount[node], limit);
+        String[] result = new String[Math.max(count, 0)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[top[topStart[node] + i]];
+        }
+        return List.of(result);
+    }
+
+    /**
+     * @return The node whose subtree holds exactly the words starting with {@code prefix}, or -1.
+     */
+    private int find(String prefix) {
+        int node = 0;
+        int position = 0;
+        while (true) {
+            int start = labelStart[node];
+            int length = labelLength[node];
+            for (int i = 0; i < length; i++, position++) {
+                if (position == prefix.length()) {
+                    return node; // The prefix ends inside this edge.
+                }
+                if (labels[start + i] != prefix.charAt(position)) {
+                    return -1;
+                }
+            }
+            if (position == prefix.length()) {
+                return node;
+            }
+            node = child(node, prefix.charAt(position));
+            if (node < 0) {
+                return -1;
+            }
+        }
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char first = labels[labelStart[middle]];
+            if (first < c) {
+                low = middle + 1;
+            } else if (first > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of words indexed.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @return The number of trie nodes.
+     */
+    public int nodeCount() {
+        return labelStart.length;
+    }
+
+    /**
+     * @return The most suggestions a lookup can return.
+     */
+    public int k() {
+        return k;
+    }
+
+    /**
+     * An estimate of the heap held by the index: its arrays plus the word strings, assuming
+     * compressed oops and Latin-1 compact strings.
+     */
+    public long estimatedBytes() {
+        long bytes = array(words.length, 4) + array(labels.length, 2) + array(top.length, 4)
+                + 6L * array(labelStart.length, 4);
+        for (String word : words) {
+            bytes += 24 + array(word.length(), 1); // String header and fields, then its byte[]
+        }
+        return bytes;
+    }
+
+    private static long array(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    // ====================
+    // Construction
+    // ====================
+
+    /**
+     * Builds the node for the words in {@code lexical[from, to)}, which all share their first
+     * {@code depth} characters. Its edge label runs from {@code depth} to the longest prefix all of
+     * them share.
+     */
+    private static Node buildNode(String[] words, Integer[] lexical, int from, int to, int depth, int k) {
+        String first = words[lexical[from]];
+        String last = words[lexical[to - 1]];
+        int end = depth;
+        while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        Node node = new Node(depth, end);
+        node.word = first;
+
+        List<int[]> candidates = new ArrayList<>();
+        int i = from;
+        if (first.length() == end) {
+            candidates.add(new int[]{lexical[from]});
+            i++;
+        }
+        while (i < to) {
+            char c = words[lexical[i]].charAt(end);
+            int j = i + 1;
+            while (j < to && words[lexical[j]].charAt(end) == c) {
+                j++;
+            }
+            Node child = buildNode(words, lexical, i, j, end, k);
+            node.children.add(child);
+            candidates.add(child.top);
+            i = j;
+        }
+        node.top = mergeTop(candidates, k);
+        return node;
+    }
+
+    /**
+     * The {@code k} smallest ranks among already sorted lists.
+     */
+    private static int[] mergeTop(List<int[]> lists, int k) {
+        int[] positions = new int[lists.size()];
+        int[] merged = new int[k];
+        int size = 0;
+        while (size < k) {
+            int best = -1;
+            for (int l = 0; l < lists.size(); l++) {
+                int[] list = lists.get(l);
+                if (positions[l] < list.length && (best < 0 || list[positions[l]] < lists.get(best)[positions[best]])) {
+                    best = l;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            merged[size++] = lists.get(best)[positions[best]++];
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static SuggestionTrie flatten(Node root, String[] words, int k) {
+        List<Node> order = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        int labelChars = 0;
+        int topEntries = 0;
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children);
+            labelChars += node.end - node.depth;
+            topEntries += node.top.length;
+        }
+
+        int nodes = order.size();
+        char[] labels = new char[labelChars];
+        int[] labelStart = new int[nodes];
+        int[] labelLength = new int[nodes];
+        int[] childStart = new int[nodes];
+        int[] childCount = new int[nodes];
+        int[] topStart = new int[nodes];
+        int[] topCount = new int[nodes];
+        int[] top = new int[topEntries];
+        int nextChild = 1;
+        int nextLabel = 0;
+        int nextTop = 0;
+        for (int index = 0; index < nodes; index++) {
+            Node node = order.get(index);
+            int length = node.end - node.depth;
+            if (length > 0) {
+                node.word.getChars(node.depth, node.end, labels, nextLabel);
+            }
+            labelStart[index] = nextLabel;
+            labelLength[index] = length;
+            nextLabel += length;
+            // Breadth-first order places a node's children next to each other, in insertion (character) order.
+            childStart[index] = nextChild;
+            childCount[index] = node.children.size();
+            nextChild += node.children.size();
+            topStart[index] = nextTop;
+            topCount[index] = node.top.length;
+            System.arraycopy(node.top, 0, top, nextTop, node.top.length);
+            nextTop += node.top.length;
+        }
+        return new SuggestionTrie(k, words, labels, labelStart, labelLength, childStart, childCount, topStart, topCount, top);
+    }
+
+    /**
+     * Build-time node; discarded once the arrays are filled.
+     */
+    private static final class Node {
+        final int depth;
+        final int end;
+        final List<Node> children = new ArrayList<>(2);
+        String word = "";
+        int[] top = new int[0];
+
+        Node(int depth, int end) {
+            this.depth = depth;
+            this.end = end;
+        }
+    }
+}
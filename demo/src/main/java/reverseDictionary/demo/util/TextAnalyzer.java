@@ -0,0 +1,128 @@
+package reverseDictionary.demo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text (queries and glosses) into index terms.
+ * Text is lower-cased, split on anything that is not a letter or digit, stripped of
+ * stop words and reduced with a light suffix stemmer so that "heights" matches "height"
+ * and "sleeping" matches "sleep".
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "being", "by", "for", "from", "has", "have",
+            "in", "into", "is", "it", "its", "of", "on", "one", "ones", "or", "that", "the",
+            "their", "them", "they", "this", "to", "very", "was", "what", "when", "which", "who",
+            "whose", "with", "word", "something", "thing", "typically", "especially", "particular"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Normalizes a free-text query for use as a lookup key: lower-cased, apostrophes dropped,
+     * other punctuation folded to spaces and runs of whitespace collapsed.
+     * "Fear of  Heights!" and "fear of heights" produce the same key.
+     *
+     * @param text The text to normalize.
+     * @return The normalized text, possibly empty.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else if (c != '\'' && c != '’') {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Splits text into normalized, stemmed terms with stop words removed.
+     *
+     * @param text The text to analyze.
+     * @return The terms in order of appearance (duplicates preserved).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (c == '\'' || c == '’') {
+                // Fold contractions ("can't" -> "cant") instead of splitting them.
+                continue;
+            } else if (!token.isEmpty()) {
+                addTerm(terms, token.toString());
+                token.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * @param token A lower-cased token.
+     * @return True if the token is dropped from index terms as a stop word.
+     */
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (token.equals("cant")) {
+            token = "cannot";
+        }
+        if (STOP_WORDS.contains(token)) {
+            return;
+        }
+        terms.add(stem(token));
+    }
+
+    /**
+     * A deliberately small suffix stemmer: plurals, -ing and -ed.
+     * Good enough for matching glosses; not meant to produce real words.
+     *
+     * @param term A lower-cased token.
+     * @return The stemmed token.
+     */
+    public static String stem(String term) {
+        int length = term.length();
+        if (length > 4 && term.endsWith("ies")) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && term.endsWith("sses")) {
+            return term.substring(0, length - 2);
+        }
+        if (length > 5 && term.endsWith("ing")) {
+            return term.substring(0, length - 3);
+        }
+        if (length > 4 && term.endsWith("ed") && !term.endsWith("eed")) {
+            return term.substring(0, length - 2);
+        }
+        if (length > 3 && term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,344 @@
+package reverseDictionary.demo.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only word vectors in a memory-mapped file, so opening them costs a header read and the
+ * vectors stay off the heap.
+ * <p>
+ * {@link #convert} turns a pretrained vector file in the common text format (GloVe, or word2vec /
+ * fastText with their "count dimensions" header line) into the binary layout below, keeping the
+ * first {@code maxWords} words (these files list the most frequent words first) and scaling every
+ * vector to unit length, so a dot product is a cosine similarity. {@link #open} maps it.
+ * <pre>
+ * int magic, int version, int count, int dimensions, long stamp, long reserved
+ * float[count * dimensions]  vectors, by id
+ * int[count]                 ids sorted by the UTF-8 bytes of their word
+ * int[count + 1]             offset of each word in the word bytes, by id
+ * byte[]                     the words, UTF-8
+ * </pre>
+ * All values are little-endian. A single file is limited to 2 GB.
+ */
+public final class WordVectors {
+
+    private static final int MAGIC = 0x57445643; // "WDVC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int count;
+    private final int dimensions;
+    private final long stamp;
+    private final FloatBuffer vectors;
+    private final IntBuffer sortedIds;
+    private final IntBuffer wordOffsets;
+    private final ByteBuffer wordBytes;
+    private final long mappedBytes;
+
+    private WordVectors(ByteBuffer file) {
+        if (file.getInt(0) != MAGIC || file.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a word vector file, or one written by another version");
+        }
+        this.count = file.getInt(8);
+        this.dimensions = file.getInt(12);
+        this.stamp = file.getLong(16);
+        this.mappedBytes = file.capacity();
+        int position = HEADER_BYTES;
+        this.vectors = slice(file, position, count * dimensions * 4).asFloatBuffer();
+        position += count * dimensions * 4;
+        this.sortedIds = slice(file, position, count * 4).asIntBuffer();
+        position += count * 4;
+        this.wordOffsets = slice(file, position, (count + 1) * 4).asIntBuffer();
+        position += (count + 1) * 4;
+        this.wordBytes = slice(file, position, file.capacity() - position);
+    }
+
+    /**
+     * Maps a file written by {@link #convert}.
+     */
+    public static WordVectors open(Path file) throws IOException {
+        return new WordVectors(map(file));
+    }
+
+    /**
+     * Converts a text vector file to the binary layout, replacing {@code target} atomically, and
+     * maps the result.
+     *
+     * @param source   The text file: one word per line followed by its components, space separated.
+     * @param target   Where to write the binary file.
+     * @param maxWords The most words to keep, in file order; duplicates and words whose vector has
+     *                 the wrong number of components are skipped.
+     * @param stamp    Stored in the header, for callers to tell whether the file is current.
+     */
+    public static WordVectors convert(Path source, Path target, int maxWords, long stamp) throws IOException {
+        Path vectorPart = Files.createTempFile(target.toAbsolutePath().getParent(), "vectors", ".part");
+        List<byte[]> words = new ArrayList<>();
+        int dimensions = -1;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(vectorPart), 1 << 16)) {
+            Set<String> seen = new HashSet<>();
+            ByteBuffer row = null;
+            String line;
+            boolean first = true;
+            while (words.size() < maxWords && (line = reader.readLine()) != null) {
+                String[] fields = line.trim().split(" ");
+                if (first) {
+                    first = false;
+                    if (fields.length == 2) {
+                        continue; // word2vec / fastText header: "count dimensions"
+                    }
+                }
+                if (dimensions < 0) {
+                    dimensions = fields.length - 1;
+                    row = ByteBuffer.allocate(dimensions * 4).order(ByteOrder.LITTLE_ENDIAN);
+                }
+                if (fields.length != dimensions + 1 || dimensions < 1 || !seen.add(fields[0])) {
+                    continue;
+                }
+                float[] vector = new float[dimensions];
+                double norm = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    vector[i] = Float.parseFloat(fields[i + 1]);
+                    norm += (double) vector[i] * vector[i];
+                }
+                float scale = norm == 0 ? 0f : (float) (1 / Math.sqrt(norm));
+                row.clear();
+                for (float component : vector) {
+                    row.putFloat(component * scale);
+                }
+                out.write(row.array());
+                words.add(fields[0].getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (words.isEmpty()) {
+            Files.deleteIfExists(vectorPart);
+            throw new IllegalStateException("No word vectors found in " + source);
+        }
+        int count = words.size();
+
+        Integer[] byWord = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byWord[i] = i;
+        }
+        Arrays.sort(byWord, (a, b) -> Arrays.compareUnsigned(words.get(a), words.get(b)));
+        long wordLength = 0;
+        for (byte[] word : words) {
+            wordLength += word.length;
+        }
+        long total = HEADER_BYTES + Files.size(vectorPart) + 4L * count + 4L * (count + 1) + wordLength;
+        if (total > Integer.MAX_VALUE) {
+            Files.deleteIfExists(vectorPart);
+            throw new IllegalStateException("Word vectors would take " + total + " bytes; keep fewer words");
+        }
+
+        Path part = Files.createTempFile(target.toAbsolutePath().getParent(), "vectors", ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), 1 << 16)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(dimensions).putLong(stamp).putLong(0);
+            out.write(header.array());
+            Files.copy(vectorPart, out);
+            ByteBuffer ints = ByteBuffer.allocate(4 * (2 * count + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int id : byWord) {
+                ints.putInt(id);
+            }
+            int offset = 0;
+            for (byte[] word : words) {
+                ints.putInt(offset);
+                offset += word.length;
+            }
+            ints.putInt(offset);
+            out.write(ints.array());
+            for (byte[] word : words) {
+                out.write(word);
+            }
+        } finally {
+            Files.deleteIfExists(vectorPart);
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(target);
+    }
+
+    /**
+     * @return The stamp the file was written with.
+     */
+    public static long readStamp(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION ? header.getLong(16) : 0;
+        }
+    }
+
+    /**
+     * @return The id of {@code word}, found by binary search over the mapped word table, or -1.
+     */
+    public int id(String word) {
+        byte[] target = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = sortedIds.get(middle);
+            int comparison = compareWord(id, target);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The word with the given id.
+     */
+    public String word(int id) {
+        int start = wordOffsets.get(id);
+        byte[] bytes = new byte[wordOffsets.get(id + 1) - start];
+        wordBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds the vector of word {@code id} to {@code sum}.
+     */
+    public void addTo(int id, float[] sum) {
+        int base = id * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            sum[i] += vectors.get(base + i);
+        }
+    }
+
+    /**
+     * @return The dot product of {@code query} and the vector of word {@code id}; the cosine
+     *         similarity when {@code query} has unit length.
+     */
+    public float dot(float[] query, int id) {
+        int base = id * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * vectors.get(base + i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return The cosine similarity of words {@code a} and {@code b}.
+     */
+    public float dot(int a, int b) {
+        int baseA = a * dimensions;
+        int baseB = b * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += vectors.get(baseA + i) * vectors.get(baseB + i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return A heap copy of the vector of word {@code id}.
+     */
+    public float[] vector(int id) {
+        float[] vector = new float[dimensions];
+        vectors.get(id * dimensions, vector);
+        return vector;
+    }
+
+    /**
+     * Exact nearest neighbours by scanning every vector; the reference the approximate index is
+     * measured against.
+     *
+     * @return The ids of the {@code k} words most similar to {@code query}, best first.
+     */
+    public int[] nearest(float[] query, int k) {
+        ScoredHeap best = new ScoredHeap(k + 1);
+        for (int id = 0; id < count; id++) {
+            best.push(dot(query, id), id);
+            if (best.size() > k) {
+                best.pop();
+            }
+        }
+        int[] ids = new int[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.topId();
+            best.pop();
+        }
+        return ids;
+    }
+
+    /**
+     * @return The number of words.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return The number of components of each vector.
+     */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return The stamp the file was written with.
+     */
+    public long stamp() {
+        return stamp;
+    }
+
+    /**
+     * @return The size of the mapped file.
+     */
+    public long mappedBytes() {
+        return mappedBytes;
+    }
+
+    private int compareWord(int id, byte[] target) {
+        int start = wordOffsets.get(id);
+        int length = wordOffsets.get(id + 1) - start;
+        int shared = Math.min(length, target.length);
+        for (int i = 0; i < shared; i++) {
+            int comparison = Integer.compare(wordBytes.get(start + i) & 0xff, target[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, target.length);
+    }
+
+    static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(file + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    static ByteBuffer slice(ByteBuffer file, int position, int length) {
+        return file.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -35,3 +35,29 @@ document.getElementById('search-button').addEventListener('click', () => {
             alert('An error occurred while fetching results');
         });
 });
+
+// Suggest words while a single word is being typed
+let suggestTimer;
+document.getElementById('search-input').addEventListener('input', event => {
+    clearTimeout(suggestTimer);
+    const prefix = event.target.value.trim();
+    const datalist = document.getElementById('suggestions');
+    if (!prefix || prefix.includes(' ')) {
+        datalist.innerHTML = '';
+        return;
+    }
+    // Wait for a pause in typing before asking
+    suggestTimer = setTimeout(() => {
+        fetch(`/api/words/suggest?prefix=${encodeURIComponent(prefix)}`)
+            .then(response => response.ok ? response.json() : [])
+            .then(words => {
+                datalist.innerHTML = '';
+                words.forEach(word => {
+                    const option = document.createElement('option');
+                    option.value = word;
+                    datalist.appendChild(option);
+                });
+            })
+            .catch(error => console.error(error));
+    }, 150);
+});
@@ -0,0 +1,60 @@
+package reverseDictionary.demo.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.service.TokenAuthenticator;
+import reverseDictionary.demo.util.JwtUtil;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token with {@link TokenAuthenticator}, with the
+ * verified-token cache and without it (a full parse and HMAC-SHA256 check every time). Requests
+ * cycle through the tokens of {@value #USERS} signed-in users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+	static final int USERS = 1024;
+
+	@Param({"true", "false"})
+	public boolean cache;
+
+	private TokenAuthenticator authenticator;
+	private String[] tokens;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		JwtUtil jwtUtil = new JwtUtil("benchmark-secret-benchmark-secret", Duration.ofHours(1));
+		// Tokens carry the user id, so no repository is needed.
+		authenticator = new TokenAuthenticator(jwtUtil, null, new SimpleMeterRegistry(), cache, 100_000);
+		tokens = new String[USERS];
+		for (int i = 0; i < USERS; i++) {
+			tokens[i] = jwtUtil.generateToken("user" + i, (long) i);
+		}
+	}
+
+	@Benchmark
+	public AuthenticatedUser authenticate() {
+		return authenticator.authenticate(tokens[next++ & (USERS - 1)]);
+	}
+}
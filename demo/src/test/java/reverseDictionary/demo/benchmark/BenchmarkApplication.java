@@ -0,0 +1,35 @@
+package reverseDictionary.demo.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.WhatsdawordApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server against a private in-memory H2 database, so
+ * benchmarks run the real repositories and services.
+ */
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * @param database  Name of the in-memory database; one per benchmark class keeps runs independent.
+	 * @param overrides Extra {@code --property=value} arguments.
+	 */
+	static ConfigurableApplicationContext start(String database, String... overrides) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:" + database + ";NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+				"--logging.level.root=WARN"));
+		args.addAll(List.of(overrides));
+		// Command-line arguments, so they override application.properties.
+		return new SpringApplicationBuilder(WhatsdawordApplication.class)
+				.profiles("h2")
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+	}
+}
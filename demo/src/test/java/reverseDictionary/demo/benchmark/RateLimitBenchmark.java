@@ -0,0 +1,67 @@
+package reverseDictionary.demo.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reverseDictionary.demo.service.SearchRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rate limit check made before every search, from four threads over {@value #CLIENTS} known
+ * clients, all sharing the global bucket. Run with {@code -prof gc} to confirm it allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimitBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(RateLimitBenchmark.class);
+
+	static final int CLIENTS = 100_000;
+
+	private SearchRateLimiter limiter;
+	private String[] addresses;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// Limits high enough that every check is granted, which is the common case.
+		limiter = new SearchRateLimiter(new SimpleMeterRegistry(), true,
+				Long.MAX_VALUE / 2, Duration.ofDays(1), 1_000_000, Long.MAX_VALUE / 2, Duration.ofDays(1), 1_000_000,
+				2 * CLIENTS, Duration.ofHours(1), false);
+		addresses = new String[CLIENTS];
+		for (int i = 0; i < CLIENTS; i++) {
+			addresses[i] = "10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255);
+			limiter.tryAcquire(null, addresses[i], 1);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		log.info("{}", limiter.stats());
+	}
+
+	@Benchmark
+	public long tryAcquire() {
+		return limiter.tryAcquire(null, addresses[ThreadLocalRandom.current().nextInt(CLIENTS)], 1);
+	}
+}
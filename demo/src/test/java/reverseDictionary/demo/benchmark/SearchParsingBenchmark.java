@@ -0,0 +1,95 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+import reverseDictionary.demo.service.DatamuseResponseParser;
+import reverseDictionary.demo.service.WordService;
+import reverseDictionary.demo.support.DatamuseStubServer;
+import reverseDictionary.demo.support.DatamuseStubServer.Reply;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a Datamuse response into words, on recorded payloads from
+ * {@code src/test/resources/datamuse}.
+ * <p>
+ * {@link #parse()} measures {@link DatamuseResponseParser} alone. {@link #searchWords()} goes through
+ * {@link WordService#searchWords(SearchQuery)} with the result cache off, against a local stub that
+ * serves the same payload, so it adds the HTTP exchange, resilience layer and coalescing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchParsingBenchmark {
+
+	/**
+	 * Recorded payload and the window requested from it.
+	 * {@code fear-of-heights} is a 10-entry answer; {@code very-happy} a full 1000-entry one.
+	 */
+	@Param({"fear-of-heights:10", "very-happy:100", "very-happy:1000"})
+	public String payload;
+
+	private byte[] body;
+	private int limit;
+	private SearchQuery query;
+	private DatamuseStubServer stub;
+	private ConfigurableApplicationContext app;
+	private WordService wordService;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		String[] parts = payload.split(":");
+		try (InputStream in = getClass().getResourceAsStream("/datamuse/ml-" + parts[0] + ".json")) {
+			body = in.readAllBytes();
+		}
+		limit = Integer.parseInt(parts[1]);
+		query = new SearchQuery(parts[0].replace('-', ' '), 0, limit);
+
+		stub = new DatamuseStubServer();
+		String json = new String(body, StandardCharsets.UTF_8);
+		stub.setReplies(call -> new Reply(0, 200, json));
+		app = BenchmarkApplication.start("search-parsing",
+				"--whatsdaword.search.engine=datamuse",
+				"--whatsdaword.datamuse.url=" + stub.getUrl(),
+				"--whatsdaword.search.cache.enabled=false");
+		wordService = app.getBean(WordService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		app.close();
+		stub.close();
+	}
+
+	@Benchmark
+	public List<WordMatch> parse() throws IOException {
+		return DatamuseResponseParser.parse(new ByteArrayInputStream(body), 0, limit);
+	}
+
+	@Benchmark
+	public List<WordMatch> searchWords() {
+		return wordService.searchWords(query);
+	}
+}
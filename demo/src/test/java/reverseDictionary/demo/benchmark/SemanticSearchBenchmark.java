@@ -0,0 +1,143 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reverseDictionary.demo.util.HnswIndex;
+import reverseDictionary.demo.util.WordVectors;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recall against latency for the semantic engine's {@link HnswIndex}, next to the exact brute-force
+ * scan it approximates, over 100,000 generated 100-dimensional vectors grouped in clusters the way
+ * word embeddings are. Each trial logs the recall@10 of its search width over 500 queries.
+ * <p>
+ * The vectors and graph are written to {@code target/semantic-benchmark} by the first run and only
+ * mapped by later ones, as the engine does at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SemanticSearchBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(SemanticSearchBenchmark.class);
+
+	private static final int WORDS = 100_000;
+	private static final int DIMENSIONS = 100;
+	private static final int K = 10;
+	private static final float NOISE = 0.8f; // spread of a cluster, relative to the spread of cluster centres
+
+	@Param({"16", "64", "256"})
+	public int ef;
+
+	private WordVectors vectors;
+	private HnswIndex index;
+	private float[][] queries;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Path directory = Files.createDirectories(Path.of("target", "semantic-benchmark"));
+		Path source = directory.resolve("vectors.txt");
+		Path vectorFile = directory.resolve("vectors.bin");
+		Path graphFile = directory.resolve("graph.hnsw");
+		Random random = new Random(7);
+		float[][] centres = new float[1000][];
+		for (int i = 0; i < centres.length; i++) {
+			centres[i] = gaussian(random, 1f);
+		}
+		long start = System.nanoTime();
+		if (Files.notExists(graphFile)) {
+			try (BufferedWriter writer = Files.newBufferedWriter(source)) {
+				for (int word = 0; word < WORDS; word++) {
+					writer.write("w" + word);
+					float[] centre = centres[random.nextInt(centres.length)];
+					float[] noise = gaussian(random, NOISE);
+					for (int i = 0; i < DIMENSIONS; i++) {
+						writer.write(String.format(Locale.ROOT, " %.4f", centre[i] + noise[i]));
+					}
+					writer.newLine();
+				}
+			}
+			vectors = WordVectors.convert(source, vectorFile, WORDS, 1L);
+			HnswIndex.build(vectors, 16, 100, 42).write(graphFile);
+			log.info("Built vectors and graph in {} ms", (System.nanoTime() - start) / 1_000_000);
+			start = System.nanoTime();
+		}
+		vectors = WordVectors.open(vectorFile);
+		index = HnswIndex.open(graphFile, vectors);
+		log.info("Mapped {} MB in {} ms", (vectors.mappedBytes() + index.mappedBytes()) >> 20,
+				(System.nanoTime() - start) / 1_000_000);
+
+		// Drawn from their own generator, so they are the same whether or not the files were just built.
+		Random queryRandom = new Random(11);
+		queries = new float[512][];
+		for (int i = 0; i < queries.length; i++) {
+			float[] centre = centres[queryRandom.nextInt(centres.length)];
+			float[] noise = gaussian(queryRandom, NOISE);
+			float[] query = new float[DIMENSIONS];
+			double norm = 0;
+			for (int d = 0; d < DIMENSIONS; d++) {
+				query[d] = centre[d] + noise[d];
+				norm += query[d] * query[d];
+			}
+			for (int d = 0; d < DIMENSIONS; d++) {
+				query[d] /= (float) Math.sqrt(norm);
+			}
+			queries[i] = query;
+		}
+
+		int found = 0;
+		for (int i = 0; i < 500; i++) {
+			Set<Integer> exact = new HashSet<>();
+			for (int id : vectors.nearest(queries[i], K)) {
+				exact.add(id);
+			}
+			for (int id : index.search(queries[i], K, ef)) {
+				found += exact.contains(id) ? 1 : 0;
+			}
+		}
+		log.info("ef={}: recall@{} {}", ef, K, String.format(Locale.ROOT, "%.3f", found / (500.0 * K)));
+	}
+
+	@Benchmark
+	public int[] hnsw() {
+		return index.search(queries[next++ & 511], K, ef);
+	}
+
+	@Benchmark
+	public int[] bruteForce() {
+		return vectors.nearest(queries[next++ & 511], K);
+	}
+
+	private static float[] gaussian(Random random, float scale) {
+		float[] vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextGaussian() * scale;
+		}
+		return vector;
+	}
+}
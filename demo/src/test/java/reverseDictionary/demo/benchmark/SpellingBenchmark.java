@@ -0,0 +1,87 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reverseDictionary.demo.util.SpellingIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spelling correction with {@link SpellingIndex} over 10,000 and 100,000 generated words: terms one
+ * edit and two edits away from a vocabulary word. Reports the index size on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpellingBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(SpellingBenchmark.class);
+
+	@Param({"10000", "100000"})
+	public int words;
+
+	private SpellingIndex index;
+	private List<String> oneEdit;
+	private List<String> twoEdits;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(7);
+		Map<String, Long> frequencies = new HashMap<>();
+		while (frequencies.size() < words) {
+			StringBuilder word = new StringBuilder();
+			int length = 4 + random.nextInt(9);
+			for (int i = 0; i < length; i++) {
+				word.append((char) ('a' + random.nextInt(26)));
+			}
+			frequencies.put(word.toString(), 1_000_000L / (1 + frequencies.size()));
+		}
+		index = SpellingIndex.build(frequencies, 2, 7);
+		List<String> vocabulary = new ArrayList<>(frequencies.keySet());
+		oneEdit = new ArrayList<>();
+		twoEdits = new ArrayList<>();
+		for (int i = 0; i < 1024; i++) {
+			String word = vocabulary.get(random.nextInt(vocabulary.size()));
+			oneEdit.add(substitute(word, random));
+			twoEdits.add(substitute(substitute(word, random), random));
+		}
+		log.info("{} words, {} deletes", index.size(), index.deleteCount());
+	}
+
+	@Benchmark
+	public String oneEdit() {
+		return index.bestMatch(oneEdit.get(next++ & 1023), 2);
+	}
+
+	@Benchmark
+	public String twoEdits() {
+		return index.bestMatch(twoEdits.get(next++ & 1023), 2);
+	}
+
+	private static String substitute(String word, Random random) {
+		char[] chars = word.toCharArray();
+		chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+		return new String(chars);
+	}
+}
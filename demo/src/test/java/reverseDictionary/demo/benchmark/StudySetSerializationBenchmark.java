@@ -0,0 +1,64 @@
+package reverseDictionary.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a study set with its words, as returned by the study set endpoints.
+ * Uses an {@link ObjectMapper} configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudySetSerializationBenchmark {
+
+	@Param({"10", "1000", "10000"})
+	public int words;
+
+	private ObjectMapper objectMapper;
+	private StudySet studySet;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+		User user = new User();
+		user.setId(1L);
+		user.setUsername("benchmark");
+		user.setPassword("secret");
+		user.setEmail("benchmark@example.com");
+		studySet = new StudySet("Phobias", "Words for fears", user);
+		studySet.setId(1L);
+		for (long i = 0; i < words; i++) {
+			Word word = new Word("word" + i, "n\tthe definition of word number " + i, studySet);
+			word.setId(i + 1);
+			studySet.getWords().add(word);
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(studySet);
+	}
+}
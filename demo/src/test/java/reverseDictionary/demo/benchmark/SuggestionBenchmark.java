@@ -0,0 +1,68 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reverseDictionary.demo.util.SuggestionTrie;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups in {@link SuggestionTrie} over 10,000 and 1,000,000 generated words with
+ * Zipf-like weights, for prefixes of one to four characters. Reports the index size on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(SuggestionBenchmark.class);
+
+	@Param({"10000", "1000000"})
+	public int words;
+
+	private SuggestionTrie trie;
+	private List<String> prefixes;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(7);
+		Map<String, Long> weights = new HashMap<>();
+		while (weights.size() < words) {
+			StringBuilder word = new StringBuilder();
+			int length = 3 + random.nextInt(10);
+			for (int i = 0; i < length; i++) {
+				word.append((char) ('a' + random.nextInt(26)));
+			}
+			weights.put(word.toString(), 1_000_000L / (1 + weights.size()));
+		}
+		trie = SuggestionTrie.build(weights, 10);
+		prefixes = List.of("s", "st", "str", "stre", "q", "qx", "ab", "zzz");
+		log.info("{} words, {} nodes, ~{} KB", trie.size(), trie.nodeCount(), trie.estimatedBytes() / 1024);
+	}
+
+	@Benchmark
+	public List<String> suggest() {
+		String prefix = prefixes.get(next++ & 7);
+		return trie.suggest(prefix, 10);
+	}
+}
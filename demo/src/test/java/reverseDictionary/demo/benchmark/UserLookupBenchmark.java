@@ -0,0 +1,72 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserRepository#findByUsername(String)} against an embedded H2 database holding
+ * {@value #USERS} users. Lookups cycle through every username so no single row stays hot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+	static final int USERS = 10_000;
+
+	private ConfigurableApplicationContext app;
+	private UserRepository userRepository;
+	private String[] usernames;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		app = BenchmarkApplication.start("user-lookup");
+		userRepository = app.getBean(UserRepository.class);
+
+		usernames = new String[USERS];
+		List<User> users = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("user" + i);
+			user.setPassword("secret");
+			user.setEmail("user" + i + "@example.com");
+			users.add(user);
+			usernames[i] = user.getUsername();
+		}
+		userRepository.saveAll(users);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		app.close();
+	}
+
+	@Benchmark
+	public Optional<User> findByUsername() {
+		String username = usernames[next];
+		next = next + 1 == USERS ? 0 : next + 1;
+		return userRepository.findByUsername(username);
+	}
+}
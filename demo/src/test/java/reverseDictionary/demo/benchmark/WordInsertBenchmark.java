@@ -0,0 +1,93 @@
+package reverseDictionary.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.repository.WordRepository;
+import reverseDictionary.demo.service.WordService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding words to a study set in an embedded H2 database, one transaction per operation.
+ * {@code batch = 1} is the single-word endpoint; larger batches use the bulk endpoint's
+ * {@link WordService#addWordsToStudySet(List, Long)}, which JDBC-batches the inserts.
+ * Scores are per operation, so divide by {@code batch} for the per-word cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordInsertBenchmark {
+
+	@Param({"1", "50", "500"})
+	public int batch;
+
+	private ConfigurableApplicationContext app;
+	private WordService wordService;
+	private WordRepository wordRepository;
+	private Long studySetId;
+	private long sequence;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		app = BenchmarkApplication.start("word-insert");
+		wordService = app.getBean(WordService.class);
+		wordRepository = app.getBean(WordRepository.class);
+
+		User user = new User();
+		user.setUsername("benchmark");
+		user.setPassword("secret");
+		user.setEmail("benchmark@example.com");
+		user = app.getBean(UserRepository.class).save(user);
+		studySetId = app.getBean(StudySetRepository.class).save(new StudySet("Benchmark", "Inserted words", user)).getId();
+	}
+
+	// Keeps the table from growing across iterations, so every iteration inserts into the same size of index.
+	@TearDown(Level.Iteration)
+	public void clear() {
+		wordRepository.deleteAllInBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		app.close();
+	}
+
+	@Benchmark
+	public Object insert() {
+		if (batch == 1) {
+			return wordService.addWordToStudySet(newWord(), studySetId);
+		}
+		List<Word> words = new ArrayList<>(batch);
+		for (int i = 0; i < batch; i++) {
+			words.add(newWord());
+		}
+		return wordService.addWordsToStudySet(words, studySetId);
+	}
+
+	private Word newWord() {
+		long n = sequence++;
+		return new Word("word" + n, "n\tthe definition of word number " + n, null);
+	}
+}
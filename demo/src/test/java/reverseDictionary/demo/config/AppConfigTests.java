@@ -0,0 +1,71 @@
+package reverseDictionary.demo.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppConfigTests {
+
+	private HttpServer server;
+	private String baseUrl;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/words", exchange -> {
+			byte[] body = "[{\"word\":\"elated\"}]".getBytes(StandardCharsets.UTF_8);
+			String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+				try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+					gzip.write(body);
+				}
+				body = compressed.toByteArray();
+				exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void restTemplateInflatesGzipBodiesAndReleasesConnectionPermits() {
+		AppConfig config = new AppConfig();
+		PerHostLimitInterceptor limiter = config.perHostLimitInterceptor(2, Duration.ofMillis(100));
+		RestTemplate restTemplate = config.restTemplate(new RestTemplateBuilder(),
+				config.outboundHttpClient(Duration.ofSeconds(1), false, false),
+				limiter, Duration.ofSeconds(2));
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(restTemplate.getForObject(baseUrl + "/words", String.class)).isEqualTo("[{\"word\":\"elated\"}]");
+		}
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> host = (Map<String, Object>) limiter.stats().get("127.0.0.1");
+		assertThat(host).containsEntry("requests", 5L).containsEntry("inUse", 0).containsEntry("rejected", 0L);
+	}
+}
@@ -0,0 +1,71 @@
+package reverseDictionary.demo.config;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.WordRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrading a database whose words were numbered by AUTO_INCREMENT. Runs on its own database so
+ * no other test has drawn ids from the sequence yet.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:word-seq;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@Import({SecondLevelCacheConfig.class, WordSequenceSeeder.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WordSequenceSeederTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private WordRepository wordRepository;
+
+	@Autowired
+	private WordSequenceSeeder seeder;
+
+	@Test
+	void wordsAddedAfterTheUpgradeGetFreshIds() {
+		User owner = new User();
+		owner.setUsername("legacy");
+		owner.setPassword("secret");
+		owner.setEmail("legacy@example.com");
+		entityManager.persist(owner);
+		StudySet set = new StudySet("Legacy", "From before the sequence", owner);
+		entityManager.persist(set);
+		entityManager.flush();
+		for (long id = 1; id <= 120; id++) {
+			jdbcTemplate.update("insert into word (id, word, definition, study_set_id) values (?, ?, ?, ?)",
+					id, "word" + id, "old row", set.getId());
+		}
+
+		assertThat(seeder.seed()).isTrue();
+		assertThat(seeder.seed()).isFalse();
+
+		List<Word> added = new ArrayList<>();
+		for (int i = 0; i < 2 * Word.ID_ALLOCATION_SIZE; i++) {
+			added.add(new Word("new" + i, "new row", set));
+		}
+		wordRepository.saveAll(added);
+		entityManager.flush();
+
+		assertThat(added).allSatisfy(word -> assertThat(word.getId()).isGreaterThan(120L));
+		assertThat(wordRepository.count()).isEqualTo(220);
+	}
+}
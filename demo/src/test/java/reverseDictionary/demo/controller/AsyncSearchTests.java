@@ -0,0 +1,124 @@
+package reverseDictionary.demo.controller;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reverseDictionary.demo.service.WordService;
+import reverseDictionary.demo.support.DatamuseStubServer;
+import reverseDictionary.demo.support.DatamuseStubServer.Reply;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises {@code GET /api/words/search/async} through a real Tomcat over HTTP/2, where a client
+ * that gives up resets its stream and the container reports it to the pending request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"whatsdaword.search.engine=datamuse", "whatsdaword.search.cache.enabled=false",
+				"whatsdaword.http.http2=false", "server.http2.enabled=true"})
+@ActiveProfiles("h2")
+class AsyncSearchTests {
+
+	private static final DatamuseStubServer stub = startStub();
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private WordService wordService;
+
+	@DynamicPropertySource
+	static void upstream(DynamicPropertyRegistry registry) {
+		registry.add("whatsdaword.datamuse.url", stub::getUrl);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	/**
+	 * Over cleartext the first request on a connection is the HTTP/1.1 upgrade to h2c; only the
+	 * requests after it are HTTP/2 streams that can be reset.
+	 */
+	@BeforeEach
+	void openHttp2Connection() throws Exception {
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+				URI.create("http://127.0.0.1:" + port + "/api/words/search/stats")).build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+	}
+
+	@Test
+	void answersLikeTheBlockingEndpoint() throws Exception {
+		stub.setReplies(call -> Reply.ok());
+
+		HttpResponse<String> response = search("very happy").get();
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).contains("\"word\":\"elated\"");
+	}
+
+	@Test
+	void misspelledDefinitionsAreCorrectedAndReported() throws Exception {
+		stub.setReplies(call -> Reply.ok());
+
+		HttpResponse<String> corrected = search("fear of hieghts").get();
+		HttpResponse<String> asTyped = search("fear of hieghts&spellcheck=false").get();
+
+		assertThat(corrected.statusCode()).isEqualTo(200);
+		assertThat(corrected.headers().firstValue("X-Corrected-Query")).hasValue("fear%20of%20heights");
+		assertThat(asTyped.headers().firstValue("X-Corrected-Query")).isEmpty();
+	}
+
+	@Test
+	void clientThatGivesUpAbortsTheUpstreamCall() throws Exception {
+		stub.setReplies(call -> Reply.delayed(10_000));
+
+		CompletableFuture<HttpResponse<String>> abandoned = search("very sad");
+		while ((int) engineStat("bulkheadInUse") == 0) {
+			Thread.sleep(10);
+		}
+		abandoned.cancel(true);
+
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while ((long) engineStat("asyncCancelled") == 0L && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(engineStat("asyncCancelled")).isEqualTo(1L);
+		assertThat(engineStat("bulkheadInUse")).isEqualTo(0);
+	}
+
+	private CompletableFuture<HttpResponse<String>> search(String definition) {
+		URI uri = URI.create("http://127.0.0.1:" + port + "/api/words/search/async?definition=" + definition.replace(" ", "%20"));
+		return client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private Object engineStat(String name) {
+		return ((Map<?, ?>) wordService.getSearchStats().get("engine")).get(name);
+	}
+
+	private static DatamuseStubServer startStub() {
+		try {
+			return new DatamuseStubServer();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
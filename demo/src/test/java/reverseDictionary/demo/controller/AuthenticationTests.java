@@ -0,0 +1,118 @@
+package reverseDictionary.demo.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.AuthToken;
+import reverseDictionary.demo.model.LoginRequest;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.service.WordService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bearer token authentication on /api/** with whatsdaword.auth.enabled.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"whatsdaword.auth.enabled=true",
+		"whatsdaword.auth.secret=0123456789abcdef0123456789abcdef"})
+@ActiveProfiles("h2")
+class AuthenticationTests {
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	@Autowired
+	private WordService wordService;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = createUser();
+	}
+
+	private User createUser() {
+		User created = new User();
+		created.setUsername("auth-" + System.nanoTime());
+		created.setPassword("correct horse");
+		created.setEmail("auth@example.com");
+		return userRepository.save(created);
+	}
+
+	private HttpHeaders bearer(User owner) {
+		AuthToken token = rest.postForEntity("/api/auth/login",
+				new LoginRequest(owner.getUsername(), "correct horse"), AuthToken.class).getBody();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(token.token());
+		return headers;
+	}
+
+	@Test
+	void apiRequiresAToken() {
+		ResponseEntity<String> response = rest.getForEntity("/api/users/" + user.getId(), String.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE)).isEqualTo("Bearer");
+	}
+
+	@Test
+	void loginIssuesATokenThatAuthenticatesRequests() {
+		ResponseEntity<AuthToken> login = rest.postForEntity("/api/auth/login",
+				new LoginRequest(user.getUsername(), "correct horse"), AuthToken.class);
+		assertThat(login.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(login.getBody().tokenType()).isEqualTo("Bearer");
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(login.getBody().token());
+		for (int i = 0; i < 2; i++) {
+			ResponseEntity<User> response = rest.exchange("/api/users/" + user.getId(), HttpMethod.GET,
+					new HttpEntity<>(headers), User.class);
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(response.getBody().getUsername()).isEqualTo(user.getUsername());
+		}
+
+		headers.setBearerAuth(login.getBody().token() + "x");
+		assertThat(rest.exchange("/api/users/" + user.getId(), HttpMethod.GET, new HttpEntity<>(headers), String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void wrongPasswordIsRejected() {
+		ResponseEntity<String> login = rest.postForEntity("/api/auth/login",
+				new LoginRequest(user.getUsername(), "wrong"), String.class);
+
+		assertThat(login.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+	}
+
+	@Test
+	void personalSuggestionsFollowTheTokenNotAParameter() {
+		Long setId = studySetRepository.save(new StudySet("Private", "Mine", user)).getId();
+		wordService.addWordToStudySet(new Word("qwertyzzz", "n A word only this user saved.", null), setId);
+		User other = createUser();
+
+		String path = "/api/words/suggest?prefix=qwerty&userId=" + user.getId();
+		assertThat(rest.exchange(path, HttpMethod.GET, new HttpEntity<>(bearer(other)), String.class).getBody())
+				.isEqualTo("[]");
+		assertThat(rest.exchange(path, HttpMethod.GET, new HttpEntity<>(bearer(user)), String.class).getBody())
+				.isEqualTo("[\"qwertyzzz\"]");
+	}
+}
@@ -0,0 +1,118 @@
+package reverseDictionary.demo.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.service.WordService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ETag / If-None-Match on the study set and word listing endpoints.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class ConditionalGetTests {
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	@Autowired
+	private WordService wordService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long setId;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setUsername("etag-" + System.nanoTime());
+		user.setPassword("secret");
+		user.setEmail("etag@example.com");
+		user = userRepository.save(user);
+		setId = studySetRepository.save(new StudySet("Phobias", "Fears", user)).getId();
+		wordService.addWordsToStudySet(List.of(new Word("acrophobia", "fear of heights", null)), setId);
+	}
+
+	@Test
+	void matchingIfNoneMatchIsAnsweredWithoutLoadingTheSet() {
+		for (String path : List.of("/api/studysets/" + setId, "/api/words/studyset/" + setId)) {
+			ResponseEntity<String> first = get(path, null);
+			String eTag = first.getHeaders().getETag();
+			assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(eTag).startsWith("\"").endsWith("\"");
+
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+			statistics.clear();
+			ResponseEntity<String> second = get(path, eTag);
+
+			assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+			assertThat(second.getBody()).isNull();
+			assertThat(second.getHeaders().getETag()).isEqualTo(eTag);
+			assertThat(statistics.getEntityLoadCount()).as(path).isZero();
+			assertThat(statistics.getPrepareStatementCount()).as(path).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void addingWordsChangesTheETag() {
+		String set = get("/api/studysets/" + setId, null).getHeaders().getETag();
+		String words = get("/api/words/studyset/" + setId, null).getHeaders().getETag();
+
+		wordService.addWordToStudySet(new Word("agoraphobia", "fear of open spaces", null), setId);
+
+		ResponseEntity<String> setAfter = get("/api/studysets/" + setId, set);
+		ResponseEntity<String> wordsAfter = get("/api/words/studyset/" + setId, words);
+		assertThat(setAfter.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(setAfter.getBody()).contains("agoraphobia");
+		assertThat(setAfter.getHeaders().getETag()).isNotEqualTo(set);
+		assertThat(wordsAfter.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(wordsAfter.getHeaders().getETag()).isNotEqualTo(words);
+	}
+
+	@Test
+	void renamingTheSetOrItsOwnerChangesTheETag() {
+		String before = get("/api/studysets/" + setId, null).getHeaders().getETag();
+
+		User owner = studySetRepository.findWithWordsById(setId).orElseThrow().getUser();
+		owner.setEmail("renamed@example.com");
+		userRepository.save(owner);
+
+		assertThat(get("/api/studysets/" + setId, before).getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	private ResponseEntity<String> get(String path, String ifNoneMatch) {
+		HttpHeaders headers = new HttpHeaders();
+		if (ifNoneMatch != null) {
+			headers.setIfNoneMatch(ifNoneMatch);
+		}
+		return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+	}
+}
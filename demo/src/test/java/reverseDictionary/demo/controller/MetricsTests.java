@@ -0,0 +1,79 @@
+package reverseDictionary.demo.controller;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reverseDictionary.demo.support.DatamuseStubServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scrapes {@code /actuator/prometheus} after a search and a repository call. Spring Boot tests
+ * disable metrics export unless asked, hence {@link AutoConfigureObservability}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"whatsdaword.search.engine=datamuse", "whatsdaword.search.cache.enabled=false"})
+@ActiveProfiles("h2")
+@AutoConfigureObservability
+class MetricsTests {
+
+	private static final DatamuseStubServer stub = startStub();
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@DynamicPropertySource
+	static void upstream(DynamicPropertyRegistry registry) {
+		registry.add("whatsdaword.datamuse.url", stub::getUrl);
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@Test
+	void prometheusExposesSearchUpstreamRepositoryPoolAndJvmMeters() {
+		// A URI template, so this test's own client metrics are not tagged with the definition either.
+		assertThat(rest.getForEntity("/api/words/search?definition={definition}", String.class, "a private phrase").getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+		assertThat(rest.getForEntity("/api/users", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		ResponseEntity<String> scrape = rest.getForEntity("/actuator/prometheus", String.class);
+
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody())
+				.contains("whatsdaword_search_seconds_bucket{")
+				.contains("whatsdaword_datamuse_upstream_seconds_count{")
+				.contains("host=\"127.0.0.1\"")
+				.contains("http_client_requests_seconds_count{")
+				.contains("client_name=\"127.0.0.1\"")
+				.contains("whatsdaword_datamuse_parse_seconds_count{")
+				.contains("spring_data_repository_invocations_seconds_count{")
+				.contains("repository=\"UserRepository\"")
+				.contains("hikaricp_connections_active{")
+				.contains("jvm_gc_memory_allocated_bytes_total{")
+				.doesNotContain("private phrase")
+				.doesNotContain("private+phrase")
+				.doesNotContain("private%20phrase");
+	}
+
+	private static DatamuseStubServer startStub() {
+		try {
+			return new DatamuseStubServer();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
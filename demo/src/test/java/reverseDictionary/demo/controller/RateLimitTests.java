@@ -0,0 +1,81 @@
+package reverseDictionary.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.BatchSearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-client rate limiting of the search endpoints. Each test is a different client, told apart by
+ * the X-Forwarded-For address.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"whatsdaword.search.engine=local", "whatsdaword.ratelimit.enabled=true",
+		"whatsdaword.ratelimit.client.requests=1", "whatsdaword.ratelimit.client.period=1h",
+		"whatsdaword.ratelimit.client.burst=20", "server.forward-headers-strategy=native"})
+@ActiveProfiles("h2")
+class RateLimitTests {
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	private ResponseEntity<String> search(String client, String path) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Forwarded-For", client);
+		return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+	}
+
+	private ResponseEntity<String> batch(String client, List<String> definitions) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Forwarded-For", client);
+		return rest.exchange("/api/words/search/batch", HttpMethod.POST,
+				new HttpEntity<>(new BatchSearchRequest(definitions, null, null), headers), String.class);
+	}
+
+	@Test
+	void searchesBeyondTheBurstAreRefusedWithRetryAfter() {
+		for (int i = 0; i < 19; i++) {
+			assertThat(search("10.0.0.1", "/api/words/search?definition=fear of heights").getStatusCode())
+					.isEqualTo(HttpStatus.OK);
+		}
+		// Two distinct searches after correction and normalization, one more than the bucket has left.
+		ResponseEntity<String> refusedBatch = batch("10.0.0.1", List.of("fear of heights", "very happy", "Very  happy!", "very hapy"));
+		assertThat(refusedBatch.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		assertThat(search("10.0.0.1", "/api/words/search/async?definition=very happy").getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+		ResponseEntity<String> refused = search("10.0.0.1", "/api/words/search?definition=fear of heights");
+		assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(Long.parseLong(refused.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isPositive();
+
+		// Stats are not rate limited.
+		assertThat(search("10.0.0.1", "/api/words/search/stats").getBody()).contains("\"clientRejections\":2");
+	}
+
+	@Test
+	void batchLargerThanTheBurstIsChargedInFull() {
+		List<String> definitions = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			definitions.add("definition number " + i);
+		}
+		assertThat(batch("10.0.0.2", definitions).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		// The batch ran 100 searches against a bucket of 20, so the client owes 80 more hours of refill.
+		ResponseEntity<String> refused = search("10.0.0.2", "/api/words/search?definition=very happy");
+		assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(Long.parseLong(refused.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isGreaterThan(80 * 3600L);
+		assertThat(batch("10.0.0.2", definitions.subList(0, 1)).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+}
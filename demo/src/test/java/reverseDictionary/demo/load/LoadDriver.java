@@ -0,0 +1,214 @@
+package reverseDictionary.demo.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Replays a weighted mix of HTTP operations at a fixed arrival rate and reports throughput and
+ * latency percentiles per operation.
+ * <p>
+ * The load is open-loop: request {@code i} is due at {@code i / rate} seconds whether or not earlier
+ * requests have answered, and its latency is measured from that due time. A stalled server therefore
+ * shows up as latency instead of silently lowering the offered load (coordinated omission).
+ * During the warmup the rate ramps up linearly from zero, so a cold JVM and empty caches are not
+ * hit with the full load at once; warmup requests are not reported.
+ * Which operation each request runs, and its parameters, come from a seeded random source, so two
+ * runs with the same seed send the same sequence of requests.
+ */
+final class LoadDriver {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+	/**
+	 * One kind of request in the mix.
+	 *
+	 * @param name    Label in the report.
+	 * @param weight  Relative frequency in the mix.
+	 * @param request Builds a request; called on the dispatching thread with the driver's random source.
+	 */
+	record Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+	}
+
+	private final HttpClient client;
+	private final List<Operation> mix;
+	private final int totalWeight;
+	private final double ratePerSecond;
+	private final Duration warmup;
+	private final Duration duration;
+	private final long seed;
+
+	/**
+	 * @param mix           The operations and their weights.
+	 * @param ratePerSecond Requests started per second, across all operations.
+	 * @param warmup        Initial ramp-up period whose requests are sent but not reported.
+	 * @param duration      Measured period after the warmup.
+	 * @param seed          Seed for operation choice and request parameters.
+	 */
+	LoadDriver(HttpClient client, List<Operation> mix, double ratePerSecond, Duration warmup, Duration duration, long seed) {
+		this.client = client;
+		this.mix = List.copyOf(mix);
+		this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+		this.ratePerSecond = ratePerSecond;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.seed = seed;
+	}
+
+	/**
+	 * Sends the load and waits for every request to finish.
+	 */
+	Report run() throws InterruptedException {
+		long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+		long warmupNanos = warmup.toNanos();
+		// Ramping from 0 to the full rate over the warmup sends half as many requests as the full rate would.
+		int warmupRequests = (int) (warmupNanos / intervalNanos / 2);
+		int total = warmupRequests + (int) (duration.toNanos() / intervalNanos);
+		// One slot per request, written only by that request, so recording needs no coordination.
+		int[] operations = new int[total];
+		long[] latencies = new long[total];
+		int[] statuses = new int[total];
+		AtomicIntegerArray failuresLogged = new AtomicIntegerArray(mix.size());
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long start;
+		long lateStarts = 0;
+		try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+			start = System.nanoTime();
+			for (int i = 0; i < total; i++) {
+				long due = start + dueOffsetNanos(i, warmupRequests, warmupNanos, intervalNanos);
+				long wait = due - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				} else if (wait < -intervalNanos) {
+					lateStarts++;
+				}
+				int operation = pick(random);
+				HttpRequest request = mix.get(operation).request().apply(random);
+				int index = i;
+				operations[index] = operation;
+				senders.execute(() -> {
+					try {
+						HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+						statuses[index] = response.statusCode();
+						if ((response.statusCode() < 200 || response.statusCode() >= 300)
+								&& failuresLogged.getAndIncrement(operation) == 0) {
+							log.warn("First failed {}: {} {}", mix.get(operation).name(), response.statusCode(), response.body());
+						}
+					} catch (Exception e) {
+						statuses[index] = -1;
+						if (failuresLogged.getAndIncrement(operation) == 0) {
+							log.warn("First failed {}", mix.get(operation).name(), e);
+						}
+					}
+					latencies[index] = System.nanoTime() - due;
+				});
+			}
+			senders.shutdown();
+			if (!senders.awaitTermination(5, TimeUnit.MINUTES)) {
+				log.warn("Requests still outstanding after five minutes; they are reported as failures");
+			}
+		}
+		long measuredNanos = System.nanoTime() - start - warmupNanos;
+		if (lateStarts > 0) {
+			log.warn("The driver itself fell behind schedule {} times; the offered rate was lower than asked", lateStarts);
+		}
+
+		List<OperationStats> stats = new ArrayList<>(mix.size());
+		for (int op = 0; op < mix.size(); op++) {
+			long[] samples = new long[total - warmupRequests];
+			int count = 0;
+			int errors = 0;
+			for (int i = warmupRequests; i < total; i++) {
+				if (operations[i] == op) {
+					samples[count++] = latencies[i];
+					if (statuses[i] < 200 || statuses[i] >= 300) {
+						errors++;
+					}
+				}
+			}
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			stats.add(new OperationStats(mix.get(op).name(), count, errors, count * 1e9 / measuredNanos,
+					percentileMillis(sorted, 50), percentileMillis(sorted, 99), percentileMillis(sorted, 99.9),
+					percentileMillis(sorted, 100)));
+		}
+		return new Report(ratePerSecond, Duration.ofNanos(measuredNanos), stats);
+	}
+
+	/**
+	 * When request {@code i} is due, relative to the start. While ramping, the requests sent by time
+	 * t are rate * t^2 / (2 * warmup), which solved for t gives the due time of request i.
+	 */
+	private static long dueOffsetNanos(int i, int warmupRequests, long warmupNanos, long intervalNanos) {
+		if (i < warmupRequests) {
+			return (long) Math.sqrt(2.0 * i * intervalNanos * warmupNanos);
+		}
+		return warmupNanos + (i - warmupRequests) * intervalNanos;
+	}
+
+	private int pick(SplittableRandom random) {
+		int ticket = random.nextInt(totalWeight);
+		for (int i = 0; i < mix.size(); i++) {
+			ticket -= mix.get(i).weight();
+			if (ticket < 0) {
+				return i;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private static double percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+
+	/**
+	 * Results of one operation over the measured period. Errors are non-2xx answers and failed exchanges.
+	 */
+	record OperationStats(String name, int requests, int errors, double throughput,
+						  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+	}
+
+	record Report(double offeredRate, Duration measured, List<OperationStats> operations) {
+
+		double throughput() {
+			return operations.stream().mapToDouble(OperationStats::throughput).sum();
+		}
+
+		OperationStats operation(String name) {
+			return operations.stream().filter(op -> op.name().equals(name)).findFirst().orElseThrow();
+		}
+
+		String format() {
+			StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+					"offered %.0f req/s, achieved %.1f req/s over %d s%n", offeredRate, throughput(), measured.toSeconds()));
+			table.append(String.format(Locale.ROOT, "%-16s %9s %7s %10s %9s %9s %9s %9s%n",
+					"operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+			for (OperationStats op : operations) {
+				table.append(String.format(Locale.ROOT, "%-16s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+						op.name(), op.requests(), op.errors(), op.throughput(),
+						op.p50Millis(), op.p99Millis(), op.p999Millis(), op.maxMillis()));
+			}
+			return table.toString();
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package reverseDictionary.demo.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.WhatsdawordApplication;
+import reverseDictionary.demo.load.LoadDriver.Operation;
+import reverseDictionary.demo.load.LoadDriver.Report;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.service.WordService;
+import reverseDictionary.demo.support.DatamuseStubServer;
+import reverseDictionary.demo.support.UpstreamProfile;
+import reverseDictionary.demo.support.UpstreamProfile.Latency;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a realistic mix of traffic against the whole application, backed by an in-memory H2
+ * database and a simulated Datamuse with a long-tailed latency and a small error rate, and reports
+ * throughput and p50/p99/p99.9 latency per operation. Runs offline.
+ * <p>
+ * Searches pick definitions from the bundled dictionary with a Zipf distribution, so popular ones
+ * hit the result cache as they would in production. Study set reads page through seeded sets, and
+ * word adds write to them.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pload -Dtest=MixedTrafficLoadTests}.
+ * Tune with {@code -Dload.rate} (requests per second; the default of 50 is sustainable on a single
+ * core), {@code -Dload.duration} and {@code -Dload.warmup} (seconds; the rate ramps up over the
+ * warmup), {@code -Dload.seed}, {@code -Dload.upstream.median-millis}, {@code -Dload.upstream.p99-millis}
+ * and {@code -Dload.upstream.error-rate}.
+ */
+@Tag("load")
+class MixedTrafficLoadTests {
+
+	private static final Logger log = LoggerFactory.getLogger(MixedTrafficLoadTests.class);
+
+	private static final int RATE = Integer.getInteger("load.rate", 50);
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 30));
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+	private static final long SEED = Long.getLong("load.seed", 17);
+	private static final double UPSTREAM_ERROR_RATE = Double.parseDouble(System.getProperty("load.upstream.error-rate", "0.01"));
+
+	private static final int USERS = 50;
+	private static final int SETS_PER_USER = 4;
+	private static final int WORDS_PER_SET = 100;
+
+	private static DatamuseStubServer stub;
+	private static ConfigurableApplicationContext app;
+	private static final List<Long> userIds = new ArrayList<>();
+	private static final List<Long> studySetIds = new ArrayList<>();
+
+	@BeforeAll
+	static void start() throws Exception {
+		stub = new DatamuseStubServer();
+		stub.setReplies(UpstreamProfile.fixtures("fear-of-heights", "very-happy")
+				.withLatency(Latency.logNormal(Long.getLong("load.upstream.median-millis", 40),
+						Long.getLong("load.upstream.p99-millis", 400)))
+				.withErrors(UPSTREAM_ERROR_RATE, 503)
+				.withSeed(SEED));
+		app = new SpringApplicationBuilder(WhatsdawordApplication.class)
+				.profiles("h2")
+				// Command-line arguments, so they override application.properties.
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:load-mixed;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+						"--logging.level.root=WARN",
+						"--logging.level.reverseDictionary.demo.load=INFO",
+						"--whatsdaword.search.engine=datamuse",
+						"--whatsdaword.datamuse.url=" + stub.getUrl(),
+						"--whatsdaword.http.http2=false");
+		seed();
+	}
+
+	@AfterAll
+	static void stop() {
+		if (app != null) {
+			app.close();
+		}
+		if (stub != null) {
+			stub.close();
+		}
+	}
+
+	private static void seed() {
+		UserRepository users = app.getBean(UserRepository.class);
+		StudySetRepository studySets = app.getBean(StudySetRepository.class);
+		WordService words = app.getBean(WordService.class);
+		for (int u = 0; u < USERS; u++) {
+			User user = new User();
+			user.setUsername("load-user-" + u);
+			user.setPassword("secret");
+			user.setEmail("load-user-" + u + "@example.com");
+			user = users.save(user);
+			userIds.add(user.getId());
+			for (int s = 0; s < SETS_PER_USER; s++) {
+				StudySet set = studySets.save(new StudySet("Set " + s, "Seeded for load", user));
+				studySetIds.add(set.getId());
+				List<Word> batch = new ArrayList<>(WORDS_PER_SET);
+				for (int w = 0; w < WORDS_PER_SET; w++) {
+					batch.add(new Word("word" + w, "n\tseeded definition " + w, null));
+				}
+				words.addWordsToStudySet(batch, set.getId());
+			}
+		}
+	}
+
+	@Test
+	void mixedTrafficMeetsTheOfferedRate() throws Exception {
+		String base = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+		List<String> definitions = definitions();
+		ZipfSampler popularity = new ZipfSampler(definitions.size(), 1.0);
+
+		List<Operation> mix = List.of(
+				new Operation("search", 60, random -> get(base + "/api/words/search?limit=20&definition="
+						+ URLEncoder.encode(definitions.get(popularity.sample(random)), StandardCharsets.UTF_8))),
+				new Operation("studyset-words", 25, random -> get(base + "/api/words/studyset/"
+						+ pick(studySetIds, random) + "?size=50&page=" + random.nextInt(WORDS_PER_SET / 50))),
+				new Operation("user-studysets", 5, random -> get(base + "/api/studysets/user/" + pick(userIds, random))),
+				new Operation("add-word", 10, random -> HttpRequest.newBuilder(
+								URI.create(base + "/api/words/add-to-studyset?studySetId=" + pick(studySetIds, random)))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(
+								"{\"word\":\"added" + random.nextInt(1_000_000) + "\",\"definition\":\"n\\tadded under load\"}"))
+						.build()));
+
+		Report report;
+		try (HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build()) {
+			report = new LoadDriver(client, mix, RATE, WARMUP, DURATION, SEED).run();
+		}
+		log.info("Mixed traffic against a simulated Datamuse (error rate {}):\n{}", UPSTREAM_ERROR_RATE, report.format());
+		log.info("Search stats after the run: {}", app.getBean(WordService.class).getSearchStats());
+
+		assertThat(report.operation("studyset-words").errors()).isZero();
+		assertThat(report.operation("user-studysets").errors()).isZero();
+		assertThat(report.operation("add-word").errors()).isZero();
+		// Injected upstream errors surface as 503s unless the result was already cached.
+		assertThat(report.operation("search").errors())
+				.isLessThanOrEqualTo((int) Math.ceil(report.operation("search").requests() * (UPSTREAM_ERROR_RATE * 2 + 0.01)));
+		assertThat(report.throughput()).isGreaterThan(RATE * 0.9);
+	}
+
+	private static HttpRequest get(String uri) {
+		return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+	}
+
+	private static long pick(List<Long> ids, SplittableRandom random) {
+		return ids.get(random.nextInt(ids.size()));
+	}
+
+	/**
+	 * The glosses of the bundled dictionary, as users would type them.
+	 */
+	private static List<String> definitions() throws Exception {
+		List<String> definitions = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				MixedTrafficLoadTests.class.getResourceAsStream("/dictionary/definitions.tsv"), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				if (!line.startsWith("#") && fields.length == 3) {
+					definitions.add(fields[2]);
+				}
+			}
+		}
+		return definitions;
+	}
+
+	/**
+	 * Picks ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+	 */
+	private static final class ZipfSampler {
+
+		private final double[] cumulative;
+
+		ZipfSampler(int n, double exponent) {
+			cumulative = new double[n];
+			double sum = 0;
+			for (int rank = 0; rank < n; rank++) {
+				sum += 1 / Math.pow(rank + 1, exponent);
+				cumulative[rank] = sum;
+			}
+			for (int rank = 0; rank < n; rank++) {
+				cumulative[rank] /= sum;
+			}
+		}
+
+		int sample(SplittableRandom random) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble());
+			return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package reverseDictionary.demo.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reverseDictionary.demo.WhatsdawordApplication;
+import reverseDictionary.demo.config.PerHostLimitInterceptor;
+import reverseDictionary.demo.support.DatamuseStubServer;
+import reverseDictionary.demo.support.DatamuseStubServer.Reply;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires many concurrent searches at a slow upstream, once with Tomcat on its default pool of 200
+ * platform threads and once in virtual-thread mode, and compares how many upstream calls were in
+ * flight at once. Wall time and latency percentiles are logged; they are not asserted because they
+ * depend heavily on the number of cores.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pload}. Each in-flight search holds
+ * four sockets (client, Tomcat, outbound, stub), so the default of 5000 needs a file-descriptor
+ * limit above 20000; lower it with {@code -Dload.concurrency=...} if needed.
+ */
+@Tag("load")
+class VirtualThreadLoadTests {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTests.class);
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 5000);
+	private static final long UPSTREAM_DELAY_MILLIS = Long.getLong("load.upstream-delay-millis", 500);
+	private static final int TOMCAT_MAX_THREADS = 200;
+
+	private static DatamuseStubServer stub;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = new DatamuseStubServer();
+		stub.setReplies(call -> Reply.delayed(UPSTREAM_DELAY_MILLIS));
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@Test
+	void virtualThreadsServeSlowSearchesWithoutQueueing() throws Exception {
+		Result platform = run(false);
+		Result virtual = run(true);
+
+		log.info("{} concurrent searches, upstream delay {} ms", CONCURRENCY, UPSTREAM_DELAY_MILLIS);
+		log.info("platform threads: {}", platform);
+		log.info("virtual threads:  {}", virtual);
+
+		assertThat(platform.failures()).isZero();
+		assertThat(virtual.failures()).isZero();
+		// Each platform request thread waits on its own upstream call, so the pool size caps them.
+		assertThat(platform.peakUpstreamCalls()).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+		if (CONCURRENCY > TOMCAT_MAX_THREADS) {
+			assertThat(virtual.peakUpstreamCalls()).isGreaterThan(TOMCAT_MAX_THREADS);
+		}
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		String mode = virtualThreads ? "virtual" : "platform";
+		try (ConfigurableApplicationContext app = new SpringApplicationBuilder(WhatsdawordApplication.class)
+				.profiles("h2")
+				// Command-line arguments, so they override application.properties.
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+						"--spring.threads.virtual.enabled=" + virtualThreads,
+						"--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+						"--server.tomcat.max-connections=" + (CONCURRENCY + 100),
+						"--server.tomcat.accept-count=" + (CONCURRENCY + 100),
+						"--whatsdaword.search.engine=datamuse",
+						"--whatsdaword.datamuse.url=" + stub.getUrl(),
+						"--whatsdaword.search.cache.enabled=false",
+						"--whatsdaword.datamuse.latency-budget=5m",
+						"--whatsdaword.datamuse.bulkhead.max-concurrent=" + CONCURRENCY,
+						"--whatsdaword.datamuse.bulkhead.max-wait=5m",
+						"--whatsdaword.http.http2=false",
+						"--whatsdaword.http.read-timeout=5m",
+						"--whatsdaword.http.max-connections-per-host=" + CONCURRENCY,
+						"--whatsdaword.http.acquire-timeout=5m")) {
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			Result result = drive("http://127.0.0.1:" + port + "/api/words/search?definition=", mode);
+			Map<?, ?> upstream = (Map<?, ?>) app.getBean(PerHostLimitInterceptor.class).stats().get("127.0.0.1");
+			return result.withPeakUpstreamCalls((Integer) upstream.get("peak"));
+		}
+	}
+
+	private static Result drive(String baseUrl, String mode) throws InterruptedException {
+		long[] latencies = new long[CONCURRENCY];
+		AtomicInteger failures = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		long begin;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+			 HttpClient client = HttpClient.newBuilder()
+					 .version(HttpClient.Version.HTTP_1_1)
+					 .connectTimeout(Duration.ofMinutes(1))
+					 .build()) {
+			for (int i = 0; i < CONCURRENCY; i++) {
+				int index = i;
+				// Distinct definitions so no two requests are coalesced.
+				URI uri = URI.create(baseUrl + URLEncoder.encode(mode + " slow search " + i, StandardCharsets.UTF_8));
+				clients.execute(() -> {
+					try {
+						start.await();
+						long sent = System.nanoTime();
+						HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+								HttpResponse.BodyHandlers.ofString());
+						latencies[index] = System.nanoTime() - sent;
+						if (response.statusCode() != 200 && failures.getAndIncrement() == 0) {
+							log.warn("First failed request: {} {}", response.statusCode(), response.body());
+						}
+					} catch (Exception e) {
+						if (failures.getAndIncrement() == 0) {
+							log.warn("First failed request", e);
+						}
+					}
+				});
+			}
+			begin = System.nanoTime();
+			start.countDown();
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.MINUTES);
+		}
+		long elapsed = System.nanoTime() - begin;
+		Arrays.sort(latencies);
+		return new Result(elapsed / 1_000_000, failures.get(), percentileMillis(latencies, 50),
+				percentileMillis(latencies, 99), percentileMillis(latencies, 99.9), 0);
+	}
+
+	private static long percentileMillis(long[] sorted, double percentile) {
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1_000_000;
+	}
+
+	private record Result(long elapsedMillis, int failures, long p50Millis, long p99Millis, long p999Millis,
+						  int peakUpstreamCalls) {
+
+		Result withPeakUpstreamCalls(int peak) {
+			return new Result(elapsedMillis, failures, p50Millis, p99Millis, p999Millis, peak);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package reverseDictionary.demo.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.config.SecondLevelCacheConfig;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.service.DictionaryCorpus;
+import reverseDictionary.demo.service.SearchResultCache;
+import reverseDictionary.demo.service.SuggestionService;
+import reverseDictionary.demo.service.WordService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compares the bulk add path with adding the same words one request at a time.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@Import(SecondLevelCacheConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BulkInsertTests {
+
+	private static final Logger log = LoggerFactory.getLogger(BulkInsertTests.class);
+	private static final int WORDS = 200;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private WordRepository wordRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	private WordService wordService;
+	private Statistics statistics;
+	private Long studySetId;
+
+	@BeforeEach
+	void setUp() {
+		SearchResultCache cache = new SearchResultCache(false, 1, DataSize.ofKilobytes(1), Duration.ZERO, Duration.ZERO, false, null);
+		SuggestionService suggestions = new SuggestionService(
+				new DictionaryCorpus(new DefaultResourceLoader(), "classpath:dictionary/definitions.tsv"),
+				wordRepository, 10, 100, 100, Duration.ofMinutes(1));
+		wordService = new WordService(wordRepository, studySetRepository, null, cache, new SimpleMeterRegistry(), suggestions,
+				Duration.ofSeconds(1), 100, 1000);
+
+		User owner = new User();
+		owner.setUsername("teacher");
+		owner.setPassword("secret");
+		owner.setEmail("teacher@example.com");
+		entityManager.persist(owner);
+		StudySet set = new StudySet("Vocabulary", "Pasted list", owner);
+		entityManager.persist(set);
+		studySetId = set.getId();
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void bulkAddBatchesTheInserts() {
+		long perWordStart = System.nanoTime();
+		for (Word word : words("single")) {
+			wordService.addWordToStudySet(word, studySetId);
+			// Each word used to be its own request: flush its insert and start from an empty context.
+			entityManager.flush();
+			entityManager.clear();
+		}
+		long perWordNanos = System.nanoTime() - perWordStart;
+		long perWordStatements = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		long bulkStart = System.nanoTime();
+		List<Word> saved = wordService.addWordsToStudySet(words("bulk"), studySetId);
+		entityManager.flush();
+		long bulkNanos = System.nanoTime() - bulkStart;
+		long bulkStatements = statistics.getPrepareStatementCount();
+
+		log.info("{} words: per-word {} statements in {} ms, bulk {} statements in {} ms", WORDS,
+				perWordStatements, perWordNanos / 1_000_000, bulkStatements, bulkNanos / 1_000_000);
+
+		assertThat(saved).hasSize(WORDS).allSatisfy(word -> assertThat(word.getId()).isNotNull());
+		assertThat(wordRepository.count()).isEqualTo(2L * WORDS);
+		// Per word: a lookup of the set and an insert. Bulk: one locking read and one version update
+		// of the set, one sequence call per 50 ids and one prepared insert per batch of 50.
+		assertThat(perWordStatements).isGreaterThanOrEqualTo(2L * WORDS);
+		assertThat(bulkStatements).isLessThanOrEqualTo(1 + 2 * (WORDS / 50) + 1);
+	}
+
+	@Test
+	void bulkAddRejectsAMissingSetBeforeWriting() {
+		assertThatThrownBy(() -> wordService.addWordsToStudySet(words("orphan"), -1L))
+				.hasMessage("Study set not found.");
+		assertThat(wordRepository.count()).isZero();
+	}
+
+	@Test
+	void bulkAddRejectsBlankWords() {
+		List<Word> words = words("blank");
+		words.get(3).setWord(" ");
+
+		assertThatThrownBy(() -> wordService.addWordsToStudySet(words, studySetId))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+
+	private static List<Word> words(String prefix) {
+		List<Word> words = new ArrayList<>(WORDS);
+		for (int i = 0; i < WORDS; i++) {
+			words.add(new Word(prefix + i, "definition " + i, null));
+		}
+		return words;
+	}
+}
@@ -0,0 +1,121 @@
+package reverseDictionary.demo.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.config.SecondLevelCacheConfig;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.model.WordSummary;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts that the study set read models are fetched in a constant number of SQL statements,
+ * however many sets and words there are.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@Import(SecondLevelCacheConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FetchPlanTests {
+
+	private static final int SETS = 12;
+	private static final int WORDS_PER_SET = 8;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	@Autowired
+	private WordRepository wordRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private Statistics statistics;
+	private User owner;
+	private Long firstSetId;
+
+	@BeforeEach
+	void setUp() {
+		owner = new User();
+		owner.setUsername("teacher");
+		owner.setPassword("secret");
+		owner.setEmail("teacher@example.com");
+		entityManager.persist(owner);
+		for (int i = 0; i < SETS; i++) {
+			StudySet set = new StudySet("Set " + i, "Description " + i, owner);
+			for (int j = 0; j < WORDS_PER_SET; j++) {
+				set.getWords().add(new Word("word" + i + "_" + j, "definition", set));
+			}
+			entityManager.persist(set);
+			if (i == 0) {
+				firstSetId = set.getId();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void summariesAreOneStatementForAnyNumberOfSets() throws Exception {
+		List<StudySetSummary> summaries = studySetRepository.findSummariesByUserId(owner.getId(), 0L, Limit.of(100));
+		objectMapper.writeValueAsString(summaries);
+
+		assertThat(summaries).hasSize(SETS).allSatisfy(summary -> assertThat(summary.wordCount()).isEqualTo(WORDS_PER_SET));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void setWithWordsIsOneStatementIncludingSerialization() throws Exception {
+		StudySet set = studySetRepository.findWithWordsById(firstSetId).orElseThrow();
+		String json = objectMapper.writeValueAsString(set);
+
+		assertThat(set.getWords()).hasSize(WORDS_PER_SET);
+		assertThat(json).contains("\"username\":\"teacher\"");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void lazyOwnerIsNotLoadedWhenOnlyTheSetIsRead() {
+		studySetRepository.findById(firstSetId).orElseThrow();
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void wordPageIsOneStatementWithoutLoadingTheSet() {
+		Slice<WordSummary> first = wordRepository.findByStudySetId(firstSetId,
+				PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "word").and(Sort.by("id"))));
+		Slice<WordSummary> second = wordRepository.findByStudySetId(firstSetId, first.nextPageable());
+
+		assertThat(first.getContent()).extracting(WordSummary::word)
+				.containsExactly("word0_7", "word0_6", "word0_5", "word0_4", "word0_3");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent()).hasSize(WORDS_PER_SET - 5);
+		assertThat(second.hasNext()).isFalse();
+		// One statement per page: no count query, and the study set itself is never loaded.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+}
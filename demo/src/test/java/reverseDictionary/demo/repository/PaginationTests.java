@@ -0,0 +1,95 @@
+package reverseDictionary.demo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.config.SecondLevelCacheConfig;
+import reverseDictionary.demo.model.CursorPage;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.StudySetSummary;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.service.StudySetService;
+import reverseDictionary.demo.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(SecondLevelCacheConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PaginationTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	private UserService userService;
+	private StudySetService studySetService;
+	private User owner;
+
+	@BeforeEach
+	void setUp() {
+		userService = new UserService(userRepository, 10);
+		studySetService = new StudySetService(studySetRepository, userRepository, 10);
+		for (int i = 0; i < 25; i++) {
+			User user = new User();
+			user.setUsername("user" + i);
+			user.setPassword("secret");
+			user.setEmail("user" + i + "@example.com");
+			userRepository.save(user);
+			if (i == 0) {
+				owner = user;
+			}
+		}
+		for (int i = 0; i < 7; i++) {
+			studySetRepository.save(new StudySet("Set " + i, "Words " + i, owner));
+		}
+	}
+
+	@Test
+	void walksEveryUserOnceInIdOrder() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPage<User> page = userService.getUsers(cursor, 10);
+			page.items().forEach(user -> seen.add(user.getId()));
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).hasSize(25).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void capsThePageSize() {
+		assertThat(userService.getUsers(null, 1_000).items()).hasSize(10);
+	}
+
+	@Test
+	void pagesAUsersStudySets() {
+		CursorPage<StudySetSummary> first = studySetService.getStudySetsByUserId(owner.getId(), null, 5);
+		CursorPage<StudySetSummary> second = studySetService.getStudySetsByUserId(owner.getId(), first.nextCursor(), 5);
+
+		assertThat(first.items()).hasSize(5);
+		assertThat(second.items()).hasSize(2);
+		assertThat(second.nextCursor()).isNull();
+	}
+
+	@Test
+	void rejectsTamperedCursors() {
+		assertThatThrownBy(() -> userService.getUsers("not-a-cursor", 10)).isInstanceOf(ResponseStatusException.class);
+	}
+}
@@ -0,0 +1,152 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.BatchSearchRequest;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchSearchServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Answers after a short delay, failing for definitions containing "fail", and records how many
+	 * searches ran and how many overlapped.
+	 */
+	private static final class SlowEngine implements WordSearchEngine {
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger peak = new AtomicInteger();
+		final Executor delayed = CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS);
+
+		@Override
+		public List<WordMatch> search(SearchQuery query) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public CompletableFuture<List<WordMatch>> searchAsync(SearchQuery query) {
+			calls.incrementAndGet();
+			peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			return CompletableFuture.supplyAsync(() -> {
+				inFlight.decrementAndGet();
+				if (query.definition().contains("fail")) {
+					throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upstream unavailable");
+				}
+				return List.of(new WordMatch(1, "word-for-" + query.normalizedDefinition(), "", 100, List.of(), List.of()));
+			}, delayed);
+		}
+	}
+
+	private BatchSearchService service(WordSearchEngine engine, int maxConcurrency) {
+		return service(engine, maxConcurrency, false);
+	}
+
+	private BatchSearchService service(WordSearchEngine engine, int maxConcurrency, boolean spellcheck) {
+		SearchResultCache cache = new SearchResultCache(false, 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, null);
+		WordService wordService = new WordService(null, null, engine, cache, new SimpleMeterRegistry(), null, Duration.ofSeconds(5), 100, 1000);
+		DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+		DictionaryCorpus corpus = new DictionaryCorpus(resourceLoader, "classpath:dictionary/definitions.tsv");
+		SpellingCorrector spellingCorrector = new SpellingCorrector(corpus, resourceLoader, new SimpleMeterRegistry(), spellcheck, 2,
+				"classpath:spelling/words.txt");
+		return new BatchSearchService(wordService, objectMapper, spellingCorrector, maxConcurrency, 10);
+	}
+
+	private List<JsonNode> run(BatchSearchService service, String... definitions) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BatchSearchRequest request = new BatchSearchRequest(new ArrayList<>(Arrays.asList(definitions)), null, 5);
+		service.checkRequest(request);
+		service.searchBatch(request, out);
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	@Test
+	void duplicatesAreSearchedOnceAndEveryEntryGetsAResult() throws IOException {
+		SlowEngine engine = new SlowEngine();
+		List<JsonNode> lines = run(service(engine, 8), "Very happy", "sad", "very  HAPPY!");
+
+		assertThat(engine.calls).hasValue(2);
+		assertThat(lines).hasSize(3);
+		Map<Integer, JsonNode> byIndex = new HashMap<>();
+		lines.forEach(line -> byIndex.put(line.get("index").asInt(), line));
+		assertThat(byIndex.get(0).get("words").get(0).get("word").asText()).isEqualTo("word-for-very happy");
+		assertThat(byIndex.get(2).get("words")).isEqualTo(byIndex.get(0).get("words"));
+		assertThat(byIndex.get(2).get("definition").asText()).isEqualTo("very  HAPPY!");
+	}
+
+	@Test
+	void misspelledDefinitionsAreCorrectedBeforeDeduplication() throws IOException {
+		SlowEngine engine = new SlowEngine();
+		List<JsonNode> lines = run(service(engine, 8, true), "fear of hieghts", "Fear of heights");
+
+		assertThat(engine.calls).hasValue(1);
+		Map<Integer, JsonNode> byIndex = new HashMap<>();
+		lines.forEach(line -> byIndex.put(line.get("index").asInt(), line));
+		assertThat(byIndex.get(0).get("corrected").asText()).isEqualTo("fear of heights");
+		assertThat(byIndex.get(0).get("words").get(0).get("word").asText()).isEqualTo("word-for-fear of heights");
+		assertThat(byIndex.get(1).has("corrected")).isFalse();
+	}
+
+	@Test
+	void failuresAreReportedPerEntry() throws IOException {
+		List<JsonNode> lines = run(service(new SlowEngine(), 8), "please fail", "happy", " ");
+
+		Map<Integer, JsonNode> byIndex = new HashMap<>();
+		lines.forEach(line -> byIndex.put(line.get("index").asInt(), line));
+		assertThat(byIndex.get(0).get("status").asInt()).isEqualTo(503);
+		assertThat(byIndex.get(0).get("error").asText()).isEqualTo("Upstream unavailable");
+		assertThat(byIndex.get(0).has("words")).isFalse();
+		assertThat(byIndex.get(1).get("status").asInt()).isEqualTo(200);
+		assertThat(byIndex.get(2).get("status").asInt()).isEqualTo(400);
+	}
+
+	@Test
+	void concurrencyIsBounded() throws IOException {
+		SlowEngine engine = new SlowEngine();
+		List<JsonNode> lines = run(service(engine, 2), "a", "b", "c", "d", "e", "f");
+
+		assertThat(lines).hasSize(6);
+		assertThat(engine.calls).hasValue(6);
+		assertThat(engine.peak.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void rejectsOversizedOrEmptyBatches() {
+		BatchSearchService service = service(new SlowEngine(), 8);
+
+		assertThatThrownBy(() -> service.checkRequest(new BatchSearchRequest(List.of(), null, null)))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> service.checkRequest(new BatchSearchRequest(List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k"), null, null)))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> service.checkRequest(new BatchSearchRequest(List.of("a"), 999, 5)))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+}
@@ -0,0 +1,66 @@
+package reverseDictionary.demo.service;
+
+import org.junit.jupiter.api.Test;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatamuseResponseParserTests {
+
+	private static final String BODY = """
+			[
+			  {"word":"elated","score":3001,"tags":["syn","adj","results_type:primary_rel"],
+			   "defs":["adj\\tvery happy and excited","adj\\texultantly proud and joyful"]},
+			  {"word":"glad","score":2900,"tags":["adj"],"defs":["adj\\tshowing or causing joy"]},
+			  {"word":"joyful","score":2800,"tags":["adj"]},
+			  {"word":"euphoric","score":2700,"tags":["adj"],"defs":["adj\\tintensely happy"]}
+			]
+			""";
+
+	private static InputStream body(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void keepsScorePartsOfSpeechAndEveryDefinition() throws IOException {
+		WordMatch elated = DatamuseResponseParser.parse(body(BODY), 0, 10).get(0);
+
+		assertThat(elated.id()).isEqualTo(1);
+		assertThat(elated.word()).isEqualTo("elated");
+		assertThat(elated.score()).isEqualTo(3001);
+		assertThat(elated.partsOfSpeech()).containsExactly("adj");
+		assertThat(elated.definitions()).hasSize(2);
+		assertThat(elated.definition()).isEqualTo("adj\tvery happy and excited");
+	}
+
+	@Test
+	void returnsOnlyTheRequestedWindowWithAbsoluteRanks() throws IOException {
+		List<WordMatch> window = DatamuseResponseParser.parse(body(BODY), 1, 2);
+
+		assertThat(window).extracting(WordMatch::word).containsExactly("glad", "joyful");
+		assertThat(window).extracting(WordMatch::id).containsExactly(2, 3);
+		assertThat(window.get(1).definition()).isEqualTo("No definition available");
+	}
+
+	@Test
+	void stopsReadingOnceTheWindowIsFull() throws IOException {
+		// Everything after the first entry is malformed; it must never be read.
+		String truncated = "[{\"word\":\"elated\",\"score\":1},{\"word\":";
+
+		assertThat(DatamuseResponseParser.parse(body(truncated), 0, 1)).extracting(WordMatch::word).containsExactly("elated");
+	}
+
+	@Test
+	void handlesEmptyBodiesAndRejectsNonArrays() throws IOException {
+		assertThat(DatamuseResponseParser.parse(body(""), 0, 10)).isEmpty();
+		assertThat(DatamuseResponseParser.parse(body("[]"), 0, 10)).isEmpty();
+		assertThatThrownBy(() -> DatamuseResponseParser.parse(body("{\"error\":1}"), 0, 10)).isInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,183 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.config.AppConfig;
+import reverseDictionary.demo.config.PerHostLimitInterceptor;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.support.DatamuseStubServer;
+import reverseDictionary.demo.support.DatamuseStubServer.Reply;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatamuseSearchEngineTests {
+
+	private DatamuseStubServer stub;
+	private HttpClient httpClient;
+	private RestTemplate restTemplate;
+	private PerHostLimitInterceptor limiter;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new DatamuseStubServer();
+		meterRegistry = new SimpleMeterRegistry();
+		AppConfig config = new AppConfig();
+		limiter = config.perHostLimitInterceptor(64, Duration.ofSeconds(1));
+		httpClient = config.outboundHttpClient(Duration.ofSeconds(1), false, false);
+		restTemplate = config.restTemplate(new RestTemplateBuilder(), httpClient, limiter, Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		stub.close();
+	}
+
+	private DatamuseSearchEngine engine(Duration budget, int maxConcurrent, boolean hedging) {
+		return new DatamuseSearchEngine(restTemplate, httpClient, limiter, meterRegistry, Duration.ofSeconds(5), stub.getUrl(), budget, maxConcurrent, Duration.ofMillis(10),
+				10, 4, 50, Duration.ofSeconds(30), hedging, 95, Duration.ofMillis(100), true);
+	}
+
+	@Test
+	void returnsWordsFromTheUpstream() {
+		assertThat(engine(Duration.ofSeconds(2), 4, false).search(SearchQuery.of("very happy")))
+				.singleElement()
+				.satisfies(word -> {
+					assertThat(word.word()).isEqualTo("elated");
+					assertThat(word.score()).isEqualTo(100);
+					assertThat(word.partsOfSpeech()).containsExactly("adj");
+				});
+	}
+
+	@Test
+	void upstreamCallsAndParsingAreTimedByHostAndStatus() throws Exception {
+		stub.setReplies(call -> call == 0 ? Reply.ok() : Reply.error(404));
+		DatamuseSearchEngine engine = engine(Duration.ofSeconds(2), 4, false);
+
+		engine.search(SearchQuery.of("very happy"));
+		assertThatThrownBy(() -> engine.searchAsync(SearchQuery.of("very sad")).join());
+
+		assertThat(meterRegistry.get("whatsdaword.datamuse.upstream")
+				.tags("host", "127.0.0.1", "mode", "sync", "status", "200", "outcome", "SUCCESSFUL").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("whatsdaword.datamuse.upstream")
+				.tags("mode", "async", "status", "404", "outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("whatsdaword.datamuse.parse").tag("mode", "sync").timer().count()).isEqualTo(1);
+		// The definition is never a tag value.
+		assertThat(meterRegistry.getMeters()).allSatisfy(meter ->
+				assertThat(meter.getId().getTags()).noneMatch(tag -> tag.getValue().contains("happy") || tag.getValue().contains("sad")));
+	}
+
+	@Test
+	void slowUpstreamIsCutOffAtTheLatencyBudget() {
+		stub.setReplies(call -> Reply.delayed(2_000));
+		DatamuseSearchEngine engine = engine(Duration.ofMillis(200), 4, false);
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> engine.search(SearchQuery.of("very happy")))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_000));
+	}
+
+	@Test
+	void circuitOpensAfterRepeatedErrorsAndFailsFast() {
+		stub.setReplies(call -> Reply.error(500));
+		DatamuseSearchEngine engine = engine(Duration.ofSeconds(2), 4, false);
+
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> engine.search(SearchQuery.of("very happy"))).isInstanceOf(ResponseStatusException.class);
+		}
+		int callsWhenOpened = stub.getCallCount();
+
+		assertThatThrownBy(() -> engine.search(SearchQuery.of("very happy")))
+				.isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+					assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+					assertThat(e.getReason()).contains("temporarily degraded");
+				});
+		assertThat(stub.getCallCount()).isEqualTo(callsWhenOpened);
+		assertThat(engine.stats().get("circuitBreaker")).asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("state", "OPEN");
+	}
+
+	@Test
+	void bulkheadRejectsSearchesBeyondTheConcurrencyCap() throws Exception {
+		stub.setReplies(call -> Reply.delayed(500));
+		DatamuseSearchEngine engine = engine(Duration.ofSeconds(2), 1, false);
+
+		CompletableFuture<?> first = CompletableFuture.runAsync(() -> engine.search(SearchQuery.of("very happy")));
+		while ((int) engine.stats().get("bulkheadInUse") == 0) {
+			Thread.sleep(5);
+		}
+		assertThatThrownBy(() -> engine.search(SearchQuery.of("very sad")))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+		first.get();
+		assertThat(engine.stats()).containsEntry("bulkheadRejected", 1L);
+	}
+
+	@Test
+	void hedgedCallAnswersWhenTheFirstIsSlow() {
+		// The first call stalls; the hedge sent after the minimum delay answers immediately.
+		stub.setReplies(call -> call == 0 ? Reply.delayed(3_000) : Reply.ok());
+		DatamuseSearchEngine engine = engine(Duration.ofSeconds(2), 4, true);
+
+		long start = System.nanoTime();
+		assertThat(engine.search(SearchQuery.of("very happy"))).hasSize(1);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_000));
+		Map<String, Object> stats = engine.stats();
+		assertThat(stats).containsEntry("hedgesSent", 1L).containsEntry("hedgesWon", 1L);
+	}
+
+	@Test
+	void asyncSearchReturnsWordsFromTheUpstream() throws Exception {
+		assertThat(engine(Duration.ofSeconds(2), 4, false).searchAsync(SearchQuery.of("very happy")).get())
+				.singleElement()
+				.satisfies(word -> assertThat(word.word()).isEqualTo("elated"));
+	}
+
+	@Test
+	void asyncSearchIsCutOffAtTheLatencyBudget() {
+		stub.setReplies(call -> Reply.delayed(2_000));
+		CompletableFuture<?> search = engine(Duration.ofMillis(200), 4, false).searchAsync(SearchQuery.of("very happy"));
+
+		assertThat(search).failsWithin(Duration.ofSeconds(1))
+				.withThrowableOfType(ExecutionException.class)
+				.havingCause()
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+	}
+
+	@Test
+	void cancellingAnAsyncSearchFreesItsCapacityAtOnce() {
+		stub.setReplies(call -> Reply.delayed(5_000));
+		DatamuseSearchEngine engine = engine(Duration.ofSeconds(10), 1, false);
+		CompletableFuture<?> search = engine.searchAsync(SearchQuery.of("very happy"));
+		assertThat(engine.stats()).containsEntry("bulkheadInUse", 1);
+
+		search.cancel(true);
+
+		Map<String, Object> stats = engine.stats();
+		assertThat(stats).containsEntry("bulkheadInUse", 0).containsEntry("asyncCancelled", 1L)
+				.containsEntry("pendingDeadlines", 0);
+		assertThat(stats.get("connections")).asInstanceOf(InstanceOfAssertFactories.MAP)
+				.extractingByKey("127.0.0.1").asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("inUse", 0);
+		// The slot is free for the next search right away, not after the upstream would have answered.
+		stub.setReplies(call -> Reply.ok());
+		assertThat(engine.search(SearchQuery.of("very sad"))).hasSize(1);
+	}
+}
@@ -0,0 +1,70 @@
+package reverseDictionary.demo.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalSearchEngineTests {
+
+	private static LocalSearchEngine engine;
+
+	@BeforeAll
+	static void buildIndex() {
+		DictionaryCorpus corpus = new DictionaryCorpus(new DefaultResourceLoader(), "classpath:dictionary/definitions.tsv");
+		engine = new LocalSearchEngine(corpus);
+	}
+
+	@Test
+	void ranksBestMatchingGlossFirst() {
+		List<WordMatch> results = engine.search(SearchQuery.of("fear of heights"));
+
+		assertThat(results).isNotEmpty();
+		WordMatch best = results.get(0);
+		assertThat(best.id()).isEqualTo(1);
+		assertThat(best.word()).isEqualTo("acrophobia");
+		assertThat(best.definition()).startsWith("n\t");
+		assertThat(best.partsOfSpeech()).containsExactly("n");
+		assertThat(best.score()).isGreaterThan(results.get(1).score());
+	}
+
+	@Test
+	void foldsContractionsAndInflections() {
+		assertThat(engine.search(SearchQuery.of("someone who can't sleep")).get(0).word()).isEqualTo("insomniac");
+	}
+
+	@Test
+	void returnsTheRequestedWindowWithOneRowPerHeadword() {
+		List<WordMatch> all = engine.search(new SearchQuery("a person who", 0, 20));
+		List<WordMatch> window = engine.search(new SearchQuery("a person who", 5, 10));
+
+		assertThat(all).hasSize(20);
+		assertThat(all.stream().map(WordMatch::word).distinct()).hasSameSizeAs(all);
+		assertThat(window).hasSize(10);
+		assertThat(window).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(all.subList(5, 15));
+	}
+
+	@Test
+	void rejectsQueriesWithNoMatchingTerms() {
+		assertThatThrownBy(() -> engine.search(SearchQuery.of("zzzz qqqq"))).isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	void answersInSingleDigitMilliseconds() {
+		for (int i = 0; i < 1_000; i++) {
+			engine.search(SearchQuery.of("very happy"));
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < 100; i++) {
+			engine.search(SearchQuery.of("someone who walks while asleep at night"));
+		}
+		long averageMicros = (System.nanoTime() - start) / 100 / 1_000;
+		assertThat(averageMicros).isLessThan(10_000);
+	}
+}
@@ -0,0 +1,78 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchRateLimiterTests {
+
+	private static SearchRateLimiter limiter(long clientBurst, long globalBurst, int maxClients) {
+		// Refills are an hour apart, so nothing refills during a test.
+		return new SearchRateLimiter(new SimpleMeterRegistry(), true,
+				1, Duration.ofHours(1), clientBurst, 1, Duration.ofHours(1), globalBurst,
+				maxClients, Duration.ofHours(1), false);
+	}
+
+	@Test
+	void eachClientHasItsOwnBucket() {
+		SearchRateLimiter limiter = limiter(2, 100, 100);
+
+		assertThat(limiter.tryAcquire("alice", "10.0.0.1", 1)).isZero();
+		assertThat(limiter.tryAcquire("alice", "10.0.0.2", 1)).isZero();
+		assertThat(limiter.tryAcquire("alice", "10.0.0.1", 1)).isPositive();
+		// Same address, but anonymous: a different bucket.
+		assertThat(limiter.tryAcquire(null, "10.0.0.1", 2)).isZero();
+		assertThat(limiter.tryAcquire("bob", "10.0.0.1", 1)).isZero();
+
+		assertThat(limiter.stats()).containsEntry("userBuckets", 2).containsEntry("addressBuckets", 1)
+				.containsEntry("clientRejections", 1L);
+	}
+
+	@Test
+	void globalBucketLimitsAllClientsAndRefundsTheClient() {
+		SearchRateLimiter limiter = limiter(2, 3, 100);
+
+		assertThat(limiter.tryAcquire(null, "10.0.0.1", 2)).isZero();
+		assertThat(limiter.tryAcquire(null, "10.0.0.2", 1)).isZero();
+		assertThat(limiter.tryAcquire(null, "10.0.0.2", 1)).isPositive();
+		assertThat(limiter.stats()).containsEntry("globalRejections", 1L);
+
+		// The refused search was not charged to 10.0.0.2, which still has a token left.
+		limiter.sweep();
+		assertThat(limiter.stats()).containsEntry("addressBuckets", 2);
+	}
+
+	@Test
+	void rejectionCarriesRetryAfter() {
+		SearchRateLimiter limiter = limiter(1, 100, 100);
+		limiter.acquire(null, "10.0.0.1", 1);
+
+		assertThatThrownBy(() -> limiter.acquire(null, "10.0.0.1", 1))
+				.isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+					assertThat(e.getStatusCode().value()).isEqualTo(429);
+					assertThat(Long.parseLong(e.getHeaders().getFirst("Retry-After"))).isBetween(3_599L, 3_600L);
+				});
+	}
+
+	@Test
+	void refilledBucketsAreSweptAndClientsBeyondTheCapShareOverflowBuckets() {
+		SearchRateLimiter limiter = new SearchRateLimiter(new SimpleMeterRegistry(), true,
+				1_000_000, Duration.ofSeconds(1), 1, 1, Duration.ofHours(1), 1_000_000, 2, Duration.ofHours(1), false);
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(null, "10.0.0." + i, 1);
+		}
+		assertThat(limiter.stats()).containsEntry("addressBuckets", 2);
+
+		// One token per microsecond: every bucket is full again almost at once.
+		long deadline = System.nanoTime() + 1_000_000_000;
+		while ((Integer) limiter.stats().get("addressBuckets") > 0 && System.nanoTime() < deadline) {
+			limiter.sweep();
+		}
+		assertThat(limiter.stats()).containsEntry("addressBuckets", 0);
+	}
+}
@@ -0,0 +1,103 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchResultCacheTests {
+
+	@TempDir
+	Path directory;
+
+	private static List<WordMatch> result(String word) {
+		return List.of(new WordMatch(1, word, "n\tgloss", 100, List.of("n"), List.of("n\tgloss")));
+	}
+
+	@Test
+	void normalizedDefinitionsShareAnEntry() {
+		SearchResultCache cache = new SearchResultCache(true, 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, null);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(SearchQuery.of("Fear of  Heights!").key(), () -> { loads.incrementAndGet(); return result("acrophobia"); });
+		List<WordMatch> second = cache.get(SearchQuery.of("fear of heights").key(), () -> { loads.incrementAndGet(); return result("other"); });
+
+		assertThat(loads).hasValue(1);
+		assertThat(second.get(0).word()).isEqualTo("acrophobia");
+		assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+	}
+
+	@Test
+	void servesStaleEntryWhileRefreshingInBackground() throws InterruptedException {
+		SearchResultCache cache = new SearchResultCache(true, 100, DataSize.ofMegabytes(1), Duration.ofMillis(20), Duration.ofMinutes(1), false, null);
+		cache.get("very happy", () -> result("elated"));
+		Thread.sleep(40);
+
+		List<WordMatch> stale = cache.get("very happy", () -> result("ecstatic"));
+		assertThat(stale.get(0).word()).isEqualTo("elated");
+
+		long deadline = System.currentTimeMillis() + 2_000;
+		while ((Long) cache.stats().get("refreshes") == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(cache.get("very happy", () -> result("unused")).get(0).word()).isEqualTo("ecstatic");
+		assertThat(cache.stats()).containsEntry("staleHits", 1L);
+	}
+
+	@Test
+	void failedLoadsAreNotCached() {
+		SearchResultCache cache = new SearchResultCache(true, 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, null);
+
+		assertThatThrownBy(() -> cache.get("zzz", () -> { throw new RuntimeException("No words found"); }))
+				.hasMessage("No words found");
+		assertThat(cache.get("zzz", () -> result("found")).get(0).word()).isEqualTo("found");
+	}
+
+	@Test
+	void entryLimitIsEnforcedThroughTheByteBudget() {
+		SearchResultCache cache = new SearchResultCache(true, 10, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, null);
+		for (int i = 0; i < 1_000; i++) {
+			String word = "w" + i;
+			cache.get(word, () -> result(word));
+		}
+		cache.cleanUp();
+
+		assertThat((Long) cache.stats().get("size")).isLessThanOrEqualTo(10L);
+		assertThat((Long) cache.stats().get("evictions")).isPositive();
+	}
+
+	@Test
+	void restartedCacheServesResultsFromDisk() throws InterruptedException {
+		Path file = directory.resolve("search-results.db");
+		SearchResultDiskTier disk = diskTier(file);
+		SearchResultCache cache = new SearchResultCache(true, 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, disk);
+		cache.get("fear of heights", () -> result("acrophobia"));
+		disk.shutdown();
+
+		SearchResultDiskTier restartedDisk = diskTier(file);
+		SearchResultCache restarted = new SearchResultCache(true, 100, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), false, restartedDisk);
+		AtomicInteger loads = new AtomicInteger();
+		List<WordMatch> words = restarted.get("fear of heights", () -> { loads.incrementAndGet(); return result("other"); });
+		restarted.get("fear of heights", () -> { loads.incrementAndGet(); return result("other"); });
+
+		assertThat(loads).hasValue(0);
+		assertThat(words).isEqualTo(result("acrophobia"));
+		assertThat(restartedDisk.stats()).containsEntry("hits", 1L);
+		assertThat(restarted.stats()).containsEntry("staleHits", 0L);
+		restartedDisk.shutdown();
+	}
+
+	private static SearchResultDiskTier diskTier(Path file) {
+		return new SearchResultDiskTier(new ObjectMapper(), true, file, DataSize.ofMegabytes(1), Duration.ofHours(1), false);
+	}
+}
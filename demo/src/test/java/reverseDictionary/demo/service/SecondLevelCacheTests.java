@@ -0,0 +1,173 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reads of users and study sets are answered from the second-level cache, and the service write
+ * paths keep the cached entries current.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class SecondLevelCacheTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private StudySetService studySetService;
+
+	@Autowired
+	private WordService wordService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+	private User user;
+	private Long setId;
+
+	@BeforeEach
+	void setUp() {
+		User newUser = new User();
+		newUser.setUsername("cached-" + System.nanoTime());
+		newUser.setPassword("secret");
+		newUser.setEmail("cached@example.com");
+		user = userService.createUser(newUser);
+		setId = studySetService.createStudySet(new StudySet("Phobias", "Fears", null), user.getId()).getId();
+		wordService.addWordsToStudySet(List.of(new Word("acrophobia", "fear of heights", null),
+				new Word("agoraphobia", "fear of open spaces", null)), setId);
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void repeatedReadsRunNoQueries() {
+		studySetService.getStudySetById(setId);
+		userService.getUserById(user.getId());
+		userRepository.findByUsername(user.getUsername());
+
+		statistics.clear();
+		StudySet studySet = studySetService.getStudySetById(setId);
+		User byId = userService.getUserById(user.getId()).orElseThrow();
+		User byName = userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+		assertThat(studySet.getWords()).extracting(Word::getWord).containsExactlyInAnyOrder("acrophobia", "agoraphobia");
+		assertThat(studySet.getUser().getUsername()).isEqualTo(user.getUsername());
+		assertThat(byId.getEmail()).isEqualTo("cached@example.com");
+		assertThat(byName.getId()).isEqualTo(user.getId());
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+				.tags("region", "study-set", "result", "hit").functionCounter().count()).isPositive();
+	}
+
+	@Test
+	void addingAWordRefreshesTheCachedSet() {
+		long before = studySetService.getStudySetById(setId).getVersion();
+
+		wordService.addWordToStudySet(new Word("claustrophobia", "fear of confined spaces", null), setId);
+
+		StudySet studySet = studySetService.getStudySetById(setId);
+		assertThat(studySet.getWords()).extracting(Word::getWord).contains("claustrophobia");
+		assertThat(studySet.getVersion()).isGreaterThan(before)
+				.isEqualTo(studySetRepository.findVersionById(setId).orElseThrow().version());
+		// The cached version is current, so an update does not fail its optimistic check.
+		assertThat(studySetService.updateStudySet(setId, new StudySet("Fears", "Renamed", null)).getName()).isEqualTo("Fears");
+		assertThat(studySetService.getStudySetById(setId).getName()).isEqualTo("Fears");
+	}
+
+	@Test
+	void renamesRacingWordAddsDoNotFailTheirVersionCheck() throws Exception {
+		int rounds = 20;
+		CountDownLatch start = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < rounds; i++) {
+				int round = i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					return wordService.addWordToStudySet(new Word("phobia-" + round, "a fear", null), setId);
+				}));
+				futures.add(executor.submit(() -> {
+					start.await();
+					return studySetService.updateStudySet(setId, new StudySet("Fears " + round, "Renamed", null));
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+
+		StudySet studySet = studySetService.getStudySetById(setId);
+		assertThat(studySet.getWords()).hasSize(2 + rounds);
+		assertThat(studySet.getName()).startsWith("Fears ");
+		assertThat(studySet.getVersion()).isEqualTo(studySetRepository.findVersionById(setId).orElseThrow().version());
+	}
+
+	@Test
+	void renamingAUserMovesTheCachedUsername() {
+		String oldName = user.getUsername();
+		userRepository.findByUsername(oldName).orElseThrow();
+
+		User renamed = new User();
+		renamed.setUsername(oldName + "-renamed");
+		renamed.setEmail("renamed@example.com");
+		renamed.setPassword("secret");
+		userService.updateUser(user.getId(), renamed);
+
+		assertThat(userRepository.findByUsername(oldName)).isEmpty();
+		assertThat(userRepository.findByUsername(oldName + "-renamed")).get()
+				.extracting(User::getEmail).isEqualTo("renamed@example.com");
+		assertThat(userService.getUserById(user.getId())).get()
+				.extracting(User::getEmail).isEqualTo("renamed@example.com");
+	}
+
+	@Test
+	void deletingEvictsTheCachedEntries() {
+		studySetService.getStudySetById(setId);
+
+		studySetService.deleteStudySet(setId);
+
+		assertThatThrownBy(() -> studySetService.getStudySetById(setId))
+				.hasMessage("Study Set not found with ID: " + setId);
+
+		userService.getUserById(user.getId());
+		userService.deleteUser(user.getId());
+
+		assertThat(userService.getUserById(user.getId())).isEmpty();
+		assertThat(userRepository.findByUsername(user.getUsername())).isEmpty();
+	}
+}
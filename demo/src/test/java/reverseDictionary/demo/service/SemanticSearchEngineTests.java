@@ -0,0 +1,86 @@
+package reverseDictionary.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import reverseDictionary.demo.model.SearchQuery;
+import reverseDictionary.demo.model.WordMatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SemanticSearchEngineTests {
+
+	// Axes: sleep, inability, person, happiness.
+	private static final String VECTORS = """
+			sleep 1 0 0 0
+			cannot 0 1 0 0
+			someone 0 0 0.9 0.1
+			who 0 0 1 0
+			insomniac 0.7 0.7 0.1 0
+			sleeping 0.9 0.3 0 0
+			, 0.7 0.7 0 0
+			person 0 0 1 0
+			happy 0 0 0 1
+			joyful 0.05 0 0 1
+			""";
+
+	private final DictionaryCorpus corpus = new DictionaryCorpus(new DefaultResourceLoader(), "classpath:dictionary/definitions.tsv");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void findsWordsByMeaningRatherThanSharedWords() throws IOException {
+		SemanticSearchEngine engine = engine(10);
+
+		List<WordMatch> words = engine.search(SearchQuery.of("Someone who cannot sleep"));
+
+		// "sleeping" shares a stem with the query and "," is not a word.
+		assertThat(words).extracting(WordMatch::word).startsWith("insomniac", "person")
+				.doesNotContain("sleep", "sleeping", ",", "someone", "cannot", "who");
+		assertThat(words.getFirst().id()).isEqualTo(1);
+		assertThat(words.getFirst().definitions()).isNotEmpty();
+		assertThat(engine.search(new SearchQuery("someone who cannot sleep", 1, 1)))
+				.extracting(WordMatch::word).containsExactly("person");
+	}
+
+	@Test
+	void definitionsWithNoKnownWordFindNothing() throws IOException {
+		SemanticSearchEngine engine = engine(10);
+
+		assertThatThrownBy(() -> engine.search(SearchQuery.of("xyzzy plugh")))
+				.hasMessageContaining("No words found");
+		assertThat(engine.search(new SearchQuery("xyzzy", 5, 5))).isEmpty();
+	}
+
+	@Test
+	void laterStartsMapTheFilesWrittenByTheFirst() throws IOException {
+		engine(10);
+		Path graph = directory.resolve("vectors.txt.hnsw");
+		FileTime built = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(graph, built);
+
+		SemanticSearchEngine reopened = engine(10);
+		assertThat(Files.getLastModifiedTime(graph)).isEqualTo(built);
+		assertThat(reopened.stats()).containsEntry("words", 10);
+
+		// Keeping fewer words invalidates both files.
+		assertThat(engine(5).stats()).containsEntry("words", 5);
+		assertThat(Files.getLastModifiedTime(graph)).isNotEqualTo(built);
+	}
+
+	private SemanticSearchEngine engine(int maxWords) throws IOException {
+		Path source = directory.resolve("vectors.txt");
+		if (Files.notExists(source)) {
+			Files.writeString(source, VECTORS);
+		}
+		return new SemanticSearchEngine(corpus, source.toString(), "", maxWords, 4, 20, 16);
+	}
+}
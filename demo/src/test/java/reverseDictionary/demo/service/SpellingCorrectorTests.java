@@ -0,0 +1,37 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpellingCorrectorTests {
+
+	private static final DefaultResourceLoader RESOURCE_LOADER = new DefaultResourceLoader();
+	private static final DictionaryCorpus CORPUS = new DictionaryCorpus(RESOURCE_LOADER, "classpath:dictionary/definitions.tsv");
+
+	@Test
+	void commonWordsAreLeftAloneAndTyposFixed() {
+		SpellingCorrector corrector = corrector("classpath:spelling/words.txt");
+
+		for (String word : new String[]{"river", "ancient", "window", "flower", "teacher", "chair", "bottle"}) {
+			assertThat(corrector.correct(word)).isEqualTo(word);
+		}
+		assertThat(corrector.correct("scarey")).isEqualTo("scary");
+		assertThat(corrector.correct("fear of hieghts")).isEqualTo("fear of heights");
+	}
+
+	@Test
+	void nothingIsCorrectedWithoutAWordList() {
+		SpellingCorrector corrector = corrector("");
+
+		// The corpus alone would turn these into "driver" and "care".
+		assertThat(corrector.correct("river")).isEqualTo("river");
+		assertThat(corrector.correct("scarey")).isEqualTo("scarey");
+	}
+
+	private static SpellingCorrector corrector(String vocabulary) {
+		return new SpellingCorrector(CORPUS, RESOURCE_LOADER, new SimpleMeterRegistry(), true, 2, vocabulary);
+	}
+}
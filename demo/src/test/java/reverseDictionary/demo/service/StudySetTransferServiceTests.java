@@ -0,0 +1,186 @@
+package reverseDictionary.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reverseDictionary.demo.config.SecondLevelCacheConfig;
+import reverseDictionary.demo.model.ImportReport;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.TransferFormat;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.StudySetRepository;
+import reverseDictionary.demo.repository.UserRepository;
+import reverseDictionary.demo.repository.WordRepository;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a surrounding test transaction so that each import chunk really commits.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(SecondLevelCacheConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudySetTransferServiceTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private StudySetRepository studySetRepository;
+
+	@Autowired
+	private WordRepository wordRepository;
+
+	private SuggestionService suggestionService;
+	private StudySetTransferService transferService;
+	private User teacher;
+	private User student;
+
+	@BeforeEach
+	void setUp() {
+		suggestionService = new SuggestionService(
+				new DictionaryCorpus(new DefaultResourceLoader(), "classpath:dictionary/definitions.tsv"),
+				wordRepository, 10, 100, 100, Duration.ofMinutes(1));
+		transferService = new StudySetTransferService(dataSource, transactionManager, entityManager, userRepository,
+				studySetRepository, wordRepository, suggestionService, new ObjectMapper(), 500, 3);
+		teacher = userRepository.save(user("teacher"));
+		student = userRepository.save(user("student"));
+
+		StudySet feelings = studySetRepository.save(new StudySet("Feelings", "Week 1", teacher));
+		wordRepository.save(new Word("elated", "adj Extremely happy, \"over the moon\"", feelings));
+		wordRepository.save(new Word("morose", "adj Sullen,\nill-tempered", feelings));
+		studySetRepository.save(new StudySet("Empty", null, teacher));
+	}
+
+	@AfterEach
+	void tearDown() {
+		wordRepository.deleteAllInBatch();
+		studySetRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void ndjsonRoundTrip() throws IOException {
+		String exported = export(teacher, TransferFormat.NDJSON);
+		assertThat(exported.lines()).hasSize(3);
+
+		ImportReport report = importInto(student, TransferFormat.NDJSON, exported);
+
+		assertThat(report.errorCount()).isZero();
+		assertThat(report.wordsImported()).isEqualTo(2);
+		assertThat(report.setsCreated()).isEqualTo(2);
+		assertThat(export(student, TransferFormat.NDJSON)).isEqualTo(exported);
+	}
+
+	@Test
+	void csvRoundTripKeepsQuotesCommasAndLineBreaks() throws IOException {
+		String exported = export(teacher, TransferFormat.CSV);
+		assertThat(exported).startsWith("set,description,word,definition\r\n");
+
+		ImportReport report = importInto(student, TransferFormat.CSV, exported);
+
+		assertThat(report.errorCount()).isZero();
+		assertThat(export(student, TransferFormat.CSV)).isEqualTo(exported);
+	}
+
+	@Test
+	void importCommitsInChunksAndReportsBadRows() throws IOException {
+		String body = """
+				{"set":"Feelings","word":"jubilant","definition":"adj Joyful"}
+				{"set":"Colours","word":"azure"}
+				not json
+				{"word":"orphan"}
+				{"set":"Colours","word":"ochre"}
+
+				{"set":"Colours","word":"teal"}
+				""";
+
+		ImportReport report = importInto(teacher, TransferFormat.NDJSON, body);
+
+		assertThat(report.rowsRead()).isEqualTo(6);
+		assertThat(report.wordsImported()).isEqualTo(4);
+		assertThat(report.setsCreated()).isEqualTo(1);
+		assertThat(report.chunksCommitted()).isEqualTo(2);
+		assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(3L, 4L);
+		// "Feelings" already existed, so the new word joined it instead of creating a second set.
+		assertThat(studySetRepository.findByUserId(teacher.getId())).hasSize(3);
+	}
+
+	@Test
+	void importReportsProgressPerChunkAndFeedsSuggestions() throws IOException {
+		// Loads the teacher's words into memory, so newly saved ones are added to them.
+		assertThat(suggestionService.suggest("glimmer", teacher.getId(), 10)).isEmpty();
+		String body = """
+				{"set":"Made up","word":"glimmerwort"}
+				{"set":"Made up","word":"glimmerfen"}
+				{"set":"Made up","word":"glimmerdusk"}
+				{"set":"Made up","word":"glimmerling"}
+				""";
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transferService.importStudySets(teacher.getId(), TransferFormat.NDJSON,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		List<ImportReport> reports = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+			reports.add(objectMapper.readValue(line, ImportReport.class));
+		}
+		// One line per committed chunk of three, then the final report.
+		assertThat(reports).extracting(ImportReport::wordsImported).containsExactly(3L, 4L, 4L);
+		assertThat(reports.get(2).chunksCommitted()).isEqualTo(2);
+		assertThat(suggestionService.suggest("glimmer", teacher.getId(), 10))
+				.containsExactlyInAnyOrder("glimmerwort", "glimmerfen", "glimmerdusk", "glimmerling");
+	}
+
+	private String export(User user, TransferFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transferService.exportStudySets(user.getId(), format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private ImportReport importInto(User user, TransferFormat format, String body) throws IOException {
+		return transferService.importStudySets(user.getId(), format,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setUsername(name);
+		user.setPassword("secret");
+		user.setEmail(name + "@example.com");
+		return user;
+	}
+}
@@ -0,0 +1,84 @@
+package reverseDictionary.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reverseDictionary.demo.model.StudySet;
+import reverseDictionary.demo.model.User;
+import reverseDictionary.demo.model.Word;
+import reverseDictionary.demo.repository.WordRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Typeahead over the bundled headwords, the most saved words and the user's own words.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class SuggestionServiceTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private StudySetService studySetService;
+
+	@Autowired
+	private WordService wordService;
+
+	@Autowired
+	private SuggestionService suggestionService;
+
+	@Autowired
+	private DictionaryCorpus corpus;
+
+	@Autowired
+	private WordRepository wordRepository;
+
+	private Long userId;
+	private Long setId;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setUsername("typist-" + System.nanoTime());
+		user.setPassword("secret");
+		user.setEmail("typist@example.com");
+		userId = userService.createUser(user).getId();
+		setId = studySetService.createStudySet(new StudySet("Sleep", "Sleep words", null), userId).getId();
+	}
+
+	@Test
+	void suggestsBundledHeadwordsCaseInsensitively() {
+		assertThat(suggestionService.suggest("  INSOM", null, 10)).containsExactlyInAnyOrder("insomnia", "insomniac");
+		assertThat(suggestionService.suggest("", null, 10)).isEmpty();
+		assertThat(suggestionService.suggest("qqq", null, 10)).isEmpty();
+	}
+
+	@Test
+	void mostSavedWordsRankFirst() {
+		wordService.addWordsToStudySet(List.of(new Word("Insomniac", "sleepless person", null),
+				new Word("insomniac", "night owl", null)), setId);
+		SuggestionService rebuilt = new SuggestionService(corpus, wordRepository, 10, 1000, 100, Duration.ofMinutes(1));
+
+		assertThat(rebuilt.suggest("insom", null, 10)).containsExactly("insomniac", "insomnia");
+	}
+
+	@Test
+	void theUsersOwnWordsComeFirstAndIncludeNewOnes() {
+		wordService.addWordToStudySet(new Word("insomnolence", "sleeplessness", null), setId);
+		assertThat(suggestionService.suggest("insom", userId, 10))
+				.containsExactly("insomnolence", "insomnia", "insomniac");
+
+		// Once the user's words are in memory, words they add are suggested straight away.
+		wordService.addWordsToStudySet(List.of(new Word("insomnolency", "sleeplessness", null),
+				new Word("insomnolency", "wakefulness", null)), setId);
+		assertThat(suggestionService.suggest("insom", userId, 2)).containsExactly("insomnolency", "insomnolence");
+		assertThat(suggestionService.suggest("insom", null, 10)).doesNotContain("insomnolence", "insomnolency");
+	}
+}
@@ -0,0 +1,78 @@
+package reverseDictionary.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import reverseDictionary.demo.model.AuthenticatedUser;
+import reverseDictionary.demo.util.JwtUtil;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenAuthenticatorTests {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private TokenAuthenticator authenticator(JwtUtil jwtUtil, boolean cacheEnabled) {
+		// Tokens carry the user id, so the repository is never consulted.
+		return new TokenAuthenticator(jwtUtil, null, meterRegistry, cacheEnabled, 1_000);
+	}
+
+	private double outcome(String outcome) {
+		return meterRegistry.get("whatsdaword.auth.tokens").tag("outcome", outcome).counter().count();
+	}
+
+	@Test
+	void repeatedTokensAreVerifiedOnce() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, Duration.ofHours(1));
+		TokenAuthenticator authenticator = authenticator(jwtUtil, true);
+		String token = jwtUtil.generateToken("alice", 42L);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(authenticator.authenticate(token)).isEqualTo(new AuthenticatedUser(42, "alice"));
+		}
+		assertThat(outcome("verified")).isEqualTo(1);
+		assertThat(outcome("cached")).isEqualTo(4);
+	}
+
+	@Test
+	void withoutTheCacheEveryTokenIsVerified() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, Duration.ofHours(1));
+		TokenAuthenticator authenticator = authenticator(jwtUtil, false);
+		String token = jwtUtil.generateToken("alice", 42L);
+
+		authenticator.authenticate(token);
+		authenticator.authenticate(token);
+		assertThat(outcome("verified")).isEqualTo(2);
+		assertThat(outcome("cached")).isZero();
+	}
+
+	@Test
+	void forgedAndExpiredTokensAreRejected() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, Duration.ofHours(1));
+		TokenAuthenticator authenticator = authenticator(jwtUtil, true);
+		String token = jwtUtil.generateToken("alice", 42L);
+		String forged = new JwtUtil("fedcba9876543210fedcba9876543210", Duration.ofHours(1)).generateToken("alice", 42L);
+		String expired = new JwtUtil(SECRET, Duration.ofMinutes(-1)).generateToken("alice", 42L);
+		// Change a character in the middle of the signature; the last one carries padding bits.
+		int at = token.length() - 10;
+		String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+		for (String invalid : new String[] {forged, expired, tampered, "not-a-token"}) {
+			assertThatThrownBy(() -> authenticator.authenticate(invalid))
+					.isInstanceOf(ResponseStatusException.class)
+					.hasMessageContaining("401");
+		}
+		assertThat(outcome("rejected")).isEqualTo(4);
+	}
+
+	@Test
+	void shortSecretsAreRefused() {
+		assertThatThrownBy(() -> new JwtUtil("secret", Duration.ofHours(1)))
+				.hasMessageContaining("256 bits");
+	}
+}
@@ -0,0 +1,98 @@
+package reverseDictionary.demo.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * A local stand-in for the Datamuse {@code /words} endpoint.
+ * Each request is answered according to a {@link Reply} chosen by call number, so tests can inject
+ * delays and errors into specific calls. {@link UpstreamProfile} replays recorded responses with
+ * a latency distribution and an error rate instead.
+ */
+public class DatamuseStubServer implements AutoCloseable {
+
+	public static final String DEFAULT_BODY =
+			"[{\"word\":\"elated\",\"score\":100,\"tags\":[\"adj\"],\"defs\":[\"adj\\tvery happy and excited\"]}]";
+
+	/**
+	 * How to answer one request.
+	 */
+	public record Reply(long delayMillis, int status, String body) {
+
+		public static Reply ok() {
+			return new Reply(0, 200, DEFAULT_BODY);
+		}
+
+		public static Reply delayed(long delayMillis) {
+			return new Reply(delayMillis, 200, DEFAULT_BODY);
+		}
+
+		public static Reply error(int status) {
+			return new Reply(0, status, "{\"error\":\"injected\"}");
+		}
+	}
+
+	private final HttpServer server;
+	private final AtomicInteger calls = new AtomicInteger();
+	private volatile IntFunction<Reply> replies = call -> Reply.ok();
+
+	public DatamuseStubServer() throws IOException {
+		// A deep accept backlog and a virtual thread per exchange keep the stub from becoming the
+		// bottleneck when load tests open thousands of connections at once.
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 8192);
+		server.createContext("/words", this::handle);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+	}
+
+	/**
+	 * @param replies Maps the zero-based call number to the reply for that call.
+	 */
+	public void setReplies(IntFunction<Reply> replies) {
+		this.replies = replies;
+	}
+
+	public int getCallCount() {
+		return calls.get();
+	}
+
+	public String getUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/words";
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		Reply reply = replies.apply(calls.getAndIncrement());
+		try {
+			if (reply.delayMillis() > 0) {
+				Thread.sleep(reply.delayMillis());
+			}
+			byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(reply.status(), body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			// The client gave up (deadline or hedge cancelled); nothing to do.
+		} finally {
+			exchange.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		((ExecutorService) server.getExecutor()).shutdownNow();
+	}
+}
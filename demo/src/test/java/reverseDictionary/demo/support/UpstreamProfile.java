@@ -0,0 +1,101 @@
+package reverseDictionary.demo.support;
+
+import reverseDictionary.demo.support.DatamuseStubServer.Reply;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * How a simulated Datamuse behaves: which recorded responses it serves, how long it takes and how
+ * often it fails. Install it with {@link DatamuseStubServer#setReplies(IntFunction)}.
+ * <p>
+ * Every call draws from its own random source seeded with the profile seed and the call number, so
+ * a given call gets the same reply however many threads hit the stub and in whatever order.
+ *
+ * @param fixtures  Response bodies, one picked at random per successful call.
+ * @param latency   Delay before each reply.
+ * @param errorRate Fraction of calls, between 0 and 1, answered with {@code errorStatus}.
+ * @param errorStatus HTTP status of injected errors.
+ * @param seed      Seed for the delay, error and fixture choices.
+ */
+public record UpstreamProfile(List<String> fixtures, Latency latency, double errorRate, int errorStatus, long seed)
+		implements IntFunction<Reply> {
+
+	/**
+	 * Serves the named fixtures from {@code src/test/resources/datamuse/ml-<name>.json} instantly and without errors.
+	 */
+	public static UpstreamProfile fixtures(String... names) {
+		return new UpstreamProfile(List.of(names).stream().map(UpstreamProfile::fixture).toList(),
+				Latency.constant(0), 0, 503, 42);
+	}
+
+	/**
+	 * @param name A recorded response in {@code src/test/resources/datamuse}, without the {@code ml-} prefix and extension.
+	 * @return The response body.
+	 */
+	public static String fixture(String name) {
+		try (InputStream in = UpstreamProfile.class.getResourceAsStream("/datamuse/ml-" + name + ".json")) {
+			if (in == null) {
+				throw new IllegalArgumentException("No Datamuse fixture named " + name);
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public UpstreamProfile withLatency(Latency latency) {
+		return new UpstreamProfile(fixtures, latency, errorRate, errorStatus, seed);
+	}
+
+	public UpstreamProfile withErrors(double errorRate, int errorStatus) {
+		return new UpstreamProfile(fixtures, latency, errorRate, errorStatus, seed);
+	}
+
+	public UpstreamProfile withSeed(long seed) {
+		return new UpstreamProfile(fixtures, latency, errorRate, errorStatus, seed);
+	}
+
+	@Override
+	public Reply apply(int call) {
+		SplittableRandom random = new SplittableRandom(seed * 31 + call);
+		long delay = latency.sampleMillis(random);
+		if (random.nextDouble() < errorRate) {
+			return new Reply(delay, errorStatus, "{\"error\":\"injected\"}");
+		}
+		return new Reply(delay, 200, fixtures.get(random.nextInt(fixtures.size())));
+	}
+
+	/**
+	 * A distribution of upstream response times.
+	 */
+	@FunctionalInterface
+	public interface Latency {
+
+		long sampleMillis(SplittableRandom random);
+
+		static Latency constant(long millis) {
+			return random -> millis;
+		}
+
+		static Latency uniform(long minMillis, long maxMillis) {
+			return random -> random.nextLong(minMillis, maxMillis + 1);
+		}
+
+		/**
+		 * A long-tailed distribution, as web APIs usually show.
+		 *
+		 * @param medianMillis Half of the calls are faster than this.
+		 * @param p99Millis    One call in a hundred is slower than this.
+		 */
+		static Latency logNormal(double medianMillis, double p99Millis) {
+			double sigma = Math.log(p99Millis / medianMillis) / 2.326; // z-score of the 99th percentile
+			return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+		}
+	}
+}
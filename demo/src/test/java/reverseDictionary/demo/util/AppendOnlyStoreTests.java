@@ -0,0 +1,125 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppendOnlyStoreTests {
+
+	private static final long NOW = 1_000_000;
+	private static final long LATER = NOW + 60_000;
+
+	@TempDir
+	Path directory;
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String value(AppendOnlyStore.Entry entry) {
+		return new String(entry.value(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void latestValueSurvivesReopening() throws IOException {
+		Path file = directory.resolve("store.db");
+		try (AppendOnlyStore store = AppendOnlyStore.open(file, 64 * 1024, NOW)) {
+			store.put("fear of heights", bytes("[\"vertigo\"]"), NOW, LATER);
+			store.put("fear of heights", bytes("[\"acrophobia\"]"), NOW + 1, LATER);
+			store.put("very happy", bytes("[\"elated\"]"), NOW, LATER);
+			assertThat(value(store.get("fear of heights", NOW))).isEqualTo("[\"acrophobia\"]");
+		}
+
+		try (AppendOnlyStore reopened = AppendOnlyStore.open(file, 64 * 1024, NOW + 2)) {
+			assertThat(reopened.size()).isEqualTo(2);
+			AppendOnlyStore.Entry entry = reopened.get("fear of heights", NOW + 2);
+			assertThat(value(entry)).isEqualTo("[\"acrophobia\"]");
+			assertThat(entry.writtenAt()).isEqualTo(NOW + 1);
+			assertThat(value(reopened.get("very happy", NOW + 2))).isEqualTo("[\"elated\"]");
+			assertThat(reopened.get("unknown", NOW + 2)).isNull();
+		}
+	}
+
+	@Test
+	void expiredValuesAreNotReturned() throws IOException {
+		Path file = directory.resolve("store.db");
+		try (AppendOnlyStore store = AppendOnlyStore.open(file, 64 * 1024, NOW)) {
+			store.put("short", bytes("a"), NOW, NOW + 10);
+			store.put("long", bytes("b"), NOW, LATER);
+			assertThat(store.get("short", NOW + 9)).isNotNull();
+			assertThat(store.get("short", NOW + 10)).isNull();
+		}
+
+		try (AppendOnlyStore reopened = AppendOnlyStore.open(file, 64 * 1024, NOW + 10)) {
+			assertThat(reopened.size()).isEqualTo(1);
+			assertThat(reopened.get("long", NOW + 10)).isNotNull();
+		}
+	}
+
+	@Test
+	void compactionKeepsTheFileWithinItsCapacity() throws IOException {
+		Path file = directory.resolve("store.db");
+		int capacity = 16 * 1024;
+		try (AppendOnlyStore store = AppendOnlyStore.open(file, capacity, NOW)) {
+			for (int i = 0; i < 2_000; i++) {
+				// Fifty keys written forty times each: most records are superseded.
+				assertThat(store.put("key" + (i % 50), bytes("value" + i), NOW + i, LATER)).isTrue();
+			}
+			assertThat(store.compactions()).isPositive();
+			assertThat(store.usedBytes()).isLessThanOrEqualTo(capacity);
+			assertThat(store.size()).isEqualTo(50);
+			assertThat(value(store.get("key7", NOW))).isEqualTo("value1957");
+
+			assertThat(store.put("huge", new byte[capacity / 4], NOW, LATER)).isFalse();
+		}
+		assertThat(file.toFile().length()).isEqualTo(capacity);
+
+		try (AppendOnlyStore reopened = AppendOnlyStore.open(file, capacity, NOW)) {
+			assertThat(value(reopened.get("key49", NOW))).isEqualTo("value1999");
+		}
+	}
+
+	@Test
+	void compactionDropsTheOldestWhenLiveRecordsDoNotFit() throws IOException {
+		int capacity = 16 * 1024;
+		try (AppendOnlyStore store = AppendOnlyStore.open(directory.resolve("store.db"), capacity, NOW)) {
+			for (int i = 0; i < 1_000; i++) {
+				store.put("key" + i, new byte[100], NOW + i, LATER);
+			}
+			assertThat(store.liveBytes()).isLessThanOrEqualTo(capacity);
+			assertThat(store.get("key0", NOW)).isNull();
+			assertThat(store.get("key999", NOW)).isNotNull();
+		}
+	}
+
+	@Test
+	void tornRecordIsIgnoredOnReopening() throws IOException {
+		Path file = directory.resolve("store.db");
+		long end;
+		try (AppendOnlyStore store = AppendOnlyStore.open(file, 64 * 1024, NOW)) {
+			store.put("kept", bytes("intact"), NOW, LATER);
+			end = store.usedBytes();
+			store.put("torn", bytes("half written"), NOW, LATER);
+		}
+		// Corrupt the second record's payload, as if the process died while writing it.
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.seek(end + 30);
+			raf.write(0x7f);
+		}
+
+		try (AppendOnlyStore reopened = AppendOnlyStore.open(file, 64 * 1024, NOW)) {
+			assertThat(value(reopened.get("kept", NOW))).isEqualTo("intact");
+			assertThat(reopened.get("torn", NOW)).isNull();
+			assertThat(reopened.usedBytes()).isEqualTo(end);
+
+			reopened.put("next", bytes("appended"), NOW, LATER);
+			assertThat(value(reopened.get("next", NOW))).isEqualTo("appended");
+		}
+	}
+}
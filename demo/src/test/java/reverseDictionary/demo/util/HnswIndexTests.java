@@ -0,0 +1,120 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void convertsTextVectorsAndLooksWordsUp() throws IOException {
+		Path source = directory.resolve("tiny.txt");
+		Files.writeString(source, """
+				3 2
+				the 3 4
+				café 0 2
+				zebra 1 0
+				the 9 9
+				broken 1
+				""", StandardCharsets.UTF_8);
+
+		WordVectors vectors = WordVectors.convert(source, directory.resolve("tiny.vectors"), 10, 7L);
+
+		assertThat(vectors.size()).isEqualTo(3);
+		assertThat(vectors.dimensions()).isEqualTo(2);
+		assertThat(WordVectors.readStamp(directory.resolve("tiny.vectors"))).isEqualTo(7L);
+		assertThat(vectors.id("café")).isEqualTo(1);
+		assertThat(vectors.word(vectors.id("zebra"))).isEqualTo("zebra");
+		assertThat(vectors.id("cafe")).isEqualTo(-1);
+		// Vectors are stored at unit length: (3, 4) becomes (0.6, 0.8).
+		assertThat(vectors.vector(vectors.id("the"))).containsExactly(0.6f, 0.8f);
+	}
+
+	@Test
+	void findsNearlyAllTrueNeighbours() throws IOException {
+		WordVectors vectors = randomVectors(3000, 24);
+		HnswIndex index = HnswIndex.build(vectors, 16, 100, 1);
+
+		assertThat(recall(vectors, index, 64)).isGreaterThan(0.95);
+		assertThat(recall(vectors, index, 10)).isLessThanOrEqualTo(recall(vectors, index, 128));
+	}
+
+	@Test
+	void aWrittenGraphAnswersLikeTheBuiltOne() throws IOException {
+		WordVectors vectors = randomVectors(1000, 16);
+		HnswIndex built = HnswIndex.build(vectors, 8, 50, 1);
+		built.write(directory.resolve("graph.hnsw"));
+
+		HnswIndex mapped = HnswIndex.open(directory.resolve("graph.hnsw"), vectors);
+
+		assertThat(mapped.mappedBytes()).isPositive();
+		assertThat(mapped.maxLevel()).isEqualTo(built.maxLevel());
+		Random random = new Random(3);
+		for (int i = 0; i < 20; i++) {
+			float[] query = vectors.vector(random.nextInt(vectors.size()));
+			assertThat(mapped.search(query, 10, 32)).containsExactly(built.search(query, 10, 32));
+		}
+	}
+
+	private double recall(WordVectors vectors, HnswIndex index, int ef) {
+		Random random = new Random(5);
+		int found = 0;
+		int queries = 200;
+		for (int i = 0; i < queries; i++) {
+			float[] query = randomUnitVector(random, vectors.dimensions());
+			Set<Integer> exact = new HashSet<>();
+			for (int id : vectors.nearest(query, 10)) {
+				exact.add(id);
+			}
+			for (int id : index.search(query, 10, ef)) {
+				if (exact.contains(id)) {
+					found++;
+				}
+			}
+		}
+		return found / (queries * 10.0);
+	}
+
+	private WordVectors randomVectors(int count, int dimensions) throws IOException {
+		Random random = new Random(11);
+		List<String> lines = new ArrayList<>(count);
+		for (int word = 0; word < count; word++) {
+			StringBuilder line = new StringBuilder("w").append(word);
+			for (float component : randomUnitVector(random, dimensions)) {
+				line.append(' ').append(String.format(Locale.ROOT, "%.5f", component));
+			}
+			lines.add(line.toString());
+		}
+		Path source = directory.resolve("random.txt");
+		Files.write(source, lines);
+		return WordVectors.convert(source, directory.resolve("random.vectors"), count, 1L);
+	}
+
+	private static float[] randomUnitVector(Random random, int dimensions) {
+		float[] vector = new float[dimensions];
+		double norm = 0;
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] = (float) random.nextGaussian();
+			norm += vector[i] * vector[i];
+		}
+		for (int i = 0; i < dimensions; i++) {
+			vector[i] /= (float) Math.sqrt(norm);
+		}
+		return vector;
+	}
+}
@@ -0,0 +1,70 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void allowsTheBurstThenRefillsAtTheRate() {
+		// 10 per second: one token every 100 ms.
+		RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(1), 3);
+		long now = 123_456_789;
+		RateLimiter.Bucket bucket = limiter.newBucket(now);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire(bucket, 1, now)).isZero();
+		}
+		assertThat(limiter.tryAcquire(bucket, 1, now)).isEqualTo(SECOND / 10);
+		assertThat(limiter.tryAcquire(bucket, 1, now + SECOND / 20)).isEqualTo(SECOND / 20);
+		assertThat(limiter.tryAcquire(bucket, 1, now + SECOND / 10)).isZero();
+		assertThat(limiter.isFull(bucket, now + SECOND / 10)).isFalse();
+		assertThat(limiter.isFull(bucket, now + 4 * SECOND / 10)).isTrue();
+	}
+
+	@Test
+	void requestsForSeveralTokensAreAllOrNothing() {
+		RateLimiter limiter = new RateLimiter(10, Duration.ofSeconds(1), 5);
+		long now = -42; // nanoTime may be negative
+		RateLimiter.Bucket bucket = limiter.newBucket(now);
+
+		assertThat(limiter.tryAcquire(bucket, 4, now)).isZero();
+		assertThat(limiter.tryAcquire(bucket, 2, now)).isEqualTo(SECOND / 10);
+		assertThat(limiter.tryAcquire(bucket, 1, now)).isZero();
+
+		limiter.release(bucket, 5);
+		assertThat(limiter.isFull(bucket, now)).isTrue();
+		// More than the burst is granted from a full bucket only, and charged in full.
+		assertThat(limiter.tryAcquire(bucket, 100, now)).isZero();
+		assertThat(limiter.tryAcquire(bucket, 1, now)).isEqualTo(96 * SECOND / 10);
+		assertThat(limiter.tryAcquire(bucket, 1, now + 96 * SECOND / 10)).isZero();
+	}
+
+	@Test
+	void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+		RateLimiter limiter = new RateLimiter(1, Duration.ofHours(1), 1_000);
+		RateLimiter.Bucket bucket = limiter.newBucket(System.nanoTime());
+		AtomicInteger granted = new AtomicInteger();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int t = 0; t < 8; t++) {
+				executor.execute(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						if (limiter.tryAcquire(bucket, 1, System.nanoTime()) == 0) {
+							granted.incrementAndGet();
+						}
+					}
+				});
+			}
+		}
+		assertThat(granted).hasValue(1_000);
+	}
+}
@@ -0,0 +1,223 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+	@Test
+	void concurrentCallersShareOneExecution() throws Exception {
+		SingleFlight<Key, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch joined = new CountDownLatch(29);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(30);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				results.add(pool.submit(() -> flights.execute(new Key("fear of heights", joined), () -> {
+					executions.incrementAndGet();
+					started.countDown();
+					await(release);
+					return "acrophobia";
+				})));
+				if (i == 0) {
+					started.await();
+				}
+			}
+			joined.await();
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertThat(result.get()).isEqualTo("acrophobia");
+			}
+			assertThat(executions).hasValue(1);
+			assertThat(flights.stats()).containsEntry("coalesced", 29L).containsEntry("inFlight", 0);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void followersReceiveTheLeadersError() throws Exception {
+		SingleFlight<Key, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch joined = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread leader = new Thread(() -> {
+			try {
+				flights.execute(new Key("k", joined), () -> {
+					started.countDown();
+					await(release);
+					throw new IllegalStateException("upstream down");
+				});
+			} catch (Exception ignored) {
+			}
+		});
+		leader.start();
+		started.await();
+
+		// Fails the leader only once this thread has joined its flight.
+		Thread releaser = new Thread(() -> {
+			await(joined);
+			release.countDown();
+		});
+		releaser.start();
+		assertThatThrownBy(() -> flights.execute(new Key("k", joined), () -> "unused")).hasMessage("upstream down");
+		leader.join();
+	}
+
+	@Test
+	void followersGiveUpAfterTheWaitCap() throws Exception {
+		SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMillis(20));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread leader = new Thread(() -> {
+			try {
+				flights.execute("k", () -> {
+					started.countDown();
+					await(release);
+					return "late";
+				});
+			} catch (TimeoutException ignored) {
+			}
+		});
+		leader.start();
+		started.await();
+
+		assertThatThrownBy(() -> flights.execute("k", () -> "unused")).isInstanceOf(TimeoutException.class);
+		assertThat(flights.stats()).containsEntry("followerTimeouts", 1L);
+		release.countDown();
+		leader.join();
+	}
+
+	@Test
+	void asyncCallersShareOneExecution() throws Exception {
+		SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+		CompletableFuture<String> work = new CompletableFuture<>();
+		AtomicInteger executions = new AtomicInteger();
+
+		CompletableFuture<String> first = flights.executeAsync("k", () -> {
+			executions.incrementAndGet();
+			return work;
+		});
+		CompletableFuture<String> second = flights.executeAsync("k", () -> {
+			executions.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+		work.complete("acrophobia");
+
+		assertThat(first.get()).isEqualTo("acrophobia");
+		assertThat(second.get()).isEqualTo("acrophobia");
+		assertThat(executions).hasValue(1);
+		assertThat(flights.stats()).containsEntry("inFlight", 0);
+	}
+
+	@Test
+	void workIsCancelledOnlyWhenEveryAsyncCallerHasGone() {
+		SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+		CompletableFuture<String> work = new CompletableFuture<>();
+		CompletableFuture<String> first = flights.executeAsync("k", () -> work);
+		CompletableFuture<String> second = flights.executeAsync("k", () -> new CompletableFuture<>());
+
+		first.cancel(true);
+		assertThat(work).isNotDone();
+
+		second.cancel(true);
+		assertThat(work).isCancelled();
+		assertThat(flights.stats()).containsEntry("abandoned", 1L).containsEntry("inFlight", 0);
+	}
+
+	@Test
+	void syncFollowerKeepsAnAsyncFlightAlive() throws Exception {
+		SingleFlight<Key, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+		CountDownLatch joined = new CountDownLatch(1);
+		CompletableFuture<String> work = new CompletableFuture<>();
+		CompletableFuture<String> leader = flights.executeAsync(new Key("k", joined), () -> work);
+		CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> {
+			try {
+				return flights.execute(new Key("k", joined), () -> "unused");
+			} catch (TimeoutException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		joined.await();
+
+		leader.cancel(true);
+		work.complete("acrophobia");
+
+		assertThat(follower.get()).isEqualTo("acrophobia");
+	}
+
+	@Test
+	void workIsCancelledWhenASyncFollowerIsTheLastToGiveUp() throws Exception {
+		SingleFlight<Key, String> flights = new SingleFlight<>(Duration.ofMillis(500));
+		CountDownLatch joined = new CountDownLatch(1);
+		CompletableFuture<String> work = new CompletableFuture<>();
+		CompletableFuture<String> leader = flights.executeAsync(new Key("k", joined), () -> work);
+		CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> {
+			try {
+				return flights.execute(new Key("k", joined), () -> "unused");
+			} catch (TimeoutException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		joined.await();
+
+		leader.cancel(true);
+		assertThat(work).isNotDone();
+
+		assertThat(follower).failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(ExecutionException.class)
+				.havingCause()
+				.withCauseInstanceOf(TimeoutException.class);
+		assertThat(work).isCancelled();
+		assertThat(flights.stats()).containsEntry("abandoned", 1L).containsEntry("inFlight", 0)
+				.containsEntry("followerTimeouts", 1L);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * A key that counts down {@code joined} when the in-flight map matches it against the key of a
+	 * flight already in progress, so a test can wait until a caller is certain to follow that flight
+	 * instead of sleeping.
+	 */
+	private record Key(String name, CountDownLatch joined) {
+
+		@Override
+		public boolean equals(Object other) {
+			boolean same = other instanceof Key key && key.name.equals(name);
+			if (same && other != this) {
+				joined.countDown();
+			}
+			return same;
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+	}
+}
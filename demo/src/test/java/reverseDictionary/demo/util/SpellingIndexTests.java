@@ -0,0 +1,94 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpellingIndexTests {
+
+	private static final Map<String, Long> FREQUENCIES = Map.of(
+			"heights", 3L,
+			"height", 1L,
+			"sleep", 5L,
+			"steep", 1L,
+			"insomnia", 2L,
+			"acrophobia", 1L);
+
+	@Test
+	void correctsInsertionsDeletionsSubstitutionsAndTranspositions() {
+		SpellingIndex index = SpellingIndex.build(FREQUENCIES, 2, 7);
+
+		assertThat(index.bestMatch("hieghts", 2)).isEqualTo("heights");
+		assertThat(index.bestMatch("insomnnia", 1)).isEqualTo("insomnia");
+		assertThat(index.bestMatch("insmnia", 1)).isEqualTo("insomnia");
+		assertThat(index.bestMatch("acrofobia", 2)).isEqualTo("acrophobia");
+		assertThat(index.bestMatch("heights", 2)).isEqualTo("heights");
+	}
+
+	@Test
+	void prefersTheClosestThenTheMostFrequentWord() {
+		SpellingIndex index = SpellingIndex.build(FREQUENCIES, 2, 7);
+
+		// "heighs" is one edit from both "height" and "heights"; "heights" is more frequent.
+		assertThat(index.bestMatch("heighs", 2)).isEqualTo("heights");
+		// "sheep" is one edit from "sleep" and "steep"; "sleep" is more frequent.
+		assertThat(index.bestMatch("sheep", 1)).isEqualTo("sleep");
+		// "heighz" is one edit from "height", two from "heights".
+		assertThat(index.bestMatch("heighz", 1)).isEqualTo("height");
+	}
+
+	@Test
+	void termsTooFarFromAnyWordHaveNoMatch() {
+		SpellingIndex index = SpellingIndex.build(FREQUENCIES, 2, 7);
+
+		assertThat(index.bestMatch("hiegths", 1)).isNull();
+		assertThat(index.bestMatch("zzzzz", 2)).isNull();
+		assertThat(index.bestMatch("acrofobia", 0)).isNull();
+	}
+
+	@Test
+	void matchesABruteForceScan() {
+		Random random = new Random(7);
+		Map<String, Long> frequencies = new HashMap<>();
+		while (frequencies.size() < 2000) {
+			frequencies.put(randomWord(random, 3 + random.nextInt(10)), 1L + random.nextInt(100));
+		}
+		SpellingIndex index = SpellingIndex.build(frequencies, 2, 7);
+
+		for (int i = 0; i < 2000; i++) {
+			String term = randomWord(random, 3 + random.nextInt(10));
+			assertThat(index.bestMatch(term, 2)).as(term).isEqualTo(bruteForce(frequencies, term, 2));
+		}
+	}
+
+	private static String bruteForce(Map<String, Long> frequencies, String term, int maxDistance) {
+		String best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+			int distance = SpellingIndex.distance(term, entry.getKey(), maxDistance);
+			if (distance < 0) {
+				continue;
+			}
+			String word = entry.getKey();
+			if (best == null || distance < bestDistance
+					|| distance == bestDistance && (entry.getValue() > frequencies.get(best)
+					|| entry.getValue().equals(frequencies.get(best)) && word.compareTo(best) < 0)) {
+				best = word;
+				bestDistance = distance;
+			}
+		}
+		return best;
+	}
+
+	private static String randomWord(Random random, int length) {
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(6)));
+		}
+		return word.toString();
+	}
+}
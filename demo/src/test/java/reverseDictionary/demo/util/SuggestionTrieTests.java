@@ -0,0 +1,90 @@
+package reverseDictionary.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTests {
+
+	private static final Map<String, Long> WEIGHTS = Map.of(
+			"in", 1L,
+			"insomnia", 5L,
+			"insomniac", 2L,
+			"inspire", 5L,
+			"instinct", 3L,
+			"acrophobia", 9L,
+			"agoraphobia", 4L);
+
+	@Test
+	void ranksByWeightThenLengthThenAlphabet() {
+		SuggestionTrie trie = SuggestionTrie.build(WEIGHTS, 10);
+
+		assertThat(trie.suggest("ins", 10)).containsExactly("inspire", "insomnia", "instinct", "insomniac");
+		assertThat(trie.suggest("in", 10)).containsExactly("inspire", "insomnia", "instinct", "insomniac", "in");
+		assertThat(trie.suggest("", 3)).containsExactly("acrophobia", "inspire", "insomnia");
+	}
+
+	@Test
+	void prefixesMayEndInsideAnEdge() {
+		SuggestionTrie trie = SuggestionTrie.build(WEIGHTS, 10);
+
+		// "insomnia" and "insomniac" share the edge "omnia" below "ins".
+		assertThat(trie.suggest("inso", 10)).containsExactly("insomnia", "insomniac");
+		assertThat(trie.suggest("insomniac", 10)).containsExactly("insomniac");
+		assertThat(trie.suggest("a", 10)).containsExactly("acrophobia", "agoraphobia");
+	}
+
+	@Test
+	void unknownPrefixesHaveNoSuggestions() {
+		SuggestionTrie trie = SuggestionTrie.build(WEIGHTS, 10);
+
+		assertThat(trie.suggest("insomniacs", 10)).isEmpty();
+		assertThat(trie.suggest("ix", 10)).isEmpty();
+		assertThat(trie.suggest("z", 10)).isEmpty();
+		assertThat(SuggestionTrie.build(Map.of(), 10).suggest("a", 10)).isEmpty();
+	}
+
+	@Test
+	void lookupsReturnAtMostKWords() {
+		SuggestionTrie trie = SuggestionTrie.build(WEIGHTS, 2);
+
+		assertThat(trie.suggest("in", 10)).containsExactly("inspire", "insomnia");
+		assertThat(trie.suggest("in", 1)).containsExactly("inspire");
+	}
+
+	@Test
+	void matchesABruteForceScan() {
+		Random random = new Random(42);
+		Map<String, Long> weights = new HashMap<>();
+		for (int i = 0; i < 5_000; i++) {
+			StringBuilder word = new StringBuilder();
+			int length = 1 + random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				word.append((char) ('a' + random.nextInt(4)));
+			}
+			weights.put(word.toString(), (long) random.nextInt(20));
+		}
+		SuggestionTrie trie = SuggestionTrie.build(weights, 5);
+		Comparator<String> ranking = Comparator.<String>comparingLong(word -> -weights.get(word))
+				.thenComparingInt(String::length)
+				.thenComparing(Comparator.naturalOrder());
+
+		for (String prefix : List.of("", "a", "ab", "abc", "dd", "cab", "bbbb", "abcdabcd")) {
+			List<String> expected = weights.keySet().stream()
+					.filter(word -> word.startsWith(prefix))
+					.sorted(ranking)
+					.limit(5)
+					.toList();
+			assertThat(trie.suggest(prefix, 5)).as(prefix).isEqualTo(expected);
+		}
+		assertThat(trie.size()).isEqualTo(weights.size());
+		assertThat(trie.nodeCount()).isLessThan(2 * weights.size());
+		assertThat(trie.estimatedBytes()).isPositive();
+	}
+}